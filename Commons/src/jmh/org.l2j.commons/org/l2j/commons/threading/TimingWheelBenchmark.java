@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.commons.threading;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scheduling and cancelling a task on the {@link TimingWheel} and on the {@link ScheduledThreadPoolExecutor},
+ * both already holding a backlog of pending tasks, as the game server timers are mostly cancelled before they expire.
+ *
+ * Run with {@code gradlew :Commons:jmh -PjmhIncludes=TimingWheelBenchmark}
+ *
+ * @author JoeAlisson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimingWheelBenchmark {
+
+    private static final Runnable NOOP = () -> { };
+    private static final int TICK_MILLIS = 100;
+    private static final int DELAYS = 1024;
+
+    @Param({"1000", "100000"})
+    private int backlog;
+
+    private TimingWheel wheel;
+    private ScheduledThreadPoolExecutor executor;
+    private long[] delays;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        wheel = new TimingWheel(TICK_MILLIS, Runnable::run);
+        executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+
+        // the backlog outlives the benchmark, so only the scheduled and cancelled tasks change the structures
+        final var random = new Random(0x4C324A);
+        for (int i = 0; i < backlog; i++) {
+            final long delay = TimeUnit.MINUTES.toMillis(10) + random.nextInt((int) TimeUnit.MINUTES.toMillis(10));
+            wheel.schedule(NOOP, delay, 0);
+            executor.schedule(NOOP, delay, TimeUnit.MILLISECONDS);
+        }
+
+        delays = new long[DELAYS];
+        for (int i = 0; i < DELAYS; i++) {
+            delays[i] = TICK_MILLIS + random.nextInt((int) TimeUnit.MINUTES.toMillis(1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        wheel.shutdown();
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public ScheduledFuture<?> timingWheel() {
+        final var future = wheel.schedule(NOOP, nextDelay(), 0);
+        future.cancel(false);
+        return future;
+    }
+
+    @Benchmark
+    public ScheduledFuture<?> scheduledExecutor() {
+        final var future = executor.schedule(NOOP, nextDelay(), TimeUnit.MILLISECONDS);
+        future.cancel(false);
+        return future;
+    }
+
+    private long nextDelay() {
+        return delays[next++ & (DELAYS - 1)];
+    }
+}
@@ -22,13 +22,16 @@ import java.time.Duration;
 import java.util.concurrent.*;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 public class ThreadPool {
     private static final long MAX_DELAY = TimeUnit.NANOSECONDS.toMillis(Long.MAX_VALUE - System.nanoTime()) / 2;
+    private static final long MAX_WHEEL_DELAY = TimeUnit.DAYS.toMillis(30);
 
     private ScheduledThreadPoolExecutor scheduledExecutor;
     private ThreadPoolExecutor executor;
     private ForkJoinPool forkPool;
+    private TimingWheel timingWheel;
 
     private boolean shutdown;
 
@@ -36,7 +39,7 @@ public class ThreadPool {
 
     }
 
-    private void initThreadPools(int threadPoolSize, int scheduledPoolSize) {
+    private void initThreadPools(int threadPoolSize, int scheduledPoolSize, int wheelTickMillis) {
         final var rejectedHandler = new RejectedExecutionHandlerImpl();
 
         executor = new ThreadPoolExecutor(threadPoolSize, Integer.MAX_VALUE, 5, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), new PriorityThreadFactory("ThreadPoolExecutor", Thread.NORM_PRIORITY), rejectedHandler);
@@ -44,6 +47,10 @@ public class ThreadPool {
         scheduledExecutor.setRemoveOnCancelPolicy(true);
         forkPool = new ForkJoinPool(threadPoolSize, ForkJoinPool.defaultForkJoinWorkerThreadFactory, rejectedHandler, false);
 
+        if(wheelTickMillis > 0) {
+            timingWheel = new TimingWheel(wheelTickMillis, executor);
+        }
+
         schedulePurge();
     }
 
@@ -79,7 +86,12 @@ public class ThreadPool {
         if(delay == -1)
             return null;
 
-        return getInstance().scheduledExecutor.schedule(r, delay, unit);
+        final var instance = getInstance();
+        final long delayMillis = unit.toMillis(delay);
+        if(instance.useWheel(delayMillis)) {
+            return instance.timingWheel.schedule(r, delayMillis, 0);
+        }
+        return instance.scheduledExecutor.schedule(r, delay, unit);
     }
 
     public static ScheduledFuture<?> scheduleAtFixedRate(Runnable r, Duration initial, Duration delay) {
@@ -93,9 +105,13 @@ public class ThreadPool {
 
         delay = validate(delay);
         if(delay == -1)
-            return getInstance().scheduledExecutor.schedule(r, initial, TimeUnit.MILLISECONDS);
+            return schedule(r, initial, TimeUnit.MILLISECONDS);
 
-        return getInstance().scheduledExecutor.scheduleAtFixedRate(r, initial, delay, TimeUnit.MILLISECONDS);
+        final var instance = getInstance();
+        if(instance.useWheel(delay) && initial <= MAX_WHEEL_DELAY) {
+            return instance.timingWheel.schedule(r, initial, delay);
+        }
+        return instance.scheduledExecutor.scheduleAtFixedRate(r, initial, delay, TimeUnit.MILLISECONDS);
     }
 
     public static ScheduledFuture<?> scheduleAtFixedDelay(Runnable r, long initial, long delay) {
@@ -109,9 +125,22 @@ public class ThreadPool {
 
         delay = validate(delay);
         if(delay == -1)
-            return getInstance().scheduledExecutor.schedule(r, initial, unit);
+            return schedule(r, initial, unit);
+
+        final var instance = getInstance();
+        final long delayMillis = unit.toMillis(delay);
+        final long initialMillis = unit.toMillis(initial);
+        if(instance.useWheel(delayMillis) && initialMillis <= MAX_WHEEL_DELAY) {
+            return instance.timingWheel.schedule(r, initialMillis, -delayMillis);
+        }
+        return instance.scheduledExecutor.scheduleWithFixedDelay(r, initial, delay, unit);
+    }
 
-        return getInstance().scheduledExecutor.scheduleWithFixedDelay(r, initial, delay, unit);
+    /**
+     * The timing wheel only takes the delays of at least one tick, the shorter ones keep the precision of the scheduled executor.
+     */
+    private boolean useWheel(long delayMillis) {
+        return nonNull(timingWheel) && delayMillis >= timingWheel.tickMillis() && delayMillis <= MAX_WHEEL_DELAY;
     }
 
     public static void execute(Runnable r) {
@@ -124,6 +153,9 @@ public class ThreadPool {
 
     public void shutdown() throws InterruptedException {
         shutdown = true;
+        if(nonNull(timingWheel)) {
+            timingWheel.shutdown();
+        }
         try {
             scheduledExecutor.shutdown();
             scheduledExecutor.awaitTermination(15, TimeUnit.SECONDS);
@@ -147,6 +179,13 @@ public class ThreadPool {
         list.append("ThreadPoolExecutor\n");
         treadPoolStats(list, executor);
 
+        if(nonNull(timingWheel)) {
+            list.append("TimingWheel\n");
+            list.append("=================================================\n");
+            list.append("\tgetTickMillis: ....... ").append(timingWheel.tickMillis()).append("\n");
+            list.append("\tgetScheduledCount: ... ").append(timingWheel.size()).append("\n");
+        }
+
         return list;
     }
 
@@ -163,11 +202,20 @@ public class ThreadPool {
     }
 
     public static void init(int threadPoolSize, int scheduledPoolSize) {
+        init(threadPoolSize, scheduledPoolSize, 0);
+    }
+
+    /**
+     * @param threadPoolSize the amount of threads of the executor
+     * @param scheduledPoolSize the amount of threads of the scheduled executor
+     * @param wheelTickMillis the tick of the timing wheel used by the delays of at least one tick, 0 to disable it
+     */
+    public static void init(int threadPoolSize, int scheduledPoolSize, int wheelTickMillis) {
         synchronized (ThreadPool.class) {
 
             var instance = getInstance();
             if(isNull(instance.scheduledExecutor)) {
-                instance.initThreadPools(threadPoolSize, scheduledPoolSize);
+                instance.initThreadPools(threadPoolSize, scheduledPoolSize, wheelTickMillis);
             }
         }
     }
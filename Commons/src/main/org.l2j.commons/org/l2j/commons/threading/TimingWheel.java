@@ -0,0 +1,334 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.commons.threading;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel scheduler.
+ *
+ * The time is divided in ticks and each slot of the wheel holds the tasks expiring on the ticks mapped to it.
+ * Scheduling and cancelling are O(1), the new tasks and the cancellations are queued without locks and
+ * only the wheel thread touches the slots. The expired tasks are run by the executor.
+ *
+ * The tasks never run before their delay, but they can run up to one tick late.
+ *
+ * @author JoeAlisson
+ */
+final class TimingWheel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimingWheel.class);
+    private static final int WHEEL_SIZE = 512;
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Slot[] wheel = new Slot[WHEEL_SIZE];
+    private final int mask = WHEEL_SIZE - 1;
+    private final Queue<WheelTask> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTask> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger scheduled = new AtomicInteger();
+    private final Executor executor;
+    private final Thread worker;
+    private final long startTime;
+    private volatile boolean running = true;
+    private long tick;
+
+    TimingWheel(long tickMillis, Executor executor) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.executor = executor;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new Slot();
+        }
+        startTime = System.nanoTime();
+        worker = new Thread(this::work, "TimingWheel");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    long tickMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(tickNanos);
+    }
+
+    /**
+     * @param task the task to run
+     * @param delay the delay in millis
+     * @param period 0 to run once, positive to run at fixed rate and negative to run with fixed delay
+     * @return the future to cancel the task
+     */
+    ScheduledFuture<?> schedule(Runnable task, long delay, long period) {
+        final var wheelTask = new WheelTask(task, elapsed() + TimeUnit.MILLISECONDS.toNanos(delay), TimeUnit.MILLISECONDS.toNanos(period));
+        scheduled.incrementAndGet();
+        pending.add(wheelTask);
+        return wheelTask;
+    }
+
+    int size() {
+        return scheduled.get();
+    }
+
+    void shutdown() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private long elapsed() {
+        return System.nanoTime() - startTime;
+    }
+
+    private void work() {
+        while (running) {
+            final long deadline = waitForNextTick();
+            if(deadline < 0) {
+                continue;
+            }
+            try {
+                removeCancelled();
+                transferPending();
+                expire(wheel[(int) (tick & mask)], deadline);
+            } catch (Exception e) {
+                LOGGER.error("Error processing the timing wheel", e);
+            }
+            tick++;
+        }
+    }
+
+    private long waitForNextTick() {
+        final long deadline = tickNanos * (tick + 1);
+        long sleep;
+        while ((sleep = deadline - elapsed()) > 0) {
+            LockSupport.parkNanos(this, sleep);
+            if(!running) {
+                return -1;
+            }
+        }
+        return deadline;
+    }
+
+    private void removeCancelled() {
+        WheelTask task;
+        while ((task = cancelled.poll()) != null) {
+            if(task.slot != null) {
+                task.slot.remove(task);
+            }
+        }
+    }
+
+    private void transferPending() {
+        WheelTask task;
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK && (task = pending.poll()) != null; i++) {
+            if(task.state != WheelTask.WAITING) {
+                continue;
+            }
+            final long expirationTick = task.deadline / tickNanos;
+            task.remainingRounds = (expirationTick - tick) / WHEEL_SIZE;
+            wheel[(int) (Math.max(expirationTick, tick) & mask)].add(task);
+        }
+    }
+
+    private void expire(Slot slot, long deadline) {
+        var task = slot.head;
+        while (task != null) {
+            final var next = task.next;
+            if(task.state != WheelTask.WAITING) {
+                slot.remove(task);
+            } else if(task.remainingRounds <= 0 && task.deadline <= deadline) {
+                slot.remove(task);
+                submit(task);
+            } else {
+                task.remainingRounds--;
+            }
+            task = next;
+        }
+    }
+
+    /**
+     * A rejected task is cancelled, without aborting the other tasks of the slot.
+     */
+    private void submit(WheelTask task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("The scheduled task {} was rejected by the executor", task.task, e);
+            task.cancel(false);
+        }
+    }
+
+    private static final class Slot {
+        private WheelTask head;
+        private WheelTask tail;
+
+        private void add(WheelTask task) {
+            task.slot = this;
+            if(head == null) {
+                head = tail = task;
+            } else {
+                tail.next = task;
+                task.prev = tail;
+                tail = task;
+            }
+        }
+
+        private void remove(WheelTask task) {
+            if(task.prev != null) {
+                task.prev.next = task.next;
+            } else {
+                head = task.next;
+            }
+
+            if(task.next != null) {
+                task.next.prev = task.prev;
+            } else {
+                tail = task.prev;
+            }
+            task.prev = task.next = null;
+            task.slot = null;
+        }
+    }
+
+    private final class WheelTask implements ScheduledFuture<Object>, Runnable {
+        private static final int WAITING = 0;
+        private static final int RUNNING = 1;
+        private static final int DONE = 2;
+        private static final int CANCELLED = 3;
+
+        private final Runnable task;
+        private final long period;
+        private volatile long deadline;
+        private volatile int state;
+
+        private long remainingRounds;
+        private Slot slot;
+        private WheelTask prev;
+        private WheelTask next;
+
+        private WheelTask(Runnable task, long deadline, long period) {
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        @Override
+        public void run() {
+            if(!STATE.compareAndSet(this, WAITING, RUNNING)) {
+                return;
+            }
+
+            try {
+                task.run();
+            } catch (Throwable e) {
+                LOGGER.warn("Exception on scheduled task {}", task, e);
+            }
+
+            if(period == 0) {
+                finish(DONE);
+            } else if(STATE.compareAndSet(this, RUNNING, WAITING)) {
+                deadline = period > 0 ? deadline + period : elapsed() - period;
+                pending.add(this);
+            }
+        }
+
+        private void finish(int finalState) {
+            state = finalState;
+            scheduled.decrementAndGet();
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if(STATE.compareAndSet(this, WAITING, CANCELLED)) {
+                cancelled.add(this);
+            } else if(period == 0 || !STATE.compareAndSet(this, RUNNING, CANCELLED)) {
+                return false;
+            }
+            scheduled.decrementAndGet();
+            synchronized (this) {
+                notifyAll();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return state >= DONE;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - elapsed(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public Object get() throws InterruptedException, CancellationException {
+            synchronized (this) {
+                while (!isDone()) {
+                    wait();
+                }
+            }
+            return checkCancelled();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+            final long end = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (this) {
+                long remaining;
+                while (!isDone()) {
+                    if((remaining = end - System.nanoTime()) <= 0) {
+                        throw new TimeoutException();
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+            return checkCancelled();
+        }
+
+        private Object checkCancelled() {
+            if(isCancelled()) {
+                throw new CancellationException();
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return "WheelTask{" + task + "}";
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<WheelTask> STATE = AtomicIntegerFieldUpdater.newUpdater(WheelTask.class, "state");
+}
@@ -19,13 +19,18 @@
 package handlers.admincommandhandlers;
 
 import org.l2j.commons.threading.ThreadPool;
+import org.l2j.gameserver.engine.geo.GeoEngine;
 import org.l2j.gameserver.engine.skill.api.Skill;
 import org.l2j.gameserver.engine.skill.api.SkillEngine;
 import org.l2j.gameserver.handler.IAdminCommandHandler;
 import org.l2j.gameserver.model.WorldObject;
 import org.l2j.gameserver.model.actor.Creature;
 import org.l2j.gameserver.model.actor.instance.Player;
+import org.l2j.gameserver.model.events.EventListenerProfiler;
 import org.l2j.gameserver.network.serverpackets.MagicSkillUse;
+import org.l2j.gameserver.taskmanager.AttackableThinkTaskManager;
+import org.l2j.gameserver.taskmanager.DeadlineTaskManager;
+import org.l2j.gameserver.taskmanager.EffectTickTaskManager;
 import org.l2j.gameserver.util.BuilderUtil;
 
 import java.util.NoSuchElementException;
@@ -41,6 +46,10 @@ public class AdminTest implements IAdminCommandHandler
 	private static final String[] ADMIN_COMMANDS =
 	{
 		"admin_stats",
+		"admin_event_stats",
+		"admin_event_stats_reset",
+		"admin_pathfinding_stats",
+		"admin_task_stats",
 		"admin_skill_test"
 	};
 	
@@ -51,6 +60,36 @@ public class AdminTest implements IAdminCommandHandler
 		{
 			activeChar.sendMessage(ThreadPool.getInstance().getStats().toString());
 		}
+		else if (command.equals("admin_event_stats_reset"))
+		{
+			EventListenerProfiler.getInstance().reset();
+			BuilderUtil.sendSysMessage(activeChar, "Event listener stats reset.");
+		}
+		else if (command.equals("admin_pathfinding_stats"))
+		{
+			activeChar.sendMessage(GeoEngine.getInstance().getPathFindingStats().toString());
+		}
+		else if (command.equals("admin_task_stats"))
+		{
+			activeChar.sendMessage(DeadlineTaskManager.getInstance().getStats().toString());
+			activeChar.sendMessage(EffectTickTaskManager.getInstance().getStats().toString());
+			activeChar.sendMessage(AttackableThinkTaskManager.getInstance().getStats().toString());
+		}
+		else if (command.startsWith("admin_event_stats"))
+		{
+			final StringTokenizer st = new StringTokenizer(command);
+			st.nextToken();
+			try
+			{
+				final int owners = st.hasMoreTokens() ? Integer.parseInt(st.nextToken()) : 10;
+				activeChar.sendMessage(EventListenerProfiler.getInstance().getEventTypeStats().toString());
+				activeChar.sendMessage(EventListenerProfiler.getInstance().getOwnerStats(owners).toString());
+			}
+			catch (NumberFormatException e)
+			{
+				BuilderUtil.sendSysMessage(activeChar, "Command format is //event_stats [owners]");
+			}
+		}
 		else if (command.startsWith("admin_skill_test"))
 		{
 			try
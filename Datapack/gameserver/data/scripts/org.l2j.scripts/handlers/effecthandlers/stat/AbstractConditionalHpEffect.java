@@ -74,6 +74,11 @@ abstract class AbstractConditionalHpEffect extends AbstractStatEffect {
         return hpPercent <= 0 || effected.getCurrentHpPercent() <= hpPercent;
     }
 
+    @Override
+    public boolean isPurePump() {
+        return false;
+    }
+
     private void onHpChange(OnCreatureHpChange event) {
         final Creature creature = event.getCreature();
         final AtomicBoolean update = updates.get(creature);
@@ -57,6 +57,11 @@ public final class Speed extends AbstractStatEffect {
         }
     }
 
+    @Override
+    public boolean isPurePump() {
+        return true;
+    }
+
     public static class Factory implements SkillEffectFactory {
 
         @Override
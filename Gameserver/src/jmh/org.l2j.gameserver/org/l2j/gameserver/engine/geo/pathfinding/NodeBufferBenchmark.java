@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.engine.geo.pathfinding;
+
+import org.l2j.gameserver.engine.geo.GeoEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary heap {@link NodeBuffer} with the former sorted list open list, searching paths on real geodata.
+ *
+ * The geodata is loaded by {@link GeoEngine} from the server settings, so the jar built by {@code gradlew :Gameserver:jmhJar}
+ * must run from the server directory, with the geodata files installed and the lazy loading disabled:
+ * {@code java --enable-preview -jar Gameserver-jmh.jar NodeBufferBenchmark}.
+ * Each corridor is given as the world coordinates {@code ox,oy,oz,tx,ty,tz}, other corridors can be passed with {@code -p corridor=...}.
+ *
+ * @author JoeAlisson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeBufferBenchmark {
+
+    @Param({
+        "83400,147943,-3404,81500,149350,-3470",   // Giran town streets
+        "17724,114004,-11672,17700,111600,-11672", // Cruma Tower first floor
+        "146783,25808,-2008,145000,27950,-2130"    // Aden town around the castle walls
+    })
+    private String corridor;
+
+    private int gox;
+    private int goy;
+    private short goz;
+    private int gtx;
+    private int gty;
+    private short gtz;
+
+    private NodeBuffer heapBuffer;
+    private SortedListNodeBuffer sortedListBuffer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GeoEngine.init();
+        final var engine = GeoEngine.getInstance();
+
+        final String[] coordinates = corridor.split(",");
+        gox = GeoEngine.getGeoX(Integer.parseInt(coordinates[0]));
+        goy = GeoEngine.getGeoY(Integer.parseInt(coordinates[1]));
+        gtx = GeoEngine.getGeoX(Integer.parseInt(coordinates[3]));
+        gty = GeoEngine.getGeoY(Integer.parseInt(coordinates[4]));
+        if (!engine.hasGeoPos(gox, goy) || !engine.hasGeoPos(gtx, gty)) {
+            throw new IllegalStateException("There is no geodata loaded for the corridor " + corridor);
+        }
+        goz = engine.getHeightNearest(gox, goy, Integer.parseInt(coordinates[2]));
+        gtz = engine.getHeightNearest(gtx, gty, Integer.parseInt(coordinates[5]));
+
+        // the same size the path finding requests
+        final int size = 64 + (2 * Math.max(Math.abs(gox - gtx), Math.abs(goy - gty)));
+        heapBuffer = new NodeBuffer(size);
+        sortedListBuffer = new SortedListNodeBuffer(size);
+    }
+
+    @Benchmark
+    public Object binaryHeap() {
+        heapBuffer.isLocked();
+        try {
+            return heapBuffer.findPath(gox, goy, goz, gtx, gty, gtz);
+        } finally {
+            heapBuffer.free();
+        }
+    }
+
+    @Benchmark
+    public Object sortedList() {
+        try {
+            return sortedListBuffer.findPath(gox, goy, goz, gtx, gty, gtz);
+        } finally {
+            sortedListBuffer.free();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.engine.geo.pathfinding;
+
+import org.l2j.gameserver.engine.geo.geodata.GeoLocation;
+import org.l2j.gameserver.engine.geo.geodata.GeoStructure;
+
+/**
+ * The former {@link NodeBuffer}, with the open list kept as a linked list sorted on insertion and a free walking the whole buffer.
+ * Kept only as the baseline of {@link NodeBufferBenchmark}.
+ *
+ * @author JoeAlisson
+ */
+final class SortedListNodeBuffer {
+
+    private static final int BASE_WEIGHT = 10;
+    private static final int DIAGONAL_WEIGHT = 14;
+    private static final int HEURISTIC_WEIGHT = 20;
+    private static final int OBSTACLE_MULTIPLIER = 10;
+    private static final int MAX_ITERATIONS = 3500;
+
+    private final int size;
+    private final ListNode[][] buffer;
+
+    private int cx;
+    private int cy;
+
+    private int gtx;
+    private int gty;
+    private short gtz;
+
+    private ListNode current;
+
+    SortedListNodeBuffer(int size) {
+        this.size = size;
+        buffer = new ListNode[size][size];
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                buffer[x][y] = new ListNode();
+            }
+        }
+    }
+
+    GeoLocation findPath(int gox, int goy, short goz, int gtx, int gty, short gtz) {
+        cx = gox + ((gtx - gox - size) / 2);
+        cy = goy + ((gty - goy - size) / 2);
+
+        this.gtx = gtx;
+        this.gty = gty;
+        this.gtz = gtz;
+
+        current = getNode(gox, goy, goz);
+        current.cost = getCostH(gox, goy, goz);
+
+        int count = 0;
+        do {
+            if ((current.loc.getGeoX() == gtx) && (current.loc.getGeoY() == gty) && (Math.abs(current.loc.getZ() - gtz) < 8)) {
+                return current.loc;
+            }
+
+            expand();
+            current = current.child;
+        }
+        while ((current != null) && (++count < MAX_ITERATIONS));
+
+        return null;
+    }
+
+    void free() {
+        current = null;
+        for (ListNode[] nodes : buffer) {
+            for (ListNode node : nodes) {
+                if (node.loc != null) {
+                    node.free();
+                }
+            }
+        }
+    }
+
+    private void expand() {
+        final byte nswe = current.loc.getNSWE();
+        if (nswe == 0) {
+            return;
+        }
+
+        final int x = current.loc.getGeoX();
+        final int y = current.loc.getGeoY();
+        final short z = (short) current.loc.getZ();
+
+        if ((nswe & GeoStructure.CELL_FLAG_N) != 0) {
+            addNode(x, y - 1, z, BASE_WEIGHT);
+        }
+        if ((nswe & GeoStructure.CELL_FLAG_S) != 0) {
+            addNode(x, y + 1, z, BASE_WEIGHT);
+        }
+        if ((nswe & GeoStructure.CELL_FLAG_W) != 0) {
+            addNode(x - 1, y, z, BASE_WEIGHT);
+        }
+        if ((nswe & GeoStructure.CELL_FLAG_E) != 0) {
+            addNode(x + 1, y, z, BASE_WEIGHT);
+        }
+        if ((nswe & GeoStructure.CELL_FLAG_NW) != 0) {
+            addNode(x - 1, y - 1, z, DIAGONAL_WEIGHT);
+        }
+        if ((nswe & GeoStructure.CELL_FLAG_NE) != 0) {
+            addNode(x + 1, y - 1, z, DIAGONAL_WEIGHT);
+        }
+        if ((nswe & GeoStructure.CELL_FLAG_SW) != 0) {
+            addNode(x - 1, y + 1, z, DIAGONAL_WEIGHT);
+        }
+        if ((nswe & GeoStructure.CELL_FLAG_SE) != 0) {
+            addNode(x + 1, y + 1, z, DIAGONAL_WEIGHT);
+        }
+    }
+
+    private ListNode getNode(int x, int y, short z) {
+        final int ix = x - cx;
+        if ((ix < 0) || (ix >= size)) {
+            return null;
+        }
+
+        final int iy = y - cy;
+        if ((iy < 0) || (iy >= size)) {
+            return null;
+        }
+
+        final ListNode result = buffer[ix][iy];
+        if (result.loc == null) {
+            result.loc = new GeoLocation(x, y, z);
+        }
+        return result;
+    }
+
+    private void addNode(int x, int y, short z, int weight) {
+        final ListNode node = getNode(x, y, z);
+        if (node == null || node.loc.getZ() > (z + (2 * GeoStructure.CELL_HEIGHT)) || node.cost >= 0) {
+            return;
+        }
+
+        node.parent = current;
+        if (node.loc.getNSWE() != (byte) 0xFF) {
+            node.cost = getCostH(x, y, node.loc.getZ()) + (weight * OBSTACLE_MULTIPLIER);
+        } else {
+            node.cost = getCostH(x, y, node.loc.getZ()) + weight;
+        }
+
+        ListNode last = current;
+        while (last.child != null) {
+            if (last.child.cost > node.cost) {
+                node.child = last.child;
+                break;
+            }
+            last = last.child;
+        }
+        last.child = node;
+    }
+
+    private double getCostH(int x, int y, int i) {
+        final int dX = x - gtx;
+        final int dY = y - gty;
+        final int dZ = (i - gtz) / GeoStructure.CELL_HEIGHT;
+        return Math.sqrt((dX * dX) + (dY * dY) + (dZ * dZ)) * HEURISTIC_WEIGHT;
+    }
+
+    private static final class ListNode {
+        private GeoLocation loc;
+        private ListNode parent;
+        private ListNode child;
+        private double cost = -1000;
+
+        private void free() {
+            loc = null;
+            parent = null;
+            child = null;
+            cost = -1000;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.model.events;
+
+import org.l2j.gameserver.model.events.impl.character.OnCreatureHpChange;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of notifying an event nobody listens to.
+ * The guarded notification must report a gc.alloc.rate.norm of zero, the eager one pays the event.
+ *
+ * Run with {@code gradlew :Gameserver:jmh -PjmhIncludes=EventDispatchBenchmark}
+ *
+ * @author JoeAlisson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+    private ListenersContainer container;
+    private double oldHp;
+    private double newHp;
+
+    @Setup
+    public void setup() {
+        container = new ListenersContainer();
+        oldHp = 1000;
+        newHp = 750;
+    }
+
+    @Benchmark
+    public Object guarded() {
+        if (EventDispatcher.getInstance().hasListener(EventType.ON_CREATURE_HP_CHANGE, container)) {
+            return EventDispatcher.getInstance().notifyEvent(new OnCreatureHpChange(null, oldHp, newHp), container);
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Object eager() {
+        return EventDispatcher.getInstance().notifyEvent(new OnCreatureHpChange(null, oldHp, newHp), container);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.network;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the word based {@link Crypt} with the byte by byte cipher.
+ *
+ * Run with {@code gradlew :Gameserver:jmh -PjmhIncludes=CryptBenchmark}
+ *
+ * @author JoeAlisson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptBenchmark {
+
+    @Param({"7", "64", "333", "1500", "8192"})
+    private int size;
+
+    private byte[] data;
+    private Crypt crypt;
+    private byte[] outKey;
+    private byte[] inKey;
+
+    @Setup
+    public void setup() {
+        final var random = new Random(0x4C324A);
+        final var key = new byte[16];
+        random.nextBytes(key);
+        data = new byte[size];
+        random.nextBytes(data);
+
+        crypt = new Crypt(null);
+        crypt.setKey(key);
+        crypt.encrypt(new byte[0], 0, 0);
+        outKey = key.clone();
+        inKey = key.clone();
+    }
+
+    @Benchmark
+    public byte[] encryptWords() {
+        return crypt.encrypt(data, 0, size);
+    }
+
+    @Benchmark
+    public byte[] decryptWords() {
+        crypt.decrypt(data, 0, size);
+        return data;
+    }
+
+    @Benchmark
+    public byte[] encryptBytes() {
+        int encrypted = 0;
+        for (int i = 0; i < size; i++) {
+            encrypted = Byte.toUnsignedInt(data[i]) ^ outKey[i & 0x0F] ^ encrypted;
+            data[i] = (byte) encrypted;
+        }
+        shiftKey(outKey, size);
+        return data;
+    }
+
+    @Benchmark
+    public byte[] decryptBytes() {
+        int xOr = 0;
+        for (int i = 0; i < size; i++) {
+            final int encrypted = Byte.toUnsignedInt(data[i]);
+            data[i] = (byte) (encrypted ^ inKey[i & 15] ^ xOr);
+            xOr = encrypted;
+        }
+        shiftKey(inKey, size);
+        return data;
+    }
+
+    private static void shiftKey(byte[] key, int size) {
+        int old = key[8] & 0xff;
+        old |= (key[9] << 8) & 0xff00;
+        old |= (key[10] << 0x10) & 0xff0000;
+        old |= (key[11] << 0x18) & 0xff000000;
+
+        old += size;
+
+        key[8] = (byte) (old & 0xff);
+        key[9] = (byte) ((old >> 0x08) & 0xff);
+        key[10] = (byte) ((old >> 0x10) & 0xff);
+        key[11] = (byte) ((old >> 0x18) & 0xff);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.world;
+
+import org.l2j.gameserver.model.WorldObject;
+import org.l2j.gameserver.model.actor.Creature;
+import org.l2j.gameserver.model.actor.instance.Player;
+import org.l2j.gameserver.util.MathUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Compares the ranged query visiting only the cells of the {@link WorldRegion} sub-grid in range
+ * with the scan of the whole 3x3 region neighbourhood filtered by distance.
+ *
+ * Run with {@code gradlew :Gameserver:jmh -PjmhIncludes=WorldRegionQueryBenchmark}
+ *
+ * @author JoeAlisson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldRegionQueryBenchmark {
+
+    private static final int REGION_X = World.OFFSET_X + 40;
+    private static final int REGION_Y = World.OFFSET_Y + 70;
+    private static final int REGION_SIZE = 1 << World.SHIFT_BY;
+    private static final int REFERENCES = 64;
+    private static final int Z = -3400;
+
+    @Param({"50", "200", "1000"})
+    private int objectsPerRegion;
+
+    @Param({"300", "600", "1200"})
+    private int range;
+
+    private WorldRegion center;
+    private WorldObject[] references;
+    private int next;
+
+    private WorldObject reference;
+    private int found;
+    private Consumer<WorldObject> counter;
+    private Predicate<WorldObject> inRange;
+
+    @Setup
+    public void setup() {
+        final var random = new Random(0x4C324A);
+        final var regions = new WorldRegion[9];
+        int objectId = 1;
+        for (int i = 0; i < regions.length; i++) {
+            final var region = new WorldRegion(REGION_X - 1 + i % 3, REGION_Y - 1 + i / 3);
+            final int minX = (region.getRegionX() - World.OFFSET_X) << World.SHIFT_BY;
+            final int minY = (region.getRegionY() - World.OFFSET_Y) << World.SHIFT_BY;
+            for (int j = 0; j < objectsPerRegion; j++) {
+                final var object = new BenchmarkObject(objectId++);
+                object.setXYZ(minX + random.nextInt(REGION_SIZE), minY + random.nextInt(REGION_SIZE), Z);
+                region.addVisibleObject(object);
+            }
+            regions[i] = region;
+        }
+        center = regions[4];
+        center.setSurroundingRegions(regions);
+
+        final int minX = (REGION_X - World.OFFSET_X) << World.SHIFT_BY;
+        final int minY = (REGION_Y - World.OFFSET_Y) << World.SHIFT_BY;
+        references = new WorldObject[REFERENCES];
+        for (int i = 0; i < REFERENCES; i++) {
+            references[i] = new BenchmarkObject(objectId++);
+            references[i].setXYZ(minX + random.nextInt(REGION_SIZE), minY + random.nextInt(REGION_SIZE), Z);
+        }
+
+        counter = object -> found++;
+        inRange = object -> object != reference && MathUtil.isInsideRadius3D(reference, object, range);
+    }
+
+    @Benchmark
+    public int subGrid() {
+        reference = nextReference();
+        found = 0;
+        center.forEachVisibleObjectInSurrounding(reference, WorldObject.class, range, object -> true, counter);
+        return found;
+    }
+
+    @Benchmark
+    public int regionScan() {
+        reference = nextReference();
+        found = 0;
+        center.forEachObjectInSurrounding(WorldObject.class, counter, inRange);
+        return found;
+    }
+
+    private WorldObject nextReference() {
+        return references[next++ & (REFERENCES - 1)];
+    }
+
+    private static final class BenchmarkObject extends WorldObject {
+
+        private BenchmarkObject(int objectId) {
+            super(objectId);
+        }
+
+        @Override
+        public boolean isAutoAttackable(Creature attacker) {
+            return false;
+        }
+
+        @Override
+        public void sendInfo(Player activeChar) {
+        }
+    }
+}
@@ -32,6 +32,7 @@ module org.l2j.gameserver {
     exports org.l2j.gameserver.model.entity;
     exports org.l2j.gameserver.network;
     exports org.l2j.gameserver.network.serverpackets;
+    exports org.l2j.gameserver.network.tap;
     exports org.l2j.gameserver;
     exports org.l2j.gameserver.model.events;
     exports org.l2j.gameserver.model.events.annotations;
@@ -55,6 +55,7 @@ import org.l2j.gameserver.settings.ServerSettings;
 import org.l2j.gameserver.taskmanager.TaskManager;
 import org.l2j.gameserver.util.Broadcast;
 import org.l2j.gameserver.world.World;
+import org.l2j.gameserver.world.WorldTimeController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -264,7 +265,7 @@ public class GameServer {
         ScriptEngineManager.init();
 
         var settings = getSettings(ServerSettings.class);
-        ThreadPool.init(settings.threadPoolSize() ,settings.scheduledPoolSize());
+        ThreadPool.init(settings.threadPoolSize() ,settings.scheduledPoolSize(), settings.useTimingWheel() ? WorldTimeController.MILLIS_IN_TICK : 0);
 
         INSTANCE = new GameServer();
 
@@ -18,30 +18,28 @@
  */
 package org.l2j.gameserver.cache;
 
-import org.l2j.commons.threading.ThreadPool;
 import org.l2j.gameserver.Config;
 import org.l2j.gameserver.model.actor.instance.Player;
-
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import org.l2j.gameserver.taskmanager.DeadlineQueue;
+import org.l2j.gameserver.taskmanager.DeadlineTaskManager;
 
 /**
  * @author -Nemesiss-
  */
 public class WarehouseCacheManager {
-    private final Map<Player, Long> _cachedWh = new ConcurrentHashMap<>();
+    private final DeadlineQueue<Player> _cachedWh;
     private final long _cacheTime = Config.WAREHOUSE_CACHE_TIME * 60000;
 
     private WarehouseCacheManager() {
-        ThreadPool.scheduleAtFixedRate(new CacheScheduler(), 120000, 60000);
+        _cachedWh = DeadlineTaskManager.getInstance().createQueue("WarehouseCache", Player::clearWarehouse);
     }
 
     public void addCacheTask(Player pc) {
-        _cachedWh.put(pc, System.currentTimeMillis());
+        _cachedWh.schedule(pc, System.currentTimeMillis() + _cacheTime);
     }
 
     public void remCacheTask(Player pc) {
-        _cachedWh.remove(pc);
+        _cachedWh.cancel(pc);
     }
 
     public static WarehouseCacheManager getInstance() {
@@ -52,20 +50,4 @@ public class WarehouseCacheManager {
 
         private static final WarehouseCacheManager INSTANCE = new WarehouseCacheManager();
     }
-
-    private class CacheScheduler implements Runnable {
-        public CacheScheduler() {
-        }
-
-        @Override
-        public void run() {
-            final long cTime = System.currentTimeMillis();
-            for (Player pc : _cachedWh.keySet()) {
-                if ((cTime - _cachedWh.get(pc)) > _cacheTime) {
-                    pc.clearWarehouse();
-                    _cachedWh.remove(pc);
-                }
-            }
-        }
-    }
 }
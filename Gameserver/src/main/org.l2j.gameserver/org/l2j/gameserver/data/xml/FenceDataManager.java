@@ -102,13 +102,13 @@ public final class FenceDataManager extends GameXmlReader {
 
     private void addFence(Fence fence) {
         fences.put(fence.getObjectId(), fence);
-        regions.computeIfAbsent(World.getInstance().getRegion(fence), key -> new ArrayList<>()).add(fence);
+        regions.computeIfAbsent(World.getInstance().getRegion(fence.getX(), fence.getY()), key -> new ArrayList<>()).add(fence);
     }
 
     public void removeFence(Fence fence) {
         fences.remove(fence.getObjectId());
 
-        final List<Fence> fencesInRegion = regions.get(World.getInstance().getRegion(fence));
+        final List<Fence> fencesInRegion = regions.get(World.getInstance().getRegion(fence.getX(), fence.getY()));
         if (fencesInRegion != null) {
             fencesInRegion.remove(fence);
         }
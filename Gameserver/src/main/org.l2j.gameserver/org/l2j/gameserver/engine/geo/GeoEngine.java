@@ -18,6 +18,8 @@
  */
 package org.l2j.gameserver.engine.geo;
 
+import org.l2j.commons.threading.PriorityThreadFactory;
+import org.l2j.commons.threading.ThreadPool;
 import org.l2j.gameserver.data.xml.DoorDataManager;
 import org.l2j.gameserver.data.xml.FenceDataManager;
 import org.l2j.gameserver.engine.geo.geodata.*;
@@ -34,12 +36,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import static org.l2j.commons.configuration.Configurator.getSettings;
 import static org.l2j.gameserver.util.GameUtils.*;
@@ -52,51 +68,203 @@ public class GeoEngine {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GeoEngine.class);
 
+    /**
+     * Returned by {@link #findPath(int, int, int, int, int, int, Instance, Consumer)} when the path will be delivered later.
+     */
+    public static final List<Location> PATH_DEFERRED = Collections.unmodifiableList(new ArrayList<>(0));
+
     private static final double SIGHT_LINE_PERCENT = 0.75;
     private static final int MAX_OBSTACLE_HEIGHT = 32;
 
+    private static final int GEO_REGIONS_X = World.TILE_X_MAX - World.TILE_X_MIN + 1;
+    private static final int GEO_REGIONS_Y = World.TILE_Y_MAX - World.TILE_Y_MIN + 1;
+    private static final int SLOWEST_REGIONS_REPORTED = 5;
+
+    /**
+     * The region states, only used when the regions are loaded on demand.
+     */
+    private static final int REGION_PENDING = 0;
+    private static final int REGION_LOADING = 1;
+    private static final int REGION_DONE = 2;
+
+    private static final VarHandle BLOCK = MethodHandles.arrayElementVarHandle(ABlock[].class);
+
     private final ABlock[][] blocks = new ABlock[GeoStructure.GEO_BLOCKS_X][GeoStructure.GEO_BLOCKS_Y];
     private final BlockNull nullBlock = new BlockNull();
+    private final AtomicIntegerArray regionStates = new AtomicIntegerArray(GEO_REGIONS_X * GEO_REGIONS_Y);
+    private final long[] regionLoadTimes = new long[GEO_REGIONS_X * GEO_REGIONS_Y];
+    private Path geodataPath;
+    private boolean mapped;
+    private boolean lazy;
 
     protected GeoEngine() {
 
     }
 
     protected void load() {
-        BlockMultilayer.initialize();
-        loadGeodataFiles();
-        BlockMultilayer.release();
+        final var geoSettings = getSettings(GeoEngineSettings.class);
+        geodataPath = getSettings(ServerSettings.class).dataPackDirectory().resolve("geodata");
+        mapped = geoSettings.getStorage() == GeoStorage.MAPPED;
+
+        final int files = geoSettings.isLazyLoading() ? prepareLazyRegions() : loadGeodataFiles(geoSettings.getLoadThreads());
+
+        if (files == 0) {
+            if (geoSettings.isEnabledPathFinding()) {
+                geoSettings.setEnabledPathFinding(false);
+                LOGGER.warn("Disabling  Path Finding.");
+            }
+            if (geoSettings.isSyncMode(SyncMode.SERVER)) {
+                geoSettings.setSyncMode(SyncMode.Z_ONLY);
+                LOGGER.warn("Forcing Sync Mode setting to {}", SyncMode.Z_ONLY);
+            }
+        }
     }
 
-    private void loadGeodataFiles() {
+    /**
+     * Loads all the regions in parallel, bounded by the given amount of threads.
+     *
+     * @param threads : The amount of loading threads.
+     * @return int : The amount of geodata files loaded.
+     */
+    private int loadGeodataFiles(int threads) {
+        final long start = System.nanoTime();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, new PriorityThreadFactory("GeoLoader", Thread.NORM_PRIORITY));
+        final List<Future<Boolean>> loads = new ArrayList<>(GEO_REGIONS_X * GEO_REGIONS_Y);
+        for (int rx = World.TILE_X_MIN; rx <= World.TILE_X_MAX; rx++) {
+            for (int ry = World.TILE_Y_MIN; ry <= World.TILE_Y_MAX; ry++) {
+                final int regionX = rx;
+                final int regionY = ry;
+                loads.add(executor.submit(() -> loadRegion(regionX, regionY)));
+            }
+        }
+        executor.shutdown();
+
         int loaded = 0;
-        var geodataPath = getSettings(ServerSettings.class).dataPackDirectory().resolve("geodata");
+        for (Future<Boolean> load : loads) {
+            try {
+                if (load.get()) {
+                    loaded++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.error("Interrupted while loading the geodata", e);
+                break;
+            } catch (ExecutionException e) {
+                LOGGER.error("Error while loading the geodata", e.getCause());
+            }
+        }
+
+        LOGGER.info("Loaded {} geodata files{} in {} ms using {} threads.", loaded, mapped ? " memory-mapped" : "", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), threads);
+        reportSlowestRegions();
+        return loaded;
+    }
+
+    private void reportSlowestRegions() {
+        //@formatter:off
+        IntStream.range(0, regionLoadTimes.length).filter(region -> regionLoadTimes[region] > 0)
+                .boxed().sorted(Comparator.comparingLong(region -> -regionLoadTimes[region]))
+                .limit(SLOWEST_REGIONS_REPORTED)
+                .forEach(region -> LOGGER.info("Geodata region {}_{} loaded in {} ms.", World.TILE_X_MIN + region / GEO_REGIONS_Y,
+                        World.TILE_Y_MIN + region % GEO_REGIONS_Y, TimeUnit.NANOSECONDS.toMillis(regionLoadTimes[region])));
+        //@formatter:on
+    }
 
+    /**
+     * Fills the world with null blocks, the regions having a geodata file are loaded on the first access.
+     *
+     * @return int : The amount of geodata files found.
+     */
+    private int prepareLazyRegions() {
+        int found = 0;
         for (int rx = World.TILE_X_MIN; rx <= World.TILE_X_MAX; rx++) {
             for (int ry = World.TILE_Y_MIN; ry <= World.TILE_Y_MAX; ry++) {
-                var filePath = geodataPath.resolve(String.format(GeoFormat.L2D.getFilename(), rx, ry));
-                if(Files.exists(filePath) && !Files.isDirectory(filePath)) {
-                    if (loadGeoBlocks(filePath, rx, ry)) {
-                        loaded++;
-                    }
+                loadNullBlocks(rx, ry);
+                if (Files.isRegularFile(regionFile(rx, ry))) {
+                    found++;
                 } else {
-                    loadNullBlocks(rx, ry);
+                    regionStates.set(regionIndex(rx - World.TILE_X_MIN, ry - World.TILE_Y_MIN), REGION_DONE);
                 }
             }
         }
-        LOGGER.info("Loaded {} geodata files.", loaded);
+        lazy = true;
+        LOGGER.info("Found {} geodata files, the regions will be loaded on demand.", found);
+        return found;
+    }
 
-        if (loaded == 0) {
-            var geoSettings = getSettings(GeoEngineSettings.class);
-            if (geoSettings.isEnabledPathFinding()) {
-                geoSettings.setEnabledPathFinding(false);
-                LOGGER.warn("Disabling  Path Finding.");
-            }
-            if (geoSettings.isSyncMode(SyncMode.SERVER)) {
-                geoSettings.setSyncMode(SyncMode.Z_ONLY);
-                LOGGER.warn("Forcing Sync Mode setting to {}", SyncMode.Z_ONLY);
-            }
+    /**
+     * Starts loading the geodata region of the given world coordinates, when the regions are loaded on demand.
+     *
+     * @param worldX : World X
+     * @param worldY : World Y
+     */
+    public final void preloadRegion(int worldX, int worldY) {
+        if (lazy) {
+            requestRegion(getGeoX(worldX) / GeoStructure.REGION_CELLS_X, getGeoY(worldY) / GeoStructure.REGION_CELLS_Y);
+        }
+    }
+
+    /**
+     * Schedules the region loading when it was not requested yet. The region answers as null blocks until it is loaded.
+     *
+     * @param offsetX : The region X offset from the first region.
+     * @param offsetY : The region Y offset from the first region.
+     */
+    private void requestRegion(int offsetX, int offsetY) {
+        if (offsetX < 0 || offsetY < 0 || offsetX >= GEO_REGIONS_X || offsetY >= GEO_REGIONS_Y) {
+            return;
+        }
+
+        final int index = regionIndex(offsetX, offsetY);
+        if (regionStates.get(index) == REGION_PENDING && regionStates.compareAndSet(index, REGION_PENDING, REGION_LOADING)) {
+            ThreadPool.execute(() -> {
+                try {
+                    final int regionX = World.TILE_X_MIN + offsetX;
+                    final int regionY = World.TILE_Y_MIN + offsetY;
+                    if (loadRegion(regionX, regionY)) {
+                        LOGGER.info("Loaded geodata region {}_{} on demand in {} ms.", regionX, regionY, TimeUnit.NANOSECONDS.toMillis(regionLoadTimes[index]));
+                        onRegionLoaded(regionX, regionY);
+                    }
+                } finally {
+                    regionStates.set(index, REGION_DONE);
+                }
+            });
+        }
+    }
+
+    /**
+     * Loads the geodata file of the region, or null blocks when there is no file.
+     *
+     * @param regionX : Geodata file region X coordinate.
+     * @param regionY : Geodata file region Y coordinate.
+     * @return boolean : True, when the geodata file was loaded.
+     */
+    private boolean loadRegion(int regionX, int regionY) {
+        final Path filePath = regionFile(regionX, regionY);
+        if (!Files.isRegularFile(filePath)) {
+            loadNullBlocks(regionX, regionY);
+            return false;
         }
+
+        final long start = System.nanoTime();
+        final boolean loaded = mapped ? loadMappedRegion(filePath, regionX, regionY) : loadGeoBlocks(filePath, regionX, regionY);
+        if (loaded) {
+            final long elapsed = System.nanoTime() - start;
+            regionLoadTimes[regionIndex(regionX - World.TILE_X_MIN, regionY - World.TILE_Y_MIN)] = elapsed;
+            LOGGER.debug("Geodata region {}_{} loaded in {} ms.", regionX, regionY, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+        return loaded;
+    }
+
+    private Path regionFile(int regionX, int regionY) {
+        return geodataPath.resolve(String.format(GeoFormat.L2D.getFilename(), regionX, regionY));
+    }
+
+    protected final Path getGeodataPath() {
+        return geodataPath;
+    }
+
+    private static int regionIndex(int offsetX, int offsetY) {
+        return (offsetX * GEO_REGIONS_Y) + offsetY;
     }
 
     /**
@@ -193,12 +361,12 @@ public class GeoEngine {
                     final byte type = buffer.get();
 
                     // load block according to block type
-                    blocks[blockX + ix][blockY + iy] = switch (type) {
+                    setBlock(blockX + ix, blockY + iy, switch (type) {
                         case GeoStructure.TYPE_FLAT_L2D -> new BlockFlat(buffer, GeoFormat.L2D);
                         case GeoStructure.TYPE_COMPLEX_L2D -> new BlockComplex(buffer, GeoFormat.L2D);
                         case GeoStructure.TYPE_MULTILAYER_L2D -> new BlockMultilayer(buffer, GeoFormat.L2D);
                         default -> throw new IllegalArgumentException("Unknown block type: " + type);
-                    };
+                    });
                 }
             }
 
@@ -221,6 +389,42 @@ public class GeoEngine {
         }
     }
 
+    /**
+     * Maps a region file read-only, all the blocks of the region are answered by the same {@link MappedRegion}.
+     * When file is corrupted or not consistent, loads none geodata.
+     *
+     * @param filePath : The Geodata File Path
+     * @param regionX : Geodata file region X coordinate.
+     * @param regionY : Geodata file region Y coordinate.
+     * @return boolean : True, when geodata file was mapped without problem.
+     */
+    private boolean loadMappedRegion(Path filePath, int regionX, int regionY) {
+        try (FileChannel fc = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            final MappedRegion region = new MappedRegion(buffer);
+            if (region.getRemaining() > 0) {
+                LOGGER.warn("GeoEngine: Region file {} can be corrupted, remaining {} bytes to read.", filePath, region.getRemaining());
+            }
+
+            final int blockX = (regionX - World.TILE_X_MIN) * GeoStructure.REGION_BLOCKS_X;
+            final int blockY = (regionY - World.TILE_Y_MIN) * GeoStructure.REGION_BLOCKS_Y;
+            for (int ix = 0; ix < GeoStructure.REGION_BLOCKS_X; ix++) {
+                for (int iy = 0; iy < GeoStructure.REGION_BLOCKS_Y; iy++) {
+                    setBlock(blockX + ix, blockY + iy, region);
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            LOGGER.error("Error while mapping {} region file.", filePath);
+            LOGGER.error(e.getMessage());
+
+            loadNullBlocks(regionX, regionY);
+            return false;
+        }
+    }
+
     /**
      * Loads null blocks. Used when no region file is detected or an error occurs during loading.
      *
@@ -235,11 +439,19 @@ public class GeoEngine {
         // load all null blocks
         for (int ix = 0; ix < GeoStructure.REGION_BLOCKS_X; ix++) {
             for (int iy = 0; iy < GeoStructure.REGION_BLOCKS_Y; iy++) {
-                blocks[blockX + ix][blockY + iy] = nullBlock;
+                setBlock(blockX + ix, blockY + iy, nullBlock);
             }
         }
     }
 
+    /**
+     * The regions loaded on demand are filled by a loader thread while other threads read them,
+     * the release store pairs with the acquire read of {@link #getBlock(int, int)} so a block is never seen partially built.
+     */
+    private void setBlock(int blockX, int blockY, ABlock block) {
+        BLOCK.setRelease(blocks[blockX], blockY, block);
+    }
+
     /**
      * Returns block of geodata on given coordinates.
      *
@@ -253,7 +465,11 @@ public class GeoEngine {
 
         // if x or y is out of array return null
         if ((x > -1) && (y > -1) && (x < GeoStructure.GEO_BLOCKS_X) && (y < GeoStructure.GEO_BLOCKS_Y)) {
-            return blocks[x][y];
+            final ABlock block = (ABlock) BLOCK.getAcquire(blocks[x], y);
+            if (lazy && block == nullBlock) {
+                requestRegion(x / GeoStructure.REGION_BLOCKS_X, y / GeoStructure.REGION_BLOCKS_Y);
+            }
+            return block;
         }
         return null;
     }
@@ -302,6 +518,19 @@ public class GeoEngine {
         return block != null ? block.getNsweNearest(geoX, geoY, worldZ) : (byte) 0xFF;
     }
 
+    /**
+     * Returns the height of the first cell layer below given coordinates.
+     *
+     * @param geoX   : Cell geodata X coordinate.
+     * @param geoY   : Cell geodata Y coordinate.
+     * @param worldZ : Cell world Z coordinate.
+     * @return short : Cell geodata Z coordinate, below given coordinates or {@link Short#MAX_VALUE} when there is no layer below.
+     */
+    public final short getHeightBelow(int geoX, int geoY, int worldZ) {
+        final ABlock block = getBlock(geoX, geoY);
+        return block != null ? block.getHeightBelow(geoX, geoY, worldZ) : Short.MAX_VALUE;
+    }
+
     /**
      * Check if world coordinates has geo.
      *
@@ -775,6 +1004,38 @@ public class GeoEngine {
         return null;
     }
 
+    /**
+     * Returns the list of location objects as a result of complete path calculation.<br>
+     * When the path can't be calculated right now, the request is queued and {@link #PATH_DEFERRED} is returned.
+     * The path of a queued request is delivered to the consumer, from a path finding thread.
+     *
+     * @param ox       : origin x
+     * @param oy       : origin y
+     * @param oz       : origin z
+     * @param tx       : target x
+     * @param ty       : target y
+     * @param tz       : target z
+     * @param instance
+     * @param onDeferred : consumer of the path of a queued request
+     * @return {@code List<Location>} : complete path from nodes or {@link #PATH_DEFERRED}
+     */
+    public List<Location> findPath(int ox, int oy, int oz, int tx, int ty, int tz, Instance instance, Consumer<List<Location>> onDeferred) {
+        return findPath(ox, oy, oz, tx, ty, tz, instance);
+    }
+
+    public CharSequence getPathFindingStats() {
+        return "Path finding is disabled";
+    }
+
+    /**
+     * Called after a region is loaded on demand.
+     *
+     * @param regionX : Geodata file region X coordinate.
+     * @param regionY : Geodata file region Y coordinate.
+     */
+    protected void onRegionLoaded(int regionX, int regionY) {
+    }
+
     public static void init() {
         getInstance().load();
     }
@@ -18,18 +18,30 @@
  */
 package org.l2j.gameserver.engine.geo;
 
+import org.l2j.commons.threading.PriorityThreadFactory;
 import org.l2j.gameserver.engine.geo.geodata.GeoLocation;
+import org.l2j.gameserver.engine.geo.pathfinding.HierarchicalPathFinder;
 import org.l2j.gameserver.engine.geo.pathfinding.Node;
 import org.l2j.gameserver.engine.geo.pathfinding.NodeBuffer;
+import org.l2j.gameserver.engine.geo.pathfinding.NodeBufferPool;
+import org.l2j.gameserver.engine.geo.settings.GeoEngineSettings;
 import org.l2j.gameserver.model.Location;
 import org.l2j.gameserver.model.instancezone.Instance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static java.util.Objects.nonNull;
+import static org.l2j.commons.configuration.Configurator.getSettings;
 
 /**
  * @author Hasha
@@ -39,18 +51,46 @@ final class GeoEnginePathFinding extends GeoEngine {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GeoEnginePathFinding.class);
 
-    private final BufferHolder[] buffers = {
-        new BufferHolder(100, 6),
-        new BufferHolder(128, 6),
-        new BufferHolder(192, 6),
-        new BufferHolder(256, 4),
-        new BufferHolder(320, 4),
-        new BufferHolder(384, 4),
-        new BufferHolder(500, 2)
-    };
+    /**
+     * Maximum time waiting for a buffer, in milliseconds, by the queued requests.
+     */
+    private static final long QUEUED_BUFFER_WAIT = 1000;
+
+    /**
+     * Buffer wait of the synchronous requests, they don't wait and use a temporary buffer when there is no buffer available.
+     */
+    private static final long TEMPORARY_BUFFER = -1;
+    private static final int MAX_QUEUED_REQUESTS = 4096;
+
+    /**
+     * Minimum distance, in cells, of the paths searched by the {@link HierarchicalPathFinder}.
+     */
+    private static final int HIERARCHICAL_MIN_DISTANCE = 128;
+
+    private final NodeBufferPool bufferPool;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private HierarchicalPathFinder hierarchicalPathFinder;
 
     GeoEnginePathFinding() {
-        LOGGER.info("Loaded {} path node buffers.", buffers.length);
+        final int processors = Runtime.getRuntime().availableProcessors();
+        bufferPool = new NodeBufferPool(processors);
+        executor = new ThreadPoolExecutor(processors, processors, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(MAX_QUEUED_REQUESTS), new PriorityThreadFactory("PathFinder", Thread.NORM_PRIORITY));
+        LOGGER.info("Path finding using {} threads.", processors);
+    }
+
+    @Override
+    protected void load() {
+        super.load();
+        final var geoSettings = getSettings(GeoEngineSettings.class);
+        if (geoSettings.isEnabledPathFinding() && geoSettings.getPathFindingStrategy() == PathFindingStrategy.HIERARCHICAL) {
+            hierarchicalPathFinder = new HierarchicalPathFinder(this, getGeodataPath());
+            if (!geoSettings.isLazyLoading()) {
+                hierarchicalPathFinder.prepareRegions();
+            }
+            LOGGER.info("Using hierarchical path finding for paths longer than {} cells.", HIERARCHICAL_MIN_DISTANCE);
+        }
     }
 
     /**
@@ -97,6 +137,35 @@ final class GeoEnginePathFinding extends GeoEngine {
 
     @Override
     public List<Location> findPath(int ox, int oy, int oz, int tx, int ty, int tz, Instance instance) {
+        final List<Location> path = findPath(ox, oy, oz, tx, ty, tz, instance, TEMPORARY_BUFFER);
+        return path == PATH_DEFERRED ? null : path;
+    }
+
+    @Override
+    public List<Location> findPath(int ox, int oy, int oz, int tx, int ty, int tz, Instance instance, Consumer<List<Location>> onDeferred) {
+        final List<Location> path = findPath(ox, oy, oz, tx, ty, tz, instance, 0);
+        if (path != PATH_DEFERRED) {
+            return path;
+        }
+
+        try {
+            executor.execute(() -> {
+                final List<Location> deferredPath = findPath(ox, oy, oz, tx, ty, tz, instance, QUEUED_BUFFER_WAIT);
+                onDeferred.accept(deferredPath == PATH_DEFERRED ? null : deferredPath);
+            });
+            queued.increment();
+            return PATH_DEFERRED;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return null;
+        }
+    }
+
+    /**
+     * @param bufferWait : maximum time to wait for a buffer in milliseconds or {@link #TEMPORARY_BUFFER} to not wait and use a temporary buffer
+     * @return {@code List<Location>} : complete path from nodes or {@link #PATH_DEFERRED} when there was no buffer available
+     */
+    private List<Location> findPath(int ox, int oy, int oz, int tx, int ty, int tz, Instance instance, long bufferWait) {
         // get origin and check existing geo coords
         int gox = getGeoX(ox);
         int goy = getGeoY(oy);
@@ -115,27 +184,27 @@ final class GeoEnginePathFinding extends GeoEngine {
 
         short gtz = getHeightNearest(gtx, gty, tz);
 
-        // Prepare buffer for pathfinding calculations
-        final NodeBuffer buffer = getBuffer(64 + (2 * Math.max(Math.abs(gox - gtx), Math.abs(goy - gty))));
-        if (buffer == null) {
-            return null;
-        }
-
-        // find path
-        List<Location> path = null;
-        try {
-            Node result = buffer.findPath(gox, goy, goz, gtx, gty, gtz);
+        final int distance = Math.max(Math.abs(gox - gtx), Math.abs(goy - gty));
+        List<Location> path = HierarchicalPathFinder.UNAVAILABLE;
+        if (nonNull(hierarchicalPathFinder) && distance > HIERARCHICAL_MIN_DISTANCE) {
+            try {
+                path = hierarchicalPathFinder.findPath(gox, goy, goz, gtx, gty, gtz, instance);
+            } catch (Exception e) {
+                LOGGER.warn(e.getMessage(), e);
+                return null;
+            }
 
-            if (result == null) {
+            if (path == null) {
                 return null;
             }
+        }
 
-            path = constructPath(result);
-        } catch (Exception e) {
-            LOGGER.warn(e.getMessage());
-            return null;
-        } finally {
-            buffer.free();
+        // the short paths and the ones crossing clusters not built yet use the node buffers
+        if (path == HierarchicalPathFinder.UNAVAILABLE) {
+            path = findNodePath(gox, goy, goz, gtx, gty, gtz, distance, bufferWait);
+            if (path == null || path == PATH_DEFERRED) {
+                return path;
+            }
         }
 
         // check path
@@ -183,50 +252,49 @@ final class GeoEnginePathFinding extends GeoEngine {
     }
 
     /**
-     * Provides optimize selection of the buffer. When all pre-initialized buffer are locked, creates new buffer.
-     *
-     * @param size : pre-calculated minimal required size
-     * @return NodeBuffer : buffer
+     * @return {@code List<Location>} : the path found on the node buffer or {@link #PATH_DEFERRED} when there was no buffer available
      */
-    private final NodeBuffer getBuffer(int size) {
-        NodeBuffer current = null;
-        for (BufferHolder holder : buffers) {
-            // Find proper size of buffer
-            if (holder._size < size) {
-                continue;
-            }
-
-            // Find unlocked NodeBuffer
-            for (NodeBuffer buffer : holder._buffer) {
-                if (!buffer.isLocked()) {
-                    continue;
-                }
-
-                return buffer;
-            }
+    private List<Location> findNodePath(int gox, int goy, short goz, int gtx, int gty, short gtz, int distance, long bufferWait) {
+        // Prepare buffer for pathfinding calculations
+        final int size = 64 + (2 * distance);
+        NodeBuffer buffer = bufferPool.acquire(size, bufferWait);
+        final boolean temporary = buffer == null && bufferWait == TEMPORARY_BUFFER;
+        if (temporary) {
+            buffer = bufferPool.allocate(size);
+        }
 
-            // NodeBuffer not found, allocate temporary buffer
-            current = new NodeBuffer(holder._size);
-            current.isLocked();
+        if (buffer == null) {
+            // all the buffers are busy, unless the path is too long for any buffer
+            return bufferPool.fits(size) ? PATH_DEFERRED : null;
         }
 
-        return current;
+        // find path
+        try {
+            Node result = buffer.findPath(gox, goy, goz, gtx, gty, gtz);
+            return result == null ? null : constructPath(result);
+        } catch (Exception e) {
+            LOGGER.warn(e.getMessage());
+            return null;
+        } finally {
+            bufferPool.release(buffer, temporary);
+        }
     }
 
-    /**
-     * NodeBuffer container with specified size and count of separate buffers.
-     */
-    private static final class BufferHolder {
-        final int _size;
-        List<NodeBuffer> _buffer;
-
-        public BufferHolder(int size, int count) {
-            _size = size;
-            _buffer = new ArrayList<>(count);
+    @Override
+    protected void onRegionLoaded(int regionX, int regionY) {
+        if (nonNull(hierarchicalPathFinder)) {
+            hierarchicalPathFinder.prepareRegion(regionX, regionY);
+        }
+    }
 
-            for (int i = 0; i < count; i++) {
-                _buffer.add(new NodeBuffer(size));
-            }
+    @Override
+    public CharSequence getPathFindingStats() {
+        final var stats = new StringBuilder(bufferPool.getStats());
+        stats.append("\tQueued requests: ").append(queued.sum()).append(", pending ").append(executor.getQueue().size()).append('\n');
+        stats.append("\tRejected requests: ").append(rejected.sum()).append('\n');
+        if (nonNull(hierarchicalPathFinder)) {
+            stats.append(hierarchicalPathFinder.getStats());
         }
+        return stats;
     }
-}
\ No newline at end of file
+}
@@ -19,9 +19,6 @@
  */
 package org.l2j.gameserver.engine.geo.geodata;
 
-import java.io.BufferedOutputStream;
-import java.io.IOException;
-
 /**
  * @author Hasha
  */
@@ -200,20 +197,4 @@ public abstract class ABlock {
      * @return short : Cell geodata Z coordinate, below given coordinates.
      */
     public abstract byte getNsweOriginal(int index);
-
-    /**
-     * Sets the NSWE flag byte of cell given by cell index.
-     *
-     * @param index : Index of the cell.
-     * @param nswe  : New NSWE flag byte.
-     */
-    public abstract void setNswe(int index, byte nswe);
-
-    /**
-     * Saves the block in L2D format to {@link BufferedOutputStream}. Used only for L2D geodata conversion.
-     *
-     * @param stream : The stream.
-     * @throws IOException : Can't save the block to steam.
-     */
-    public abstract void saveBlock(BufferedOutputStream stream) throws IOException;
 }
\ No newline at end of file
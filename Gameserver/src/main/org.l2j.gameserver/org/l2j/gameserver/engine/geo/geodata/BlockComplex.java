@@ -26,7 +26,7 @@ import java.nio.ByteBuffer;
 /**
  * @author Hasha
  */
-public class BlockComplex extends ABlock {
+public class BlockComplex extends ABlock implements IWritableBlock {
     protected byte[] _buffer;
 
     /**
@@ -26,7 +26,7 @@ import java.nio.ByteBuffer;
 /**
  * @author Hasha
  */
-public class BlockFlat extends ABlock {
+public class BlockFlat extends ABlock implements IWritableBlock {
     protected final short _height;
     protected byte _nswe;
 
@@ -28,7 +28,7 @@ import java.util.Arrays;
 /**
  * @author Hasha
  */
-public class BlockMultilayer extends ABlock {
+public class BlockMultilayer extends ABlock implements IWritableBlock {
     private static final int MAX_LAYERS = Byte.MAX_VALUE;
 
     private static ByteBuffer temp;
@@ -48,6 +48,13 @@ public class BlockMultilayer extends ABlock {
      * @param format : GeoFormat specifying format of loaded data.
      */
     public BlockMultilayer(ByteBuffer bb, GeoFormat format) {
+        if (format == GeoFormat.L2D) {
+            // the L2D data has the same layout of the buffer, copy it at once without the temp buffer
+            _buffer = new byte[l2dSize(bb)];
+            bb.get(_buffer);
+            return;
+        }
+
         // move buffer pointer to end of MultilayerBlock
         for (int cell = 0; cell < GeoStructure.BLOCK_CELLS; cell++) {
             // get layer count for this cell
@@ -87,7 +94,26 @@ public class BlockMultilayer extends ABlock {
     }
 
     /**
-     * Initializes the temporarily buffer.
+     * Measures the L2D MultilayerBlock starting at the buffer position, without moving it.
+     *
+     * @param bb : Input byte buffer.
+     * @return int : The size of the block data.
+     */
+    private static int l2dSize(ByteBuffer bb) {
+        final int start = bb.position();
+        int position = start;
+        for (int cell = 0; cell < GeoStructure.BLOCK_CELLS; cell++) {
+            final byte layers = bb.get(position);
+            if ((layers <= 0) || (layers > MAX_LAYERS)) {
+                throw new RuntimeException("Invalid layer count for MultilayerBlock");
+            }
+            position += (layers * 3) + 1;
+        }
+        return position - start;
+    }
+
+    /**
+     * Initializes the temporarily buffer used by the L2J and L2OFF formats, the L2D format doesn't need it.
      */
     public static void initialize() {
         // initialize temporarily buffer and sorting mechanism
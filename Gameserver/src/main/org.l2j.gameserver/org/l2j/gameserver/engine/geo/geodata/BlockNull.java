@@ -24,7 +24,7 @@ import java.io.BufferedOutputStream;
 /**
  * @author Hasha
  */
-public class BlockNull extends ABlock {
+public class BlockNull extends ABlock implements IWritableBlock {
     private final byte _nswe;
 
     public BlockNull() {
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.engine.geo.geodata;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+
+/**
+ * The mutating and serializing operations of the blocks held on the heap.
+ * The {@link MappedRegion} doesn't implement it, the mapped geodata is read-only.
+ *
+ * @author JoeAlisson
+ */
+public interface IWritableBlock {
+    /**
+     * Sets the NSWE flag byte of cell given by cell index.
+     *
+     * @param index : Index of the cell.
+     * @param nswe  : New NSWE flag byte.
+     */
+    void setNswe(int index, byte nswe);
+
+    /**
+     * Saves the block in L2D format to {@link BufferedOutputStream}. Used only for L2D geodata conversion.
+     *
+     * @param stream : The stream.
+     * @throws IOException : Can't save the block to steam.
+     */
+    void saveBlock(BufferedOutputStream stream) throws IOException;
+}
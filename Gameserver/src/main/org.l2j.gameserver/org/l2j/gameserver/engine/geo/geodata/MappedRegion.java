@@ -0,0 +1,267 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.engine.geo.geodata;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A whole L2D region file answered straight from its read-only memory mapping.
+ *
+ * The block data is never copied to the heap, only the offset of each block inside the file is kept.
+ * The same instance is shared by all the blocks of the region, the cell indexes are absolute positions on the mapped file.
+ * The index of a flat block cell is flagged, since its nswe is not stored on the file.
+ *
+ * @author JoeAlisson
+ */
+public final class MappedRegion extends ABlock {
+
+    private static final int MAX_LAYERS = Byte.MAX_VALUE;
+    private static final int FLAT_INDEX = 1 << 30;
+    private static final byte FLAT_NSWE = (byte) 0xFF;
+
+    private final ByteBuffer buffer;
+    private final int[] offsets = new int[GeoStructure.REGION_BLOCKS];
+    private final int remaining;
+
+    /**
+     * Builds the block offset index of the region.
+     *
+     * @param buffer : The read-only little endian mapping of the region file.
+     */
+    public MappedRegion(ByteBuffer buffer) {
+        this.buffer = buffer;
+
+        int position = 0;
+        for (int block = 0; block < GeoStructure.REGION_BLOCKS; block++) {
+            offsets[block] = position;
+            final byte type = buffer.get(position++);
+            position += switch (type) {
+                case GeoStructure.TYPE_FLAT_L2D -> 2;
+                case GeoStructure.TYPE_COMPLEX_L2D -> GeoStructure.BLOCK_CELLS * 3;
+                case GeoStructure.TYPE_MULTILAYER_L2D -> multilayerSize(position);
+                default -> throw new IllegalArgumentException("Unknown block type: " + type);
+            };
+        }
+
+        if (position > buffer.limit()) {
+            throw new IllegalArgumentException("Region file is truncated");
+        }
+        remaining = buffer.limit() - position;
+    }
+
+    private int multilayerSize(int start) {
+        int position = start;
+        for (int cell = 0; cell < GeoStructure.BLOCK_CELLS; cell++) {
+            final byte layers = buffer.get(position);
+            if ((layers <= 0) || (layers > MAX_LAYERS)) {
+                throw new IllegalArgumentException("Invalid layer count for MultilayerBlock");
+            }
+            position += (layers * 3) + 1;
+        }
+        return position - start;
+    }
+
+    /**
+     * @return the amount of bytes left after the last block of the region file
+     */
+    public int getRemaining() {
+        return remaining;
+    }
+
+    private int blockOffset(int geoX, int geoY) {
+        final int blockX = (geoX / GeoStructure.BLOCK_CELLS_X) % GeoStructure.REGION_BLOCKS_X;
+        final int blockY = (geoY / GeoStructure.BLOCK_CELLS_Y) % GeoStructure.REGION_BLOCKS_Y;
+        return offsets[(blockX * GeoStructure.REGION_BLOCKS_Y) + blockY];
+    }
+
+    private static int cell(int geoX, int geoY) {
+        return ((geoX % GeoStructure.BLOCK_CELLS_X) * GeoStructure.BLOCK_CELLS_Y) + (geoY % GeoStructure.BLOCK_CELLS_Y);
+    }
+
+    /**
+     * @return the position of the layers count of the cell on a multilayer block
+     */
+    private int multilayerCell(int data, int geoX, int geoY) {
+        int index = data;
+        for (int i = cell(geoX, geoY); i > 0; i--) {
+            index += (buffer.get(index) * 3) + 1;
+        }
+        return index;
+    }
+
+    @Override
+    public boolean hasGeoPos() {
+        return true;
+    }
+
+    @Override
+    public short getHeightNearest(int geoX, int geoY, int worldZ) {
+        return getHeight(getIndexNearest(geoX, geoY, worldZ));
+    }
+
+    @Override
+    public short getHeightNearestOriginal(int geoX, int geoY, int worldZ) {
+        return getHeightNearest(geoX, geoY, worldZ);
+    }
+
+    @Override
+    public short getHeightAbove(int geoX, int geoY, int worldZ) {
+        final int index = getIndexAbove(geoX, geoY, worldZ);
+        return index < 0 ? Short.MIN_VALUE : getHeight(index);
+    }
+
+    @Override
+    public short getHeightBelow(int geoX, int geoY, int worldZ) {
+        final int index = getIndexBelow(geoX, geoY, worldZ);
+        return index < 0 ? Short.MAX_VALUE : getHeight(index);
+    }
+
+    @Override
+    public byte getNsweNearest(int geoX, int geoY, int worldZ) {
+        return getNswe(getIndexNearest(geoX, geoY, worldZ));
+    }
+
+    @Override
+    public byte getNsweNearestOriginal(int geoX, int geoY, int worldZ) {
+        return getNsweNearest(geoX, geoY, worldZ);
+    }
+
+    @Override
+    public byte getNsweAbove(int geoX, int geoY, int worldZ) {
+        final int index = getIndexAbove(geoX, geoY, worldZ);
+        return index < 0 ? 0 : getNswe(index);
+    }
+
+    @Override
+    public byte getNsweBelow(int geoX, int geoY, int worldZ) {
+        final int index = getIndexBelow(geoX, geoY, worldZ);
+        return index < 0 ? 0 : getNswe(index);
+    }
+
+    @Override
+    public int getIndexNearest(int geoX, int geoY, int worldZ) {
+        final int offset = blockOffset(geoX, geoY);
+        return switch (buffer.get(offset)) {
+            case GeoStructure.TYPE_FLAT_L2D -> FLAT_INDEX | (offset + 1);
+            case GeoStructure.TYPE_COMPLEX_L2D -> offset + 1 + (cell(geoX, geoY) * 3);
+            default -> {
+                int index = multilayerCell(offset + 1, geoX, geoY);
+                byte layers = buffer.get(index++);
+
+                // same as the heap block: on equal distances the bottom layer is returned
+                int limit = Integer.MAX_VALUE;
+                while (layers-- > 0) {
+                    final int distance = Math.abs(buffer.getShort(index + 1) - worldZ);
+                    if (distance > limit) {
+                        break;
+                    }
+                    limit = distance;
+                    index += 3;
+                }
+                yield index - 3;
+            }
+        };
+    }
+
+    @Override
+    public int getIndexAbove(int geoX, int geoY, int worldZ) {
+        final int offset = blockOffset(geoX, geoY);
+        return switch (buffer.get(offset)) {
+            case GeoStructure.TYPE_FLAT_L2D -> buffer.getShort(offset + 1) > worldZ ? FLAT_INDEX | (offset + 1) : -1;
+            case GeoStructure.TYPE_COMPLEX_L2D -> {
+                final int index = offset + 1 + (cell(geoX, geoY) * 3);
+                yield buffer.getShort(index + 1) > worldZ ? index : -1;
+            }
+            default -> {
+                int index = multilayerCell(offset + 1, geoX, geoY);
+                byte layers = buffer.get(index++);
+                // from the bottom layer up
+                index += (layers - 1) * 3;
+                while (layers-- > 0) {
+                    if (buffer.getShort(index + 1) > worldZ) {
+                        yield index;
+                    }
+                    index -= 3;
+                }
+                yield -1;
+            }
+        };
+    }
+
+    @Override
+    public int getIndexAboveOriginal(int geoX, int geoY, int worldZ) {
+        return getIndexAbove(geoX, geoY, worldZ);
+    }
+
+    @Override
+    public int getIndexBelow(int geoX, int geoY, int worldZ) {
+        final int offset = blockOffset(geoX, geoY);
+        return switch (buffer.get(offset)) {
+            case GeoStructure.TYPE_FLAT_L2D -> buffer.getShort(offset + 1) < worldZ ? FLAT_INDEX | (offset + 1) : -1;
+            case GeoStructure.TYPE_COMPLEX_L2D -> {
+                final int index = offset + 1 + (cell(geoX, geoY) * 3);
+                yield buffer.getShort(index + 1) < worldZ ? index : -1;
+            }
+            default -> {
+                int index = multilayerCell(offset + 1, geoX, geoY);
+                byte layers = buffer.get(index++);
+                // from the top layer down
+                while (layers-- > 0) {
+                    if (buffer.getShort(index + 1) < worldZ) {
+                        yield index;
+                    }
+                    index += 3;
+                }
+                yield -1;
+            }
+        };
+    }
+
+    @Override
+    public int getIndexBelowOriginal(int geoX, int geoY, int worldZ) {
+        return getIndexBelow(geoX, geoY, worldZ);
+    }
+
+    @Override
+    public short getHeight(int index) {
+        if ((index & FLAT_INDEX) != 0) {
+            return buffer.getShort(index & ~FLAT_INDEX);
+        }
+        return buffer.getShort(index + 1);
+    }
+
+    @Override
+    public short getHeightOriginal(int index) {
+        return getHeight(index);
+    }
+
+    @Override
+    public byte getNswe(int index) {
+        if ((index & FLAT_INDEX) != 0) {
+            return FLAT_NSWE;
+        }
+        return buffer.get(index);
+    }
+
+    @Override
+    public byte getNsweOriginal(int index) {
+        return getNswe(index);
+    
+    }
+}
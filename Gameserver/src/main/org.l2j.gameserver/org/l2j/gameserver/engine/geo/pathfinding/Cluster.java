@@ -0,0 +1,350 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.engine.geo.pathfinding;
+
+import org.l2j.gameserver.engine.geo.GeoEngine;
+import org.l2j.gameserver.engine.geo.geodata.GeoStructure;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Abstract graph of a square area of the geodata.
+ *
+ * The nodes are the entrances of the cluster, cells on its border which can be crossed to a neighbor cluster.
+ * The edges are the paths between the entrances inside the cluster, each with its cost and the waypoints of the movement.
+ * The crossing to the neighbor cluster has always the base cost and lands on the entrance of the neighbor at the adjacent cell.
+ *
+ * @author JoeAlisson
+ */
+final class Cluster {
+
+    static final int SIZE = 64;
+
+    static final int CROSSING_COST = 10;
+    private static final int MAX_ENTRANCE_WIDTH = 16;
+    private static final int MAX_CROSSING_HEIGHT = 2 * GeoStructure.CELL_HEIGHT;
+    private static final long[] NO_WAYPOINTS = new long[0];
+
+    private final int originX;
+    private final int originY;
+    private long[] nodes;
+    private int[][] targets;
+    private int[][] costs;
+    private long[][][] waypoints;
+
+    private Cluster(int originX, int originY) {
+        this.originX = originX;
+        this.originY = originY;
+    }
+
+    static Cluster empty(int originX, int originY) {
+        final Cluster cluster = new Cluster(originX, originY);
+        cluster.nodes = NO_WAYPOINTS;
+        cluster.targets = new int[0][];
+        cluster.costs = new int[0][];
+        cluster.waypoints = new long[0][][];
+        return cluster;
+    }
+
+    /**
+     * Builds the entrances of the cluster and the paths between them.
+     *
+     * @param geo : the geo engine
+     * @param originX : the geo X of the first cell
+     * @param originY : the geo Y of the first cell
+     * @return the cluster
+     */
+    static Cluster build(GeoEngine geo, int originX, int originY) {
+        final Cluster cluster = new Cluster(originX, originY);
+        final ClusterGrid grid = new ClusterGrid(geo, originX, originY, SIZE);
+
+        final EntranceCollector collector = new EntranceCollector(grid);
+        // west and east borders, the crossings are always computed from the west/north cell so both clusters agree
+        collector.border(geo, originX - 1, originY, 0, 1, false);
+        collector.border(geo, originX + SIZE - 1, originY, 0, 1, true);
+        // north and south borders
+        collector.border(geo, originX, originY - 1, 1, 0, false);
+        collector.border(geo, originX, originY + SIZE - 1, 1, 0, true);
+
+        final int[] states = Arrays.copyOf(collector.states, collector.count);
+        cluster.nodes = new long[states.length];
+        for (int i = 0; i < states.length; i++) {
+            cluster.nodes[i] = ClusterGrid.pack(grid.getGeoX(states[i]), grid.getGeoY(states[i]), grid.getHeight(states[i]));
+        }
+
+        cluster.targets = new int[states.length][];
+        cluster.costs = new int[states.length][];
+        cluster.waypoints = new long[states.length][][];
+
+        final int[] parents = new int[grid.getStates()];
+        final int[] edgeTargets = new int[states.length];
+        final int[] edgeCosts = new int[states.length];
+        final long[][] edgeWaypoints = new long[states.length][];
+        for (int i = 0; i < states.length; i++) {
+            final int[] reached = grid.flood(states[i], parents);
+            int edges = 0;
+            for (int j = 0; j < states.length; j++) {
+                if (i != j && reached[states[j]] != ClusterGrid.UNREACHED) {
+                    edgeTargets[edges] = j;
+                    edgeCosts[edges] = reached[states[j]];
+                    edgeWaypoints[edges++] = grid.waypoints(states[j], parents, false);
+                }
+            }
+            cluster.targets[i] = Arrays.copyOf(edgeTargets, edges);
+            cluster.costs[i] = Arrays.copyOf(edgeCosts, edges);
+            cluster.waypoints[i] = Arrays.copyOf(edgeWaypoints, edges);
+        }
+        return cluster;
+    }
+
+    int getOriginX() {
+        return originX;
+    }
+
+    int getOriginY() {
+        return originY;
+    }
+
+    int getNodeCount() {
+        return nodes.length;
+    }
+
+    long getNode(int node) {
+        return nodes[node];
+    }
+
+    /**
+     * @param geoX : geo X
+     * @param geoY : geo Y
+     * @param z : world Z
+     * @return the node on the cell with the height nearest to the Z or -1 if there is no entrance on the cell
+     */
+    int findNode(int geoX, int geoY, int z) {
+        int result = -1;
+        int limit = MAX_CROSSING_HEIGHT;
+        for (int i = 0; i < nodes.length; i++) {
+            final long node = nodes[i];
+            if (ClusterGrid.unpackX(node) == geoX && ClusterGrid.unpackY(node) == geoY) {
+                final int distance = Math.abs(ClusterGrid.unpackZ(node) - z);
+                if (distance <= limit) {
+                    limit = distance;
+                    result = i;
+                }
+            }
+        }
+        return result;
+    }
+
+    int[] getTargets(int node) {
+        return targets[node];
+    }
+
+    int[] getCosts(int node) {
+        return costs[node];
+    }
+
+    long[] getWaypoints(int node, int edge) {
+        return waypoints[node][edge];
+    }
+
+    void write(DataOutput output) throws IOException {
+        output.writeInt(originX);
+        output.writeInt(originY);
+        output.writeInt(nodes.length);
+        for (int i = 0; i < nodes.length; i++) {
+            output.writeLong(nodes[i]);
+            output.writeInt(targets[i].length);
+            for (int edge = 0; edge < targets[i].length; edge++) {
+                output.writeInt(targets[i][edge]);
+                output.writeInt(costs[i][edge]);
+                output.writeInt(waypoints[i][edge].length);
+                for (long waypoint : waypoints[i][edge]) {
+                    output.writeLong(waypoint);
+                }
+            }
+        }
+    }
+
+    static Cluster read(DataInput input) throws IOException {
+        final Cluster cluster = new Cluster(input.readInt(), input.readInt());
+        final int count = input.readInt();
+        cluster.nodes = new long[count];
+        cluster.targets = new int[count][];
+        cluster.costs = new int[count][];
+        cluster.waypoints = new long[count][][];
+        for (int i = 0; i < count; i++) {
+            cluster.nodes[i] = input.readLong();
+            final int edges = input.readInt();
+            cluster.targets[i] = new int[edges];
+            cluster.costs[i] = new int[edges];
+            cluster.waypoints[i] = new long[edges][];
+            for (int edge = 0; edge < edges; edge++) {
+                cluster.targets[i][edge] = input.readInt();
+                cluster.costs[i][edge] = input.readInt();
+                final long[] points = new long[input.readInt()];
+                for (int point = 0; point < points.length; point++) {
+                    points[point] = input.readLong();
+                }
+                cluster.waypoints[i][edge] = points;
+            }
+        }
+        return cluster;
+    }
+
+    /**
+     * Checks the crossing from the given cell and layer to the adjacent cell.
+     *
+     * @param geo : the geo engine
+     * @param geoX : the west or north cell geo X
+     * @param geoY : the west or north cell geo Y
+     * @param z : the layer height of the cell
+     * @param dx : 1 when crossing to the east
+     * @param dy : 1 when crossing to the south
+     * @return the height of the layer reached on the adjacent cell or {@link Short#MIN_VALUE} when the cells can't be crossed
+     */
+    static short cross(GeoEngine geo, int geoX, int geoY, int z, int dx, int dy) {
+        final byte forward = dx > 0 ? GeoStructure.CELL_FLAG_E : GeoStructure.CELL_FLAG_S;
+        final byte backward = dx > 0 ? GeoStructure.CELL_FLAG_W : GeoStructure.CELL_FLAG_N;
+        if (!geo.hasGeoPos(geoX, geoY) || !geo.hasGeoPos(geoX + dx, geoY + dy)) {
+            return Short.MIN_VALUE;
+        }
+        if ((geo.getNsweNearest(geoX, geoY, z) & forward) == 0) {
+            return Short.MIN_VALUE;
+        }
+
+        final short target = geo.getHeightNearest(geoX + dx, geoY + dy, z);
+        if (Math.abs(target - z) > MAX_CROSSING_HEIGHT || (geo.getNsweNearest(geoX + dx, geoY + dy, target) & backward) == 0) {
+            return Short.MIN_VALUE;
+        }
+        return target;
+    }
+
+    /**
+     * Groups the crossings of the borders into entrances, the middle crossing of each entrance becomes a node.
+     *
+     * The crossings are grouped by the height of the west or north cell, so both clusters sharing a border find the same entrances.
+     */
+    private static final class EntranceCollector {
+        private final ClusterGrid grid;
+        private final List<Entrance> open = new ArrayList<>();
+        private int[] states = new int[16];
+        private int count;
+
+        private EntranceCollector(ClusterGrid grid) {
+            this.grid = grid;
+        }
+
+        /**
+         * @param geo : the geo engine
+         * @param startX : geo X of the first west or north cell of the border
+         * @param startY : geo Y of the first west or north cell of the border
+         * @param stepX : the step along the border on X
+         * @param stepY : the step along the border on Y
+         * @param inside : true when the west or north cells belong to this cluster
+         */
+        private void border(GeoEngine geo, int startX, int startY, int stepX, int stepY, boolean inside) {
+            final int dx = stepY;
+            final int dy = stepX;
+            for (int i = 0; i < SIZE; i++) {
+                final int x = startX + (i * stepX);
+                final int y = startY + (i * stepY);
+
+                int z = Short.MAX_VALUE;
+                while (true) {
+                    final short height = geo.getHeightBelow(x, y, z);
+                    if (height >= z) {
+                        break;
+                    }
+                    z = height;
+
+                    final short other = cross(geo, x, y, height, dx, dy);
+                    if (other != Short.MIN_VALUE) {
+                        extend(i, height, inside ? x : x + dx, inside ? y : y + dy, inside ? height : other);
+                    }
+                }
+
+                // the entrances not extended by this cell are complete
+                for (Iterator<Entrance> iterator = open.iterator(); iterator.hasNext(); ) {
+                    final Entrance entrance = iterator.next();
+                    if (entrance.last < i || entrance.length == MAX_ENTRANCE_WIDTH) {
+                        close(entrance);
+                        iterator.remove();
+                    }
+                }
+            }
+            open.forEach(this::close);
+            open.clear();
+        }
+
+        private void extend(int position, short height, int cellX, int cellY, short z) {
+            for (Entrance entrance : open) {
+                if (entrance.last == position - 1 && Math.abs(entrance.height - height) <= MAX_CROSSING_HEIGHT) {
+                    entrance.add(position, height, cellX, cellY, z);
+                    return;
+                }
+            }
+            final Entrance entrance = new Entrance();
+            entrance.add(position, height, cellX, cellY, z);
+            open.add(entrance);
+        }
+
+        private void close(Entrance entrance) {
+            final int middle = entrance.length / 2;
+            add(grid.stateOf(entrance.cellX[middle], entrance.cellY[middle], entrance.z[middle]));
+        }
+
+        private void add(int state) {
+            if (state < 0) {
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                if (states[i] == state) {
+                    return;
+                }
+            }
+            if (count == states.length) {
+                states = Arrays.copyOf(states, count * 2);
+            }
+            states[count++] = state;
+        }
+    }
+
+    private static final class Entrance {
+        private final int[] cellX = new int[MAX_ENTRANCE_WIDTH];
+        private final int[] cellY = new int[MAX_ENTRANCE_WIDTH];
+        private final short[] z = new short[MAX_ENTRANCE_WIDTH];
+        private int last;
+        private short height;
+        private int length;
+
+        private void add(int position, short height, int x, int y, short layer) {
+            cellX[length] = x;
+            cellY[length] = y;
+            z[length++] = layer;
+            this.last = position;
+            this.height = height;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.engine.geo.pathfinding;
+
+import org.l2j.gameserver.engine.geo.GeoEngine;
+import org.l2j.gameserver.engine.geo.geodata.GeoStructure;
+
+import java.util.Arrays;
+
+/**
+ * The walkable layers of the cells of a cluster, read from the geodata.
+ *
+ * Each layer of a cell is a state, the states of a cell are contiguous and ordered from the top layer to the bottom one.
+ * The floods are Dijkstra searches restricted to the cluster, following the same movement rules of the {@link NodeBuffer}.
+ *
+ * @author JoeAlisson
+ */
+final class ClusterGrid {
+
+    static final int UNREACHED = Integer.MAX_VALUE;
+
+    private static final int BASE_WEIGHT = 10;
+    private static final int DIAGONAL_WEIGHT = 14;
+    private static final int MAX_CLIMB = 2 * GeoStructure.CELL_HEIGHT;
+
+    private static final int[] DIRECTION_X = { 0, 0, -1, 1, -1, 1, -1, 1 };
+    private static final int[] DIRECTION_Y = { -1, 1, 0, 0, -1, -1, 1, 1 };
+    private static final byte[] DIRECTION_FLAG = {
+        GeoStructure.CELL_FLAG_N, GeoStructure.CELL_FLAG_S, GeoStructure.CELL_FLAG_W, GeoStructure.CELL_FLAG_E,
+        GeoStructure.CELL_FLAG_NW, GeoStructure.CELL_FLAG_NE, GeoStructure.CELL_FLAG_SW, GeoStructure.CELL_FLAG_SE
+    };
+    private static final int[] DIRECTION_WEIGHT = { BASE_WEIGHT, BASE_WEIGHT, BASE_WEIGHT, BASE_WEIGHT, DIAGONAL_WEIGHT, DIAGONAL_WEIGHT, DIAGONAL_WEIGHT, DIAGONAL_WEIGHT };
+
+    private final int originX;
+    private final int originY;
+    private final int size;
+    private final int[] cellStart;
+    private short[] heights;
+    private byte[] nswe;
+    private int states;
+
+    /**
+     * @param geo : the geo engine
+     * @param originX : the geo X of the first cell of the cluster
+     * @param originY : the geo Y of the first cell of the cluster
+     * @param size : the cells of each side of the cluster
+     */
+    ClusterGrid(GeoEngine geo, int originX, int originY, int size) {
+        this.originX = originX;
+        this.originY = originY;
+        this.size = size;
+        cellStart = new int[(size * size) + 1];
+        heights = new short[size * size];
+        nswe = new byte[size * size];
+
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                cellStart[(x * size) + y] = states;
+                int z = Short.MAX_VALUE;
+                while (true) {
+                    final short height = geo.getHeightBelow(originX + x, originY + y, z);
+                    if (height >= z) {
+                        break;
+                    }
+                    addLayer(height, geo.getNsweNearest(originX + x, originY + y, height));
+                    z = height;
+                }
+            }
+        }
+        cellStart[size * size] = states;
+    }
+
+    private void addLayer(short height, byte flags) {
+        if (states == heights.length) {
+            heights = Arrays.copyOf(heights, states * 2);
+            nswe = Arrays.copyOf(nswe, states * 2);
+        }
+        heights[states] = height;
+        nswe[states++] = flags;
+    }
+
+    int getStates() {
+        return states;
+    }
+
+    int getGeoX(int state) {
+        return originX + (cellOf(state) / size);
+    }
+
+    int getGeoY(int state) {
+        return originY + (cellOf(state) % size);
+    }
+
+    short getHeight(int state) {
+        return heights[state];
+    }
+
+    private int cellOf(int state) {
+        // the states of the cells are sorted, find the last cell starting at or before the state
+        int low = 0;
+        int high = size * size - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (cellStart[middle] <= state) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param geoX : cell geo X
+     * @param geoY : cell geo Y
+     * @param z : world Z
+     * @return the state of the layer nearest to the given Z or -1 if the cell has no layer or is out of the cluster
+     */
+    int stateOf(int geoX, int geoY, int z) {
+        final int x = geoX - originX;
+        final int y = geoY - originY;
+        if (x < 0 || y < 0 || x >= size || y >= size) {
+            return -1;
+        }
+        return nearestLayer((x * size) + y, z);
+    }
+
+    /**
+     * The lower layer is preferred when two layers have the same distance, as the geodata blocks do.
+     */
+    private int nearestLayer(int cell, int z) {
+        int result = -1;
+        int limit = Integer.MAX_VALUE;
+        for (int state = cellStart[cell]; state < cellStart[cell + 1]; state++) {
+            final int distance = Math.abs(heights[state] - z);
+            if (distance <= limit) {
+                limit = distance;
+                result = state;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the state reached moving from the state on the direction or -1 if the movement is not possible
+     */
+    private int move(int state, int direction) {
+        if ((nswe[state] & DIRECTION_FLAG[direction]) == 0) {
+            return -1;
+        }
+
+        final int cell = cellOf(state);
+        final int x = (cell / size) + DIRECTION_X[direction];
+        final int y = (cell % size) + DIRECTION_Y[direction];
+        if (x < 0 || y < 0 || x >= size || y >= size) {
+            return -1;
+        }
+
+        final int target = nearestLayer((x * size) + y, heights[state]);
+        if (target < 0 || heights[target] > heights[state] + MAX_CLIMB) {
+            return -1;
+        }
+        return target;
+    }
+
+    /**
+     * Cells close to obstacles are more expensive, keeping the paths away from the walls.
+     */
+    private int cost(int target, int direction) {
+        return nswe[target] != (byte) 0xFF ? DIRECTION_WEIGHT[direction] * 2 : DIRECTION_WEIGHT[direction];
+    }
+
+    /**
+     * Searches the costs of the movements from the source to every state of the cluster.
+     *
+     * @param source : the source state
+     * @param parents : receives the previous state of each reached state
+     * @return the cost to each state, {@link #UNREACHED} for the unreachable ones
+     */
+    int[] flood(int source, int[] parents) {
+        return flood(source, parents, false);
+    }
+
+    /**
+     * Searches the costs of the movements from every state of the cluster to the target.
+     *
+     * @param target : the target state
+     * @param parents : receives the next state of each reached state
+     * @return the cost from each state, {@link #UNREACHED} for the states that can't reach the target
+     */
+    int[] floodReverse(int target, int[] parents) {
+        return flood(target, parents, true);
+    }
+
+    private int[] flood(int root, int[] parents, boolean reverse) {
+        final int[] costs = new int[states];
+        Arrays.fill(costs, UNREACHED);
+        Arrays.fill(parents, 0, states, -1);
+        costs[root] = 0;
+
+        final StateHeap open = new StateHeap();
+        open.push(0, root);
+        while (!open.isEmpty()) {
+            final long entry = open.pop();
+            final int state = (int) entry;
+            final int cost = (int) (entry >>> 32);
+            if (cost > costs[state]) {
+                continue;
+            }
+
+            if (reverse) {
+                relaxPredecessors(state, cost, costs, parents, open);
+            } else {
+                for (int direction = 0; direction < DIRECTION_FLAG.length; direction++) {
+                    final int next = move(state, direction);
+                    if (next >= 0) {
+                        relax(next, state, cost + cost(next, direction), costs, parents, open);
+                    }
+                }
+            }
+        }
+        return costs;
+    }
+
+    private void relaxPredecessors(int state, int cost, int[] costs, int[] parents, StateHeap open) {
+        final int cell = cellOf(state);
+        for (int direction = 0; direction < DIRECTION_FLAG.length; direction++) {
+            final int x = (cell / size) - DIRECTION_X[direction];
+            final int y = (cell % size) - DIRECTION_Y[direction];
+            if (x < 0 || y < 0 || x >= size || y >= size) {
+                continue;
+            }
+
+            final int previousCell = (x * size) + y;
+            for (int previous = cellStart[previousCell]; previous < cellStart[previousCell + 1]; previous++) {
+                if (move(previous, direction) == state) {
+                    relax(previous, state, cost + cost(state, direction), costs, parents, open);
+                }
+            }
+        }
+    }
+
+    private static void relax(int state, int parent, int cost, int[] costs, int[] parents, StateHeap open) {
+        if (cost < costs[state]) {
+            costs[state] = cost;
+            parents[state] = parent;
+            open.push(cost, state);
+        }
+    }
+
+    /**
+     * Compresses the movement following the parents from the state, keeping only the states where the direction changes.
+     *
+     * @param from : the first state, not included
+     * @param parents : the parents filled by a flood, pointing towards the root of the flood
+     * @param reversed : true when the parents point to the end of the movement, as filled by a reverse flood
+     * @return the packed locations of the movement, ending on the last state
+     */
+    long[] waypoints(int from, int[] parents, boolean reversed) {
+        final int[] chain = new int[states];
+        int length = 0;
+        for (int state = from; state >= 0; state = parents[state]) {
+            chain[length++] = state;
+        }
+
+        if (!reversed) {
+            // the chain goes from the target back to the flood root
+            for (int i = 0, j = length - 1; i < j; i++, j--) {
+                final int swap = chain[i];
+                chain[i] = chain[j];
+                chain[j] = swap;
+            }
+        }
+
+        final long[] result = new long[length];
+        int count = 0;
+        int dx = 0;
+        int dy = 0;
+        for (int i = 1; i < length; i++) {
+            final int nx = getGeoX(chain[i]) - getGeoX(chain[i - 1]);
+            final int ny = getGeoY(chain[i]) - getGeoY(chain[i - 1]);
+            if ((nx != dx || ny != dy) && i > 1) {
+                result[count++] = pack(getGeoX(chain[i - 1]), getGeoY(chain[i - 1]), getHeight(chain[i - 1]));
+            }
+            dx = nx;
+            dy = ny;
+        }
+        if (length > 1) {
+            result[count++] = pack(getGeoX(chain[length - 1]), getGeoY(chain[length - 1]), getHeight(chain[length - 1]));
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    static long pack(int geoX, int geoY, int z) {
+        return ((long) geoX << 40) | ((long) (geoY & 0xFFFFFF) << 16) | (z & 0xFFFF);
+    }
+
+    static int unpackX(long location) {
+        return (int) (location >>> 40);
+    }
+
+    static int unpackY(long location) {
+        return (int) ((location >>> 16) & 0xFFFFFF);
+    }
+
+    static short unpackZ(long location) {
+        return (short) location;
+    }
+
+    /**
+     * Binary min heap of states packed with their cost.
+     */
+    private static final class StateHeap {
+        private long[] entries = new long[256];
+        private int size;
+
+        private void push(int cost, int state) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            final long entry = ((long) cost << 32) | state;
+            int index = size++;
+            while (index > 0) {
+                final int parent = (index - 1) >>> 1;
+                if (entries[parent] <= entry) {
+                    break;
+                }
+                entries[index] = entries[parent];
+                index = parent;
+            }
+            entries[index] = entry;
+        }
+
+        private long pop() {
+            final long result = entries[0];
+            final long last = entries[--size];
+            int index = 0;
+            final int half = size >>> 1;
+            while (index < half) {
+                int child = (index << 1) + 1;
+                if (child + 1 < size && entries[child + 1] < entries[child]) {
+                    child++;
+                }
+                if (entries[child] >= last) {
+                    break;
+                }
+                entries[index] = entries[child];
+                index = child;
+            }
+            if (size > 0) {
+                entries[index] = last;
+            }
+            return result;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,578 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.engine.geo.pathfinding;
+
+import org.l2j.commons.threading.PriorityThreadFactory;
+import org.l2j.gameserver.data.xml.DoorDataManager;
+import org.l2j.gameserver.data.xml.FenceDataManager;
+import org.l2j.gameserver.engine.geo.GeoEngine;
+import org.l2j.gameserver.engine.geo.geodata.GeoFormat;
+import org.l2j.gameserver.engine.geo.geodata.GeoLocation;
+import org.l2j.gameserver.engine.geo.geodata.GeoStructure;
+import org.l2j.gameserver.model.Location;
+import org.l2j.gameserver.model.instancezone.Instance;
+import org.l2j.gameserver.world.World;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Hierarchical path finding over clusters of the geodata.
+ *
+ * The geodata is split in square clusters, each one keeping the paths between its entrances. A path is searched on the
+ * graph of entrances and only the start and the goal are searched on the cells, inside their own clusters.
+ * The clusters of each region are built in background once its geodata is loaded and cached on disk right away,
+ * the cache of a region is discarded when its geodata file changes. The searches crossing a region not built yet are
+ * answered with {@link #UNAVAILABLE}, so the caller can use another path finding.
+ * The doors and fences are checked on every movement of the found path, since they change at runtime.
+ *
+ * @author JoeAlisson
+ */
+public final class HierarchicalPathFinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HierarchicalPathFinder.class);
+
+    /**
+     * Returned by {@link #findPath(int, int, int, int, int, int, Instance)} when a cluster needed by the search is not built yet.
+     */
+    public static final List<Location> UNAVAILABLE = Collections.unmodifiableList(new ArrayList<>(0));
+
+    private static final int CACHE_MAGIC = 0x48504131;
+    private static final int CACHE_VERSION = 1;
+    private static final int MAX_ITERATIONS = 20000;
+    private static final long GOAL = Long.MIN_VALUE;
+
+    private static final int[] CROSSING_X = { -1, 1, 0, 0 };
+    private static final int[] CROSSING_Y = { 0, 0, -1, 1 };
+
+    private final GeoEngine geo;
+    private final Path geodataPath;
+    private final Path cachePath;
+    private final ExecutorService builder;
+    private final Map<Integer, Cluster> clusters = new ConcurrentHashMap<>();
+    private final Set<Integer> preparedRegions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pendingRegions = new AtomicInteger();
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder unavailable = new LongAdder();
+    private final LongAdder built = new LongAdder();
+    private final LongAdder loaded = new LongAdder();
+
+    /**
+     * @param geo : the geo engine
+     * @param geodataPath : the folder of the geodata files
+     */
+    public HierarchicalPathFinder(GeoEngine geo, Path geodataPath) {
+        this.geo = geo;
+        this.geodataPath = geodataPath;
+        this.cachePath = geodataPath.resolve("hpa");
+        final int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        builder = Executors.newFixedThreadPool(threads, new PriorityThreadFactory("ClusterBuilder", Thread.MIN_PRIORITY));
+    }
+
+    /**
+     * Prepares the clusters of all the regions having a geodata file, in background.
+     */
+    public void prepareRegions() {
+        final long start = System.nanoTime();
+        final List<Integer> regions = new ArrayList<>();
+        for (int regionX = World.TILE_X_MIN; regionX <= World.TILE_X_MAX; regionX++) {
+            for (int regionY = World.TILE_Y_MIN; regionY <= World.TILE_Y_MAX; regionY++) {
+                if (Files.isRegularFile(geodataFile(regionX, regionY)) && preparedRegions.add(regionKey(regionX, regionY))) {
+                    regions.add(regionKey(regionX, regionY));
+                }
+            }
+        }
+
+        final AtomicInteger remaining = new AtomicInteger(regions.size());
+        pendingRegions.addAndGet(regions.size());
+        for (int region : regions) {
+            builder.execute(() -> {
+                prepare(region >> 16, region & 0xFFFF);
+                if (remaining.decrementAndGet() == 0) {
+                    LOGGER.info("Prepared the path finding clusters of {} regions in {} ms.", regions.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+            });
+        }
+    }
+
+    /**
+     * Prepares the clusters of the region in background, the region geodata must be loaded.
+     *
+     * @param regionX : Geodata file region X coordinate.
+     * @param regionY : Geodata file region Y coordinate.
+     */
+    public void prepareRegion(int regionX, int regionY) {
+        if (preparedRegions.add(regionKey(regionX, regionY))) {
+            pendingRegions.incrementAndGet();
+            builder.execute(() -> prepare(regionX, regionY));
+        }
+    }
+
+    private void prepare(int regionX, int regionY) {
+        try {
+            if (!loadCache(regionX, regionY) && buildRegion(regionX, regionY)) {
+                saveCache(regionX, regionY);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Could not prepare the path finding clusters of region {}_{}", regionX, regionY, e);
+        } finally {
+            pendingRegions.decrementAndGet();
+        }
+    }
+
+    private boolean buildRegion(int regionX, int regionY) {
+        final int cellX = (regionX - World.TILE_X_MIN) * GeoStructure.REGION_CELLS_X;
+        final int cellY = (regionY - World.TILE_Y_MIN) * GeoStructure.REGION_CELLS_Y;
+        if (!hasGeodata(cellX, cellY)) {
+            return false;
+        }
+
+        final long start = System.nanoTime();
+        for (int x = cellX; x < cellX + GeoStructure.REGION_CELLS_X; x += Cluster.SIZE) {
+            for (int y = cellY; y < cellY + GeoStructure.REGION_CELLS_Y; y += Cluster.SIZE) {
+                if (hasGeodata(x, y)) {
+                    clusters.putIfAbsent(clusterKey(x / Cluster.SIZE, y / Cluster.SIZE), Cluster.build(geo, x, y));
+                    built.increment();
+                }
+            }
+        }
+        LOGGER.debug("Built the path finding clusters of region {}_{} in {} ms.", regionX, regionY, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return true;
+    }
+
+    /**
+     * The blocks of a region are filled in order, the last cell of the cluster having geo means the whole cluster has.
+     */
+    private boolean hasGeodata(int originX, int originY) {
+        return geo.hasGeoPos(originX, originY) && geo.hasGeoPos(originX + Cluster.SIZE - 1, originY + Cluster.SIZE - 1);
+    }
+
+    /**
+     * Searches a path between the cells.
+     *
+     * @param gox : origin geo X
+     * @param goy : origin geo Y
+     * @param goz : origin Z
+     * @param gtx : target geo X
+     * @param gty : target geo Y
+     * @param gtz : target Z
+     * @param instance : the instance of the movement
+     * @return the locations where the direction changes, ending on the target, null when there is no path or {@link #UNAVAILABLE} when a cluster needed is not built yet
+     */
+    public List<Location> findPath(int gox, int goy, int goz, int gtx, int gty, int gtz, Instance instance) {
+        searches.increment();
+
+        final Cluster startCluster = getCluster(gox / Cluster.SIZE, goy / Cluster.SIZE);
+        final Cluster goalCluster = getCluster(gtx / Cluster.SIZE, gty / Cluster.SIZE);
+        if (isNull(startCluster) || isNull(goalCluster)) {
+            unavailable.increment();
+            return UNAVAILABLE;
+        }
+
+        final ClusterGrid startGrid = new ClusterGrid(geo, startCluster.getOriginX(), startCluster.getOriginY(), Cluster.SIZE);
+        final int start = startGrid.stateOf(gox, goy, goz);
+        if (start < 0) {
+            return null;
+        }
+
+        final int[] startParents = new int[startGrid.getStates()];
+        final int[] startCosts = startGrid.flood(start, startParents);
+        final long startLocation = pack(startGrid, start);
+
+        final ClusterGrid goalGrid;
+        final int goal;
+        if (goalCluster.getOriginX() == startCluster.getOriginX() && goalCluster.getOriginY() == startCluster.getOriginY()) {
+            goalGrid = startGrid;
+            goal = startGrid.stateOf(gtx, gty, gtz);
+            if (goal >= 0 && startCosts[goal] != ClusterGrid.UNREACHED) {
+                // when a door or a fence blocks the direct path, a path leaving the cluster may still exist
+                final long[] direct = startGrid.waypoints(goal, startParents, false);
+                if (!isBlocked(startLocation, direct, instance)) {
+                    return toLocations(Collections.singletonList(direct));
+                }
+            }
+        } else {
+            goalGrid = new ClusterGrid(geo, goalCluster.getOriginX(), goalCluster.getOriginY(), Cluster.SIZE);
+            goal = goalGrid.stateOf(gtx, gty, gtz);
+        }
+
+        if (goal < 0) {
+            return null;
+        }
+
+        final int[] goalParents = new int[goalGrid.getStates()];
+        final int[] goalCosts = goalGrid.floodReverse(goal, goalParents);
+
+        final Search search = new Search(gtx, gty, instance);
+
+        // connect the start to the entrances of its cluster
+        for (int node = 0; node < startCluster.getNodeCount(); node++) {
+            final long location = startCluster.getNode(node);
+            final int state = startGrid.stateOf(ClusterGrid.unpackX(location), ClusterGrid.unpackY(location), ClusterGrid.unpackZ(location));
+            if (state >= 0 && startCosts[state] != ClusterGrid.UNREACHED) {
+                final long[] segment = state == start ? new long[0] : startGrid.waypoints(state, startParents, false);
+                search.relax(null, startCluster, node, startLocation, segment, startCosts[state]);
+            }
+        }
+
+        int iterations = 0;
+        while (!search.open.isEmpty() && iterations++ < MAX_ITERATIONS) {
+            final Entry entry = search.open.poll();
+            final Visit visit = entry.visit;
+            if (visit.closed || entry.cost != visit.cost) {
+                // a cheaper entry of the visit was already taken
+                continue;
+            }
+            visit.closed = true;
+
+            if (visit.id == GOAL) {
+                return toLocations(visit.segments());
+            }
+
+            final Cluster cluster = visit.cluster;
+            final int node = visit.node;
+            final long location = cluster.getNode(node);
+
+            // leave the cluster to the goal
+            if (cluster.getOriginX() == goalCluster.getOriginX() && cluster.getOriginY() == goalCluster.getOriginY()) {
+                final int state = goalGrid.stateOf(ClusterGrid.unpackX(location), ClusterGrid.unpackY(location), ClusterGrid.unpackZ(location));
+                if (state >= 0 && goalCosts[state] != ClusterGrid.UNREACHED) {
+                    final long[] segment = state == goal ? new long[0] : goalGrid.waypoints(state, goalParents, true);
+                    search.relaxGoal(visit, location, segment, goalCosts[state]);
+                }
+            }
+
+            // paths inside the cluster
+            final int[] targets = cluster.getTargets(node);
+            final int[] costs = cluster.getCosts(node);
+            for (int edge = 0; edge < targets.length; edge++) {
+                search.relax(visit, cluster, targets[edge], location, cluster.getWaypoints(node, edge), visit.cost + costs[edge]);
+            }
+
+            // crossings to the neighbor clusters
+            final int x = ClusterGrid.unpackX(location);
+            final int y = ClusterGrid.unpackY(location);
+            for (int direction = 0; direction < CROSSING_X.length; direction++) {
+                final int nx = x + CROSSING_X[direction];
+                final int ny = y + CROSSING_Y[direction];
+                if (nx / Cluster.SIZE == x / Cluster.SIZE && ny / Cluster.SIZE == y / Cluster.SIZE) {
+                    continue;
+                }
+
+                final Cluster neighbor = getCluster(nx / Cluster.SIZE, ny / Cluster.SIZE);
+                if (isNull(neighbor)) {
+                    unavailable.increment();
+                    return UNAVAILABLE;
+                }
+
+                final int entrance = neighbor.findNode(nx, ny, ClusterGrid.unpackZ(location));
+                if (entrance >= 0) {
+                    search.relax(visit, neighbor, entrance, location, new long[] { neighbor.getNode(entrance) }, visit.cost + Cluster.CROSSING_COST);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The cost of the straight octile movement, never above the real cost of the path.
+     */
+    private static int heuristic(int x, int y, int tx, int ty) {
+        final int dx = Math.abs(x - tx);
+        final int dy = Math.abs(y - ty);
+        return (10 * Math.max(dx, dy)) + (4 * Math.min(dx, dy));
+    }
+
+    /**
+     * @return true when a door or a fence is on any movement of the segment
+     */
+    private static boolean isBlocked(long from, long[] segment, Instance instance) {
+        long previous = from;
+        for (long waypoint : segment) {
+            final int x = GeoEngine.getWorldX(ClusterGrid.unpackX(previous));
+            final int y = GeoEngine.getWorldY(ClusterGrid.unpackY(previous));
+            final int z = ClusterGrid.unpackZ(previous);
+            final int tx = GeoEngine.getWorldX(ClusterGrid.unpackX(waypoint));
+            final int ty = GeoEngine.getWorldY(ClusterGrid.unpackY(waypoint));
+            final int tz = ClusterGrid.unpackZ(waypoint);
+            if (DoorDataManager.getInstance().checkIfDoorsBetween(x, y, z, tx, ty, tz, instance, false) || FenceDataManager.getInstance().checkIfFenceBetween(x, y, z, tx, ty, tz, instance)) {
+                return true;
+            }
+            previous = waypoint;
+        }
+        return false;
+    }
+
+    private static long pack(ClusterGrid grid, int state) {
+        return ClusterGrid.pack(grid.getGeoX(state), grid.getGeoY(state), grid.getHeight(state));
+    }
+
+    private static long nodeId(Cluster cluster, int node) {
+        return ((long) clusterKey(cluster.getOriginX() / Cluster.SIZE, cluster.getOriginY() / Cluster.SIZE) << 16) | node;
+    }
+
+    private static int clusterKey(int clusterX, int clusterY) {
+        return (clusterX << 16) | clusterY;
+    }
+
+    private static int regionKey(int regionX, int regionY) {
+        return (regionX << 16) | regionY;
+    }
+
+    /**
+     * Converts the segments of the path to locations, keeping only the locations where the direction changes.
+     */
+    private static List<Location> toLocations(List<long[]> segments) {
+        final List<Long> points = new ArrayList<>();
+        for (long[] segment : segments) {
+            for (long point : segment) {
+                if (points.isEmpty() || points.get(points.size() - 1) != point) {
+                    points.add(point);
+                }
+            }
+        }
+
+        final LinkedList<Location> path = new LinkedList<>();
+        for (int i = 0; i < points.size(); i++) {
+            final long point = points.get(i);
+            if (i > 0 && i < points.size() - 1) {
+                final long previous = points.get(i - 1);
+                final long next = points.get(i + 1);
+                if (Integer.signum(ClusterGrid.unpackX(point) - ClusterGrid.unpackX(previous)) == Integer.signum(ClusterGrid.unpackX(next) - ClusterGrid.unpackX(point))
+                        && Integer.signum(ClusterGrid.unpackY(point) - ClusterGrid.unpackY(previous)) == Integer.signum(ClusterGrid.unpackY(next) - ClusterGrid.unpackY(point))) {
+                    continue;
+                }
+            }
+            path.add(new GeoLocation(ClusterGrid.unpackX(point), ClusterGrid.unpackY(point), ClusterGrid.unpackZ(point)));
+        }
+        return path;
+    }
+
+    /**
+     * @param clusterX : the cluster X
+     * @param clusterY : the cluster Y
+     * @return the cluster, an empty cluster when there is no geodata or null when the cluster is not built yet
+     */
+    private Cluster getCluster(int clusterX, int clusterY) {
+        final Cluster cluster = clusters.get(clusterKey(clusterX, clusterY));
+        if (nonNull(cluster)) {
+            return cluster;
+        }
+
+        // a cluster with any geodata is built once its region is loaded, a region loading on demand may have only a part of its blocks
+        final int originX = clusterX * Cluster.SIZE;
+        final int originY = clusterY * Cluster.SIZE;
+        return geo.hasGeoPos(originX, originY) || geo.hasGeoPos(originX + Cluster.SIZE - 1, originY + Cluster.SIZE - 1) ? null : Cluster.empty(originX, originY);
+    }
+
+    private Path geodataFile(int regionX, int regionY) {
+        return geodataPath.resolve(String.format(GeoFormat.L2D.getFilename(), regionX, regionY));
+    }
+
+    private Path cacheFile(int regionX, int regionY) {
+        return cachePath.resolve(regionX + "_" + regionY + ".hpa");
+    }
+
+    private boolean loadCache(int regionX, int regionY) {
+        final Path file = cacheFile(regionX, regionY);
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            final Path geodataFile = geodataFile(regionX, regionY);
+            if (input.readInt() != CACHE_MAGIC || input.readInt() != CACHE_VERSION || input.readLong() != Files.size(geodataFile) || input.readLong() != Files.getLastModifiedTime(geodataFile).toMillis()) {
+                LOGGER.info("Discarding the outdated path finding cache {}", file.getFileName());
+                return false;
+            }
+
+            final int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                final Cluster cluster = Cluster.read(input);
+                clusters.putIfAbsent(clusterKey(cluster.getOriginX() / Cluster.SIZE, cluster.getOriginY() / Cluster.SIZE), cluster);
+            }
+            loaded.add(count);
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("Could not read the path finding cache {}", file.getFileName(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Writes the clusters of the region to a temporary file, replacing the cache when complete so a crash never leaves a partial cache.
+     */
+    private void saveCache(int regionX, int regionY) {
+        final int offsetX = regionX - World.TILE_X_MIN;
+        final int offsetY = regionY - World.TILE_Y_MIN;
+        final List<Cluster> regionClusters = new ArrayList<>();
+        for (Cluster cluster : clusters.values()) {
+            if (cluster.getOriginX() / GeoStructure.REGION_CELLS_X == offsetX && cluster.getOriginY() / GeoStructure.REGION_CELLS_Y == offsetY) {
+                regionClusters.add(cluster);
+            }
+        }
+
+        final Path file = cacheFile(regionX, regionY);
+        final Path temporary = cacheFile(regionX, regionY).resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(cachePath);
+            try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                final Path geodataFile = geodataFile(regionX, regionY);
+                output.writeInt(CACHE_MAGIC);
+                output.writeInt(CACHE_VERSION);
+                output.writeLong(Files.size(geodataFile));
+                output.writeLong(Files.getLastModifiedTime(geodataFile).toMillis());
+                output.writeInt(regionClusters.size());
+                for (Cluster cluster : regionClusters) {
+                    cluster.write(output);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write the path finding cache {}", file.getFileName(), e);
+        }
+    }
+
+    public CharSequence getStats() {
+        final var stats = new StringBuilder("Hierarchical path finding\n");
+        stats.append("====\n");
+        stats.append("\tSearches: ").append(searches.sum()).append(", unavailable ").append(unavailable.sum()).append('\n');
+        stats.append("\tClusters: ").append(clusters.size()).append(", built ").append(built.sum()).append(", loaded from cache ").append(loaded.sum()).append('\n');
+        stats.append("\tRegions pending: ").append(pendingRegions.get()).append('\n');
+        return stats;
+    }
+
+    /**
+     * The state of a search on the graph of entrances.
+     * The open list entries are immutable, a visit improved later gets a new entry and the old one is skipped when polled.
+     */
+    private static final class Search {
+        private final Map<Long, Visit> visits = new HashMap<>();
+        private final PriorityQueue<Entry> open = new PriorityQueue<>(Comparator.comparingInt(Entry::getEstimate));
+        private final int gtx;
+        private final int gty;
+        private final Instance instance;
+
+        private Search(int gtx, int gty, Instance instance) {
+            this.gtx = gtx;
+            this.gty = gty;
+            this.instance = instance;
+        }
+
+        private void relax(Visit parent, Cluster cluster, int node, long from, long[] segment, int cost) {
+            final long id = nodeId(cluster, node);
+            Visit visit = visits.get(id);
+            if (nonNull(visit) && (visit.closed || visit.cost <= cost)) {
+                return;
+            }
+            if (isBlocked(from, segment, instance)) {
+                return;
+            }
+
+            if (isNull(visit)) {
+                visit = new Visit(id, cluster, node);
+                visits.put(id, visit);
+            }
+            visit.update(parent, segment, cost);
+            final long location = cluster.getNode(node);
+            open.add(new Entry(visit, cost, cost + heuristic(ClusterGrid.unpackX(location), ClusterGrid.unpackY(location), gtx, gty)));
+        }
+
+        private void relaxGoal(Visit parent, long from, long[] segment, int cost) {
+            final int total = parent.cost + cost;
+            Visit visit = visits.get(GOAL);
+            if (nonNull(visit) && visit.cost <= total) {
+                return;
+            }
+            if (isBlocked(from, segment, instance)) {
+                return;
+            }
+
+            if (isNull(visit)) {
+                visit = new Visit(GOAL, null, -1);
+                visits.put(GOAL, visit);
+            }
+            visit.update(parent, segment, total);
+            open.add(new Entry(visit, total, total));
+        }
+    }
+
+    private static final class Entry {
+        private final Visit visit;
+        private final int cost;
+        private final int estimate;
+
+        private Entry(Visit visit, int cost, int estimate) {
+            this.visit = visit;
+            this.cost = cost;
+            this.estimate = estimate;
+        }
+
+        private int getEstimate() {
+            return estimate;
+        }
+    }
+
+    /**
+     * A node reached by the search, with the movement from its parent.
+     */
+    private static final class Visit {
+        private final long id;
+        private final Cluster cluster;
+        private final int node;
+        private Visit parent;
+        private long[] segment;
+        private int cost;
+        private boolean closed;
+
+        private Visit(long id, Cluster cluster, int node) {
+            this.id = id;
+            this.cluster = cluster;
+            this.node = node;
+        }
+
+        private void update(Visit parent, long[] segment, int cost) {
+            this.parent = parent;
+            this.segment = segment;
+            this.cost = cost;
+        }
+
+        private List<long[]> segments() {
+            final LinkedList<long[]> segments = new LinkedList<>();
+            for (Visit visit = this; nonNull(visit); visit = visit.parent) {
+                segments.addFirst(visit.segment);
+            }
+            return segments;
+        }
+    }
+}
@@ -30,8 +30,8 @@ public class Node {
 
     // node parent (for reverse path construction)
     private Node _parent;
-    // node child (for moving over nodes during iteration)
-    private Node _child;
+    // node insertion order (for keeping the nodes of same cost in order on the open list)
+    private int _order;
 
     // node G cost (movement cost = parent movement cost + current movement cost)
     private double _cost = -1000;
@@ -52,12 +52,12 @@ public class Node {
         _parent = parent;
     }
 
-    public Node getChild() {
-        return _child;
+    public int getOrder() {
+        return _order;
     }
 
-    public void setChild(Node child) {
-        _child = child;
+    public void setOrder(int order) {
+        _order = order;
     }
 
     public double getCost() {
@@ -72,9 +72,9 @@ public class Node {
         // reset node location
         _loc = null;
 
-        // reset node parent, child and cost
+        // reset node parent, order and cost
         _parent = null;
-        _child = null;
+        _order = 0;
         _cost = -1000;
     }
 }
\ No newline at end of file
@@ -19,9 +19,8 @@
 package org.l2j.gameserver.engine.geo.pathfinding;
 
 import org.l2j.gameserver.engine.geo.geodata.GeoStructure;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -30,18 +29,26 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 public class NodeBuffer {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(NodeBuffer.class);
-
     private static final int BASE_WEIGHT = 10;
     private static final int DIAGONAL_WEIGHT = 14;
     private static final int HEURISTIC_WEIGHT = 20;
     private static final int OBSTACLE_MULTIPLIER = 10;
     private static final int MAX_ITERATIONS = 3500;
+    private static final int INITIAL_CAPACITY = 1024;
 
     private final ReentrantLock _lock = new ReentrantLock();
     private final int _size;
     private final Node[][] _buffer;
 
+    // open list, binary min heap ordered by cost and insertion order
+    private Node[] _open = new Node[INITIAL_CAPACITY];
+    private int _openSize = 0;
+    private int _order = 0;
+
+    // nodes with location, reset when the buffer is freed
+    private Node[] _touched = new Node[INITIAL_CAPACITY];
+    private int _touchedSize = 0;
+
     // center coordinates
     private int _cx = 0;
     private int _cy = 0;
@@ -62,13 +69,15 @@ public class NodeBuffer {
         // set size
         _size = size;
 
-        // initialize buffer
+        // initialize buffer, the nodes are created on first use
         _buffer = new Node[size][size];
-        for (int x = 0; x < size; x++) {
-            for (int y = 0; y < size; y++) {
-                _buffer[x][y] = new Node();
-            }
-        }
+    }
+
+    /**
+     * @return int : one dimension size of buffer
+     */
+    public final int getSize() {
+        return _size;
     }
 
     /**
@@ -93,6 +102,9 @@ public class NodeBuffer {
         _gtz = gtz;
 
         _current = getNode(gox, goy, goz);
+        if (_current == null) {
+            return null;
+        }
         _current.setCost(getCostH(gox, goy, goz));
 
         int count = 0;
@@ -105,8 +117,8 @@ public class NodeBuffer {
             // expand current node
             expand();
 
-            // move pointer
-            _current = _current.getChild();
+            // move pointer to the cheapest open node
+            _current = poll();
         }
         while ((_current != null) && (++count < MAX_ITERATIONS));
 
@@ -120,13 +132,16 @@ public class NodeBuffer {
     public final void free() {
         _current = null;
 
-        for (Node[] nodes : _buffer) {
-            for (Node node : nodes) {
-                if (node.getLoc() != null) {
-                    node.free();
-                }
-            }
+        // only the nodes touched by the last search have to be reset
+        for (int i = 0; i < _touchedSize; i++) {
+            _touched[i].free();
+            _touched[i] = null;
         }
+        _touchedSize = 0;
+
+        Arrays.fill(_open, 0, _openSize, null);
+        _openSize = 0;
+        _order = 0;
 
         _lock.unlock();
     }
@@ -210,10 +225,18 @@ public class NodeBuffer {
 
         // get node
         Node result = _buffer[ix][iy];
+        if (result == null) {
+            result = new Node();
+            _buffer[ix][iy] = result;
+        }
 
         // check and update
         if (result.getLoc() == null) {
             result.setLoc(x, y, z);
+            if (_touchedSize == _touched.length) {
+                _touched = Arrays.copyOf(_touched, _touchedSize * 2);
+            }
+            _touched[_touchedSize++] = result;
         }
 
         // return node
@@ -252,22 +275,74 @@ public class NodeBuffer {
             node.setCost(getCostH(x, y, node.getLoc().getZ()) + weight);
         }
 
-        Node current = _current;
-        int count = 0;
-        while ((current.getChild() != null) && (count < (MAX_ITERATIONS * 4))) {
-            count++;
-            if (current.getChild().getCost() > node.getCost()) {
-                node.setChild(current.getChild());
+        node.setOrder(++_order);
+        offer(node);
+    }
+
+    /**
+     * Adds the node to the open list.
+     *
+     * @param node : the node
+     */
+    private void offer(Node node) {
+        if (_openSize == _open.length) {
+            _open = Arrays.copyOf(_open, _openSize * 2);
+        }
+
+        // sift up
+        int index = _openSize++;
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            if (!isBefore(node, _open[parent])) {
                 break;
             }
-            current = current.getChild();
+            _open[index] = _open[parent];
+            index = parent;
         }
+        _open[index] = node;
+    }
 
-        if (count >= (MAX_ITERATIONS * 4)) {
-            LOGGER.warn("Too long loop detected, cost: {}", node.getCost());
+    /**
+     * Removes the cheapest node of the open list.
+     *
+     * @return Node : the cheapest node or null if the open list is empty
+     */
+    private Node poll() {
+        if (_openSize == 0) {
+            return null;
         }
 
-        current.setChild(node);
+        final Node result = _open[0];
+        final Node last = _open[--_openSize];
+        _open[_openSize] = null;
+
+        if (_openSize > 0) {
+            // sift down
+            int index = 0;
+            final int half = _openSize >>> 1;
+            while (index < half) {
+                int child = (index << 1) + 1;
+                final int right = child + 1;
+                if ((right < _openSize) && isBefore(_open[right], _open[child])) {
+                    child = right;
+                }
+                if (!isBefore(_open[child], last)) {
+                    break;
+                }
+                _open[index] = _open[child];
+                index = child;
+            }
+            _open[index] = last;
+        }
+        return result;
+    }
+
+    /**
+     * The nodes of same cost are kept in insertion order, as the former sorted open list did.
+     */
+    private static boolean isBefore(Node node, Node other) {
+        final int compare = Double.compare(node.getCost(), other.getCost());
+        return compare < 0 || (compare == 0 && node.getOrder() < other.getOrder());
     }
 
     /**
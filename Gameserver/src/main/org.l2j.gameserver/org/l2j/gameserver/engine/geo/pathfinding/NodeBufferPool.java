@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.engine.geo.pathfinding;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Elastic pool of {@link NodeBuffer}s grouped by size.
+ *
+ * Each size keeps its idle buffers on a queue. When there is no idle buffer a new one is created,
+ * up to the capacity of the size, which scales with the available processors. After that the requests wait for a buffer to be released
+ * or, when they can't wait, use a temporary buffer.
+ *
+ * @author JoeAlisson
+ */
+public final class NodeBufferPool {
+
+    private final SizePool[] pools;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder unavailable = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder temporaries = new LongAdder();
+    private final LongAdder waitTime = new LongAdder();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    /**
+     * @param processors : the amount of threads expected to search paths at the same time
+     */
+    public NodeBufferPool(int processors) {
+        pools = new SizePool[] {
+            new SizePool(100, 6, processors),
+            new SizePool(128, 6, processors),
+            new SizePool(192, 6, processors),
+            new SizePool(256, 4, processors),
+            new SizePool(320, 4, processors),
+            new SizePool(384, 4, processors),
+            new SizePool(500, 2, processors)
+        };
+    }
+
+    /**
+     * Takes a locked buffer of at least the given size.<br>
+     * An idle buffer of any fitting size is preferred, then a new buffer of the smallest fitting size is created
+     * and only then the request waits for a buffer of the smallest fitting size.
+     *
+     * @param size : pre-calculated minimal required size
+     * @param timeout : maximum time to wait in milliseconds, zero to not wait
+     * @return NodeBuffer : the buffer or null when there is no buffer large enough or the wait timed out
+     */
+    public NodeBuffer acquire(int size, long timeout) {
+        int first = -1;
+        for (int i = 0; i < pools.length; i++) {
+            if (pools[i].size < size) {
+                continue;
+            }
+
+            if (first < 0) {
+                first = i;
+            }
+
+            final NodeBuffer buffer = pools[i].idle.poll();
+            if (nonNull(buffer)) {
+                hits.increment();
+                return lock(buffer);
+            }
+        }
+
+        if (first < 0) {
+            return null;
+        }
+
+        final SizePool pool = pools[first];
+        if (pool.tryCreate()) {
+            misses.increment();
+            return lock(new NodeBuffer(pool.size));
+        }
+
+        if (timeout <= 0) {
+            unavailable.increment();
+            return null;
+        }
+
+        waits.increment();
+        final long start = System.nanoTime();
+        try {
+            final NodeBuffer buffer = pool.idle.poll(timeout, TimeUnit.MILLISECONDS);
+            if (nonNull(buffer)) {
+                return lock(buffer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            final long waited = System.nanoTime() - start;
+            waitTime.add(waited);
+            maxWaitTime.accumulateAndGet(waited, Math::max);
+        }
+
+        timeouts.increment();
+        return null;
+    }
+
+    /**
+     * Creates a locked temporary buffer of the smallest fitting size, used when the caller can't wait for a pooled one.<br>
+     * The temporary buffer doesn't belong to the pool and must be given back with {@link #release(NodeBuffer, boolean)}.
+     *
+     * @param size : pre-calculated minimal required size
+     * @return NodeBuffer : the temporary buffer or null when there is no buffer large enough
+     */
+    public NodeBuffer allocate(int size) {
+        for (SizePool pool : pools) {
+            if (pool.size >= size) {
+                temporaries.increment();
+                return lock(new NodeBuffer(pool.size));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param size : pre-calculated minimal required size
+     * @return true if there are buffers of at least the given size
+     */
+    public boolean fits(int size) {
+        return pools[pools.length - 1].size >= size;
+    }
+
+    private static NodeBuffer lock(NodeBuffer buffer) {
+        buffer.isLocked();
+        return buffer;
+    }
+
+    /**
+     * Frees the buffer and gives it back to the pool.<br>
+     * Must be called by the thread that acquired the buffer.
+     *
+     * @param buffer : the buffer
+     */
+    public void release(NodeBuffer buffer) {
+        release(buffer, false);
+    }
+
+    /**
+     * Frees the buffer and gives it back to the pool, unless it is a temporary one.<br>
+     * Must be called by the thread that acquired the buffer.
+     *
+     * @param buffer : the buffer
+     * @param temporary : true if the buffer was created by {@link #allocate(int)}
+     */
+    public void release(NodeBuffer buffer, boolean temporary) {
+        buffer.free();
+        if (temporary) {
+            return;
+        }
+
+        for (SizePool pool : pools) {
+            if (pool.size == buffer.getSize()) {
+                pool.idle.offer(buffer);
+                return;
+            }
+        }
+    }
+
+    public CharSequence getStats() {
+        final var stats = new StringBuilder("NodeBufferPool\n");
+        stats.append("=================================================\n");
+        for (SizePool pool : pools) {
+            stats.append("\tSize ").append(pool.size).append(": created ").append(pool.created.get()).append('/').append(pool.capacity)
+                    .append(", idle ").append(pool.idle.size()).append('\n');
+        }
+        stats.append("\tHits: ").append(hits.sum()).append('\n');
+        stats.append("\tMisses: ").append(misses.sum()).append('\n');
+        stats.append("\tWaits: ").append(waits.sum()).append(", total ").append(TimeUnit.NANOSECONDS.toMillis(waitTime.sum()))
+                .append(" ms, max ").append(TimeUnit.NANOSECONDS.toMillis(maxWaitTime.get())).append(" ms\n");
+        stats.append("\tUnavailable without waiting: ").append(unavailable.sum()).append('\n');
+        stats.append("\tTimeouts: ").append(timeouts.sum()).append('\n');
+        stats.append("\tTemporary buffers: ").append(temporaries.sum()).append('\n');
+        return stats;
+    }
+
+    private static final class SizePool {
+        private final int size;
+        private final int capacity;
+        private final BlockingQueue<NodeBuffer> idle;
+        private final AtomicInteger created = new AtomicInteger();
+
+        private SizePool(int size, int count, int processors) {
+            this.size = size;
+            capacity = Math.max(count, processors);
+            idle = new ArrayBlockingQueue<>(capacity);
+            for (int i = 0; i < count; i++) {
+                idle.offer(new NodeBuffer(size));
+            }
+            created.set(count);
+        }
+
+        private boolean tryCreate() {
+            int current;
+            do {
+                current = created.get();
+                if (current >= capacity) {
+                    return false;
+                }
+            } while (!created.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+}
@@ -20,6 +20,8 @@ package org.l2j.gameserver.engine.geo.settings;
 
 import org.l2j.commons.configuration.Settings;
 import org.l2j.commons.configuration.SettingsFile;
+import org.l2j.gameserver.engine.geo.GeoStorage;
+import org.l2j.gameserver.engine.geo.PathFindingStrategy;
 import org.l2j.gameserver.engine.geo.SyncMode;
 
 /**
@@ -29,11 +31,22 @@ public class GeoEngineSettings implements Settings {
 
     private SyncMode syncMode;
     private boolean enabledPathFinding;
+    private PathFindingStrategy pathFindingStrategy;
+    private GeoStorage storage;
+    private boolean lazyLoading;
+    private int loadThreads;
 
     @Override
     public void load(SettingsFile settingsFile) {
         syncMode = settingsFile.getEnum("SyncMode", SyncMode.class, SyncMode.Z_ONLY);
         enabledPathFinding = settingsFile.getBoolean("EnablePathFinding", true);
+        pathFindingStrategy = settingsFile.getEnum("PathFindingStrategy", PathFindingStrategy.class, PathFindingStrategy.NODE_BUFFER);
+        storage = settingsFile.getEnum("Storage", GeoStorage.class, GeoStorage.HEAP);
+        lazyLoading = settingsFile.getBoolean("LazyLoading", false);
+        loadThreads = settingsFile.getInteger("LoadThreads", 0);
+        if (loadThreads <= 0) {
+            loadThreads = Runtime.getRuntime().availableProcessors();
+        }
     }
 
     public boolean isEnabledPathFinding() {
@@ -44,6 +57,10 @@ public class GeoEngineSettings implements Settings {
         this.enabledPathFinding = enabledPathFinding;
     }
 
+    public PathFindingStrategy getPathFindingStrategy() {
+        return pathFindingStrategy;
+    }
+
     public void setSyncMode(SyncMode syncMode) {
         this.syncMode = syncMode;
     }
@@ -51,4 +68,16 @@ public class GeoEngineSettings implements Settings {
     public boolean isSyncMode(SyncMode mode) {
         return syncMode == mode;
     }
+
+    public GeoStorage getStorage() {
+        return storage;
+    }
+
+    public boolean isLazyLoading() {
+        return lazyLoading;
+    }
+
+    public int getLoadThreads() {
+        return loadThreads;
+    }
 }
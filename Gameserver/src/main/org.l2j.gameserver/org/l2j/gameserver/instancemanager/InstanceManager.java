@@ -43,6 +43,7 @@ import org.l2j.gameserver.model.instancezone.conditions.Condition;
 import org.l2j.gameserver.model.spawns.SpawnTemplate;
 import org.l2j.gameserver.settings.ServerSettings;
 import org.l2j.gameserver.util.GameXmlReader;
+import org.l2j.gameserver.world.World;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -384,6 +385,7 @@ public final class InstanceManager extends GameXmlReader {
         final int instanceId = instance.getId();
         if (!instanceWorlds.containsKey(instanceId)) {
             instanceWorlds.put(instanceId, instance);
+            World.getInstance().addInstanceRegions(instance);
         }
     }
 
@@ -396,6 +398,7 @@ public final class InstanceManager extends GameXmlReader {
     public void unregister(int instanceId) {
         if (instanceWorlds.containsKey(instanceId)) {
             instanceWorlds.remove(instanceId);
+            World.getInstance().removeInstanceRegions(instanceId);
         }
     }
 
@@ -871,10 +871,11 @@ public class Clan implements IIdentifiable, INamable {
     }
 
     public void broadcastToOnlineMembers(ServerPacket packet) {
-        onlineMembersStream().forEach(packet::sendTo);
+        onlineMembersStream().forEach(packet.forBroadcast()::sendTo);
     }
 
     public void broadcastCSToOnlineMembers(CreatureSay packet, Player broadcaster) {
+        packet.forBroadcast();
         for (ClanMember member : members.values()) {
             if ((member != null) && member.isOnline() && !BlockList.isBlocked(member.getPlayerInstance(), broadcaster)) {
                 member.getPlayerInstance().sendPacket(packet);
@@ -883,6 +884,7 @@ public class Clan implements IIdentifiable, INamable {
     }
 
     public void broadcastToOtherOnlineMembers(ServerPacket packet, Player player) {
+        packet.forBroadcast();
         for (ClanMember member : members.values()) {
             if ((member != null) && member.isOnline() && (member.getPlayerInstance() != player)) {
                 member.getPlayerInstance().sendPacket(packet);
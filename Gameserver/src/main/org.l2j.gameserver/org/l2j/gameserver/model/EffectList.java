@@ -1067,8 +1067,8 @@ public final class EffectList {
             hiddenBuffs.decrementAndGet();
         });
 
-        // Recalculate all stats
-        owner.getStats().recalculateStats(broadcast);
+        // Recalculate the stats, applying the pure buff changes as deltas
+        owner.getStats().recalculateEffectStats(broadcast);
 
         if (broadcast) {
             // Check if there is change in AbnormalVisualEffect
@@ -18,6 +18,8 @@
  */
 package org.l2j.gameserver.model;
 
+import io.github.joealisson.primitive.CHashIntMap;
+import io.github.joealisson.primitive.IntSet;
 import org.l2j.gameserver.enums.InstanceType;
 import org.l2j.gameserver.handler.ActionHandler;
 import org.l2j.gameserver.handler.ActionShiftHandler;
@@ -41,6 +43,7 @@ import org.l2j.gameserver.world.zone.ZoneType;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Objects.nonNull;
 import static org.l2j.commons.util.Util.zeroIfNullOrElse;
@@ -54,11 +57,13 @@ public abstract class WorldObject extends ListenersContainer implements IIdentif
 
     protected int objectId;
 
-    private WorldRegion worldRegion;
+    private volatile WorldRegion worldRegion;
+    private final AtomicInteger regionSwitchRequests = new AtomicInteger();
 
     private InstanceType instanceType;
 
     private volatile Map<String, Object> scripts;
+    private volatile IntSet knownPlayers;
 
     private volatile int x = 0;
 
@@ -159,8 +164,10 @@ public abstract class WorldObject extends ListenersContainer implements IIdentif
             // Add the WorldObject spawn in the _allobjects of World
             World.getInstance().addObject(this);
 
-            // Add the WorldObject spawn to _visibleObjects and if necessary to _allplayers of its WorldRegion
-            worldRegion.addVisibleObject(this);
+            // Add the WorldObject spawn to _visibleObjects and if necessary to _allplayers of its WorldRegion, there is no region on a destroyed instance
+            if (nonNull(worldRegion)) {
+                worldRegion.addVisibleObject(this);
+            }
         }
 
         // this can synchronize on others instances, so it's out of synchronized, to avoid deadlocks
@@ -314,6 +321,24 @@ public abstract class WorldObject extends ListenersContainer implements IIdentif
         return (T) scripts.get(script.getName());
     }
 
+    /**
+     * The ids of the players in the surrounding regions of this object.
+     * Only maintained by {@link World} when the known players tracking is enabled.
+     *
+     * @return the known players ids
+     */
+    public final IntSet getKnownPlayers() {
+        if (knownPlayers == null) {
+            // Double-checked locking
+            synchronized (this) {
+                if (knownPlayers == null) {
+                    knownPlayers = CHashIntMap.newKeySet();
+                }
+            }
+        }
+        return knownPlayers;
+    }
+
     public void removeStatusListener(Creature object) {
 
     }
@@ -335,6 +360,23 @@ public abstract class WorldObject extends ListenersContainer implements IIdentif
         worldRegion = value;
     }
 
+    /**
+     * Requests a check of the object's region.
+     *
+     * @return true if the caller must do the check, false if another thread is doing it and will check again
+     */
+    public boolean requestRegionSwitch() {
+        return regionSwitchRequests.getAndIncrement() == 0;
+    }
+
+    /**
+     * @param handled the amount of requests handled by the caller
+     * @return the amount of requests made while the caller was checking, the caller must check again if any
+     */
+    public int completeRegionSwitch(int handled) {
+        return regionSwitchRequests.addAndGet(-handled);
+    }
+
     /**
      * Gets the X coordinate.
      *
@@ -511,6 +553,11 @@ public abstract class WorldObject extends ListenersContainer implements IIdentif
         if (newInstance != null) {
             newInstance.onInstanceChange(this, true);
         }
+
+        // Each instance world has its own regions
+        if (spawned && nonNull(worldRegion)) {
+            World.getInstance().switchRegionIfNeed(this);
+        }
     }
 
     /**
@@ -46,6 +46,7 @@ import org.l2j.gameserver.model.actor.tasks.attackable.CommandChannelTimer;
 import org.l2j.gameserver.model.actor.templates.NpcTemplate;
 import org.l2j.gameserver.model.entity.Hero;
 import org.l2j.gameserver.model.events.EventDispatcher;
+import org.l2j.gameserver.model.events.EventType;
 import org.l2j.gameserver.model.events.impl.character.npc.OnAttackableAggroRangeEnter;
 import org.l2j.gameserver.model.events.impl.character.npc.OnAttackableAttack;
 import org.l2j.gameserver.model.events.impl.character.npc.OnAttackableKill;
@@ -277,7 +278,9 @@ public class Attackable extends Npc {
 
         if (nonNull(killer.getActingPlayer())) {
             // Delayed notification
-            EventDispatcher.getInstance().notifyEventAsync(new OnAttackableKill(killer.getActingPlayer(), this, GameUtils.isSummon(killer), payload), this);
+            if (EventDispatcher.getInstance().hasListener(EventType.ON_ATTACKABLE_KILL, this)) {
+                EventDispatcher.getInstance().notifyEventAsync(new OnAttackableKill(killer.getActingPlayer(), this, GameUtils.isSummon(killer), payload), this);
+            }
         }
 
         // Notify to minions if there are.
@@ -607,7 +610,9 @@ public class Attackable extends Npc {
 
                 final Player player = attacker.getActingPlayer();
                 if (player != null) {
-                    EventDispatcher.getInstance().notifyEventAsync(new OnAttackableAttack(player, this, damage, skill, GameUtils.isSummon(attacker)), this);
+                    if (EventDispatcher.getInstance().hasListener(EventType.ON_ATTACKABLE_ATTACK, this)) {
+                        EventDispatcher.getInstance().notifyEventAsync(new OnAttackableAttack(player, this, damage, skill, GameUtils.isSummon(attacker)), this);
+                    }
                 }
             } catch (Exception e) {
                 LOGGER.error("", e);
@@ -640,7 +645,9 @@ public class Attackable extends Npc {
 
         if(targetPlayer != null && ai.getHate() == 0 && !targetPlayer.isInvisible()) {
             // Notify to scripts
-            EventDispatcher.getInstance().notifyEventAsync(new OnAttackableAggroRangeEnter(this, targetPlayer, GameUtils.isSummon(attacker)), this);
+            if (EventDispatcher.getInstance().hasListener(EventType.ON_ATTACKABLE_AGGRO_RANGE_ENTER, this)) {
+                EventDispatcher.getInstance().notifyEventAsync(new OnAttackableAggroRangeEnter(this, targetPlayer, GameUtils.isSummon(attacker)), this);
+            }
         }
 
         // traps does not cause aggro
@@ -1224,6 +1231,9 @@ public class Attackable extends Npc {
             }
         }
 
+        // The champion multipliers are applied by the stat finalizers
+        getStats().invalidateFinalValues();
+
         // Start a new AI task
         AttackableThinkTaskManager.getInstance().add(this);
 
@@ -1445,6 +1455,7 @@ public class Attackable extends Npc {
      */
     public void setIsRaid(boolean isRaid) {
         _isRaid = isRaid;
+        getStats().invalidateFinalValues();
     }
 
     /**
@@ -1455,6 +1466,7 @@ public class Attackable extends Npc {
     public void setIsRaidMinion(boolean val) {
         _isRaid = val;
         _isRaidMinion = val;
+        getStats().invalidateFinalValues();
     }
 
     @Override
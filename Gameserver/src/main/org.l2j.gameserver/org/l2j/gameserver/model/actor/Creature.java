@@ -19,7 +19,6 @@
 package org.l2j.gameserver.model.actor;
 
 import org.l2j.commons.threading.ThreadPool;
-import org.l2j.commons.util.EmptyQueue;
 import org.l2j.commons.util.Rnd;
 import org.l2j.gameserver.Config;
 import org.l2j.gameserver.ai.AttackableAI;
@@ -52,8 +51,11 @@ import org.l2j.gameserver.model.effects.EffectFlag;
 import org.l2j.gameserver.model.events.EventDispatcher;
 import org.l2j.gameserver.model.events.EventType;
 import org.l2j.gameserver.model.events.Listeners;
+import org.l2j.gameserver.model.events.ListenersContainer;
+import org.l2j.gameserver.model.events.impl.IBaseEvent;
 import org.l2j.gameserver.model.events.impl.character.*;
 import org.l2j.gameserver.model.events.listeners.AbstractEventListener;
+import org.l2j.gameserver.model.events.returns.AbstractEventReturn;
 import org.l2j.gameserver.model.events.returns.DamageReturn;
 import org.l2j.gameserver.model.events.returns.LocationReturn;
 import org.l2j.gameserver.model.events.returns.TerminateReturn;
@@ -153,6 +155,10 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
      * Movement data of this Creature
      */
     protected MoveData _move;
+    /**
+     * The movement waiting for a queued path, dropped by any other movement.
+     */
+    private volatile DeferredMove _deferredMove;
     /**
      * Future Skill Cast
      */
@@ -386,12 +392,14 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
         }
 
         _transform = Optional.of(transformation);
+        stats.invalidateFinalValues();
         transformation.onTransform(this, addSkills);
     }
 
     public void untransform() {
         _transform.ifPresent(t -> t.onUntransform(this));
         _transform = Optional.empty();
+        stats.invalidateFinalValues();
     }
 
     public Optional<Transform> getTransformation() {
@@ -490,7 +498,9 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
         setSpawned(true);
         World.getInstance().switchRegionIfNeed(this);
         setIsTeleporting(false);
-        EventDispatcher.getInstance().notifyEventAsync(new OnCreatureTeleported(this), this);
+        if (EventDispatcher.getInstance().hasListener(EventType.ON_CREATURE_TELEPORTED, this)) {
+            EventDispatcher.getInstance().notifyEventAsync(new OnCreatureTeleported(this), this);
+        }
     }
 
     /**
@@ -511,6 +521,7 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
      * @param mov
      */
     public void broadcastPacket(ServerPacket mov) {
+        mov.forBroadcast();
         World.getInstance().forEachVisibleObject(this, Player.class, player ->
         {
             if (isVisibleFor(player)) {
@@ -529,6 +540,7 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
      * @param radiusInKnownlist
      */
     public void broadcastPacket(ServerPacket mov, int radiusInKnownlist) {
+        mov.forBroadcast();
         World.getInstance().forEachVisibleObjectInRange(this, Player.class, radiusInKnownlist, player ->
         {
             if (isVisibleFor(player)) {
@@ -1245,7 +1257,7 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
                 return false;
             }
 
-            final TerminateReturn returnBack = EventDispatcher.getInstance().notifyEvent(new OnCreatureDeath(killer, this), this, TerminateReturn.class);
+            final TerminateReturn returnBack = EventDispatcher.getInstance().hasListener(EventType.ON_CREATURE_DEATH, this) ? EventDispatcher.getInstance().notifyEvent(new OnCreatureDeath(killer, this), this, TerminateReturn.class) : null;
             if (nonNull(returnBack) && returnBack.terminate()) {
                 return false;
             }
@@ -1263,7 +1275,9 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
             getAI().notifyEvent(CtrlEvent.EVT_DEAD);
         }
 
-        EventDispatcher.getInstance().notifyEvent(new OnCreatureKilled(killer, this), killer);
+        if (EventDispatcher.getInstance().hasListener(EventType.ON_CREATURE_KILLED, killer)) {
+            EventDispatcher.getInstance().notifyEvent(new OnCreatureKilled(killer, this), killer);
+        }
 
         // Stop HP/MP/CP Regeneration task
         _status.stopHpMpRegeneration();
@@ -1760,6 +1774,9 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
      */
     protected final void setTemplate(CreatureTemplate template) {
         _template = template;
+        if (nonNull(stats)) {
+            stats.invalidateFinalValues();
+        }
     }
 
     /**
@@ -2469,6 +2486,7 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
     public void stopMove(Location loc) {
         // Delete movement data of the Creature
         _move = null;
+        _deferredMove = null;
         _cursorKeyMovement = false;
 
         // All data are contained in a Location object
@@ -2563,6 +2581,16 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
      * @param offset The size of the interaction area of the Creature targeted
      */
     public void moveToLocation(int x, int y, int z, int offset) {
+        // A movement to another destination supersedes the one waiting for a path, a completed one is consumed now
+        final DeferredMove deferredMove = _deferredMove;
+        if (nonNull(deferredMove) && (deferredMove.completed || !deferredMove.isRequestTo(x, y))) {
+            _deferredMove = null;
+        }
+        final int requestedX = x;
+        final int requestedY = y;
+        final int requestedZ = z;
+        final int requestedOffset = offset;
+
         // Get the Move Speed of the L2Charcater
         final double speed = stats.getMoveSpeed();
         if ((speed <= 0) || isMovementDisabled()) {
@@ -2701,7 +2729,29 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
                 // Pathfinding checks.
                 if (((originalDistance - distance) > 30) && !isControlBlocked() && !isInVehicle) {
                     // Path calculation -- overrides previous movement check
-                    m.geoPath = GeoEngine.getInstance().findPath(curX, curY, curZ, originalX, originalY, originalZ, getInstanceWorld());
+                    final int gox = (curX - World.MAP_MIN_X) >> 4;
+                    final int goy = (curY - World.MAP_MIN_Y) >> 4;
+                    if (nonNull(deferredMove) && deferredMove.isPath(gox, goy, gtx, gty)) {
+                        m.geoPath = deferredMove.path;
+                    } else if (nonNull(deferredMove) && (_deferredMove == deferredMove)) {
+                        // the path to this destination is still being searched
+                        return;
+                    } else {
+                        // a path found from another position is searched again from here
+                        final DeferredMove request = new DeferredMove(requestedX, requestedY, requestedZ, requestedOffset, gox, goy, gtx, gty);
+                        _deferredMove = request;
+                        m.geoPath = GeoEngine.getInstance().findPath(curX, curY, curZ, originalX, originalY, originalZ, getInstanceWorld(), path -> onDeferredPath(request, path));
+                        if (m.geoPath == GeoEngine.PATH_DEFERRED) {
+                            // no path buffer available, the creature waits here and the movement starts when the path arrives
+                            _move = null;
+                            return;
+                        }
+
+                        if (_deferredMove == request) {
+                            _deferredMove = null;
+                        }
+                    }
+
                     if ((m.geoPath == null) || (m.geoPath.size() < 2)) // No path found
                     {
                         m.disregardingGeodata = true;
@@ -2782,6 +2832,25 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
         // the CtrlEvent.EVT_ARRIVED will be sent when the character will actually arrive to destination by GameTimeController
     }
 
+    private void onDeferredPath(DeferredMove request, List<Location> path) {
+        if (_deferredMove != request) {
+            return;
+        }
+
+        request.path = path;
+        request.completed = true;
+        ThreadPool.execute(() -> {
+            if (_deferredMove == request) {
+                moveToLocation(request.x, request.y, request.z, request.offset);
+
+                // the AI broadcast the movement when it was deferred, so the clients must be notified now
+                if (isMoving()) {
+                    broadcastPacket(new MoveToLocation(this));
+                }
+            }
+        });
+    }
+
     public boolean moveToNextRoutePoint() {
         if (!isOnGeodataPath()) {
             // Cancel the move action
@@ -3013,8 +3082,12 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
         doAttack(hit.getDamage(), target, null, false, false, hit.isCritical(), false);
 
         // Notify to scripts when the attack has been done.
-        EventDispatcher.getInstance().notifyEvent(new OnCreatureAttack(this, target, null), this);
-        EventDispatcher.getInstance().notifyEvent(new OnCreatureAttacked(this, target, null), target);
+        if (EventDispatcher.getInstance().hasListener(EventType.ON_CREATURE_ATTACK, this)) {
+            EventDispatcher.getInstance().notifyEvent(new OnCreatureAttack(this, target, null), this);
+        }
+        if (EventDispatcher.getInstance().hasListener(EventType.ON_CREATURE_ATTACKED, target)) {
+            EventDispatcher.getInstance().notifyEvent(new OnCreatureAttacked(this, target, null), target);
+        }
 
         if (_triggerSkills != null) {
             for (OptionsSkillHolder holder : _triggerSkills.values()) {
@@ -3598,7 +3671,7 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
     }
 
     public void reduceCurrentHp(double value, Creature attacker, Skill skill, boolean isDOT, boolean directlyToHp, boolean critical, boolean reflect, DamageType damageType) {
-        final var damageReturn = EventDispatcher.getInstance().notifyEvent(new OnCreatureDamageReceived(attacker, this, value, skill, critical, isDOT, reflect), this, DamageReturn.class);
+        final var damageReturn = EventDispatcher.getInstance().hasListener(EventType.ON_CREATURE_DAMAGE_RECEIVED, this) ? EventDispatcher.getInstance().notifyEvent(new OnCreatureDamageReceived(attacker, this, value, skill, critical, isDOT, reflect), this, DamageReturn.class) : null;
         if (damageReturn != null) {
             if (damageReturn.terminate()) {
                 return;
@@ -3652,7 +3725,9 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
 
         if (nonNull(attacker)) {
             attacker.sendDamageMessage(this, skill, (int) value, elementalDamage, critical, false);
-            EventDispatcher.getInstance().notifyEventAsync(new OnCreatureDamageDealt(attacker, this, value, skill, critical, isDOT, reflect), attacker);
+            if (EventDispatcher.getInstance().hasListener(EventType.ON_CREATURE_DAMAGE_DEALT, attacker)) {
+                EventDispatcher.getInstance().notifyEventAsync(new OnCreatureDamageDealt(attacker, this, value, skill, critical, isDOT, reflect), attacker);
+            }
         }
     }
 
@@ -3963,7 +4038,9 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
      * @param isDot
      */
     public void notifyAttackAvoid(Creature target, boolean isDot) {
-        EventDispatcher.getInstance().notifyEventAsync(new OnCreatureAttackAvoid(this, target, isDot), target);
+        if (EventDispatcher.getInstance().hasListener(EventType.ON_CREATURE_ATTACK_AVOID, target)) {
+            EventDispatcher.getInstance().notifyEventAsync(new OnCreatureAttackAvoid(this, target, isDot), target);
+        }
     }
 
     /**
@@ -4170,27 +4247,48 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
     }
 
     @Override
-    public Queue<AbstractEventListener> getListeners(EventType type) {
-        final Queue<AbstractEventListener> objectListenres = super.getListeners(type);
-        final Queue<AbstractEventListener> templateListeners = _template.getListeners(type);
-        final Queue<AbstractEventListener> globalListeners = GameUtils.isNpc(this) && !isMonster(this) ? Listeners.Npcs().getListeners(type) : isMonster(this) ? Listeners.Monsters().getListeners(type) : isPlayer(this) ? Listeners.players().getListeners(type) : EmptyQueue.emptyQueue();
+    public List<AbstractEventListener> getListeners(EventType type) {
+        final List<AbstractEventListener> listeners = new ArrayList<>(super.getListeners(type));
+        listeners.addAll(_template.getListeners(type));
+        final var kindContainer = getKindListenersContainer();
+        if (nonNull(kindContainer)) {
+            listeners.addAll(kindContainer.getListeners(type));
+        }
+        return listeners;
+    }
 
-        // Attempt to do not create collection
-        if (objectListenres.isEmpty() && templateListeners.isEmpty() && globalListeners.isEmpty()) {
-            return EmptyQueue.emptyQueue();
-        } else if (!objectListenres.isEmpty() && templateListeners.isEmpty() && globalListeners.isEmpty()) {
-            return objectListenres;
-        } else if (!templateListeners.isEmpty() && objectListenres.isEmpty() && globalListeners.isEmpty()) {
-            return templateListeners;
-        } else if (!globalListeners.isEmpty() && objectListenres.isEmpty() && templateListeners.isEmpty()) {
-            return globalListeners;
+    @Override
+    public boolean hasListener(EventType type) {
+        final var kindContainer = getKindListenersContainer();
+        return super.hasListener(type) || _template.hasListener(type) || (nonNull(kindContainer) && kindContainer.hasListener(type));
+    }
+
+    @Override
+    public <T extends AbstractEventReturn> T notifyListeners(IBaseEvent event, Class<T> returnBackClass, T callback) {
+        callback = super.notifyListeners(event, returnBackClass, callback);
+        if (isNull(callback) || !callback.abort()) {
+            callback = _template.notifyListeners(event, returnBackClass, callback);
         }
 
-        final Queue<AbstractEventListener> both = new LinkedBlockingDeque<>(objectListenres.size() + templateListeners.size() + globalListeners.size());
-        both.addAll(objectListenres);
-        both.addAll(templateListeners);
-        both.addAll(globalListeners);
-        return both;
+        final var kindContainer = getKindListenersContainer();
+        if (nonNull(kindContainer) && (isNull(callback) || !callback.abort())) {
+            callback = kindContainer.notifyListeners(event, returnBackClass, callback);
+        }
+        return callback;
+    }
+
+    /**
+     * @return the container of the listeners registered for all creatures of the same kind of this.
+     */
+    private ListenersContainer getKindListenersContainer() {
+        if (isMonster(this)) {
+            return Listeners.Monsters();
+        } else if (GameUtils.isNpc(this)) {
+            return Listeners.Npcs();
+        } else if (isPlayer(this)) {
+            return Listeners.players();
+        }
+        return null;
     }
 
     public Race getRace() {
@@ -4480,4 +4578,39 @@ public abstract class Creature extends WorldObject implements ISkillsHolder, IDe
         public int geoPathGtx;
         public int geoPathGty;
     }
+
+    /**
+     * A movement waiting for its path to be found.
+     */
+    private static final class DeferredMove {
+        private final int x;
+        private final int y;
+        private final int z;
+        private final int offset;
+        private final int gox;
+        private final int goy;
+        private final int gtx;
+        private final int gty;
+        private volatile List<Location> path;
+        private volatile boolean completed;
+
+        private DeferredMove(int x, int y, int z, int offset, int gox, int goy, int gtx, int gty) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.offset = offset;
+            this.gox = gox;
+            this.goy = goy;
+            this.gtx = gtx;
+            this.gty = gty;
+        }
+
+        private boolean isRequestTo(int x, int y) {
+            return ((this.x - World.MAP_MIN_X) >> 4) == ((x - World.MAP_MIN_X) >> 4) && ((this.y - World.MAP_MIN_Y) >> 4) == ((y - World.MAP_MIN_Y) >> 4);
+        }
+
+        private boolean isPath(int gox, int goy, int gtx, int gty) {
+            return completed && this.gox == gox && this.goy == goy && this.gtx == gtx && this.gty == gty;
+        }
+    }
 }
@@ -3842,6 +3842,7 @@ public final class Player extends Playable {
             throw new IllegalArgumentException("ExCharInfo is being send via broadcastPacket. Do NOT do that! Use broadcastCharInfo() instead.");
         }
 
+        mov.forBroadcast();
         sendPacket(mov);
 
         World.getInstance().forEachVisibleObject(this, Player.class, mov::sendTo, this::isVisibleFor);
@@ -3854,6 +3855,7 @@ public final class Player extends Playable {
             LOGGER.warn("ExCharInfo is being send via broadcastPacket. Do NOT do that! Use broadcastCharInfo() instead.");
         }
 
+        mov.forBroadcast();
         sendPacket(mov);
 
         World.getInstance().forEachVisibleObjectInRange(this, Player.class, radiusInKnownlist, mov::sendTo, this::isVisibleFor);
@@ -6550,6 +6552,10 @@ public final class Player extends Playable {
                 _hennaBaseStats.merge(entry.getKey(), entry.getValue(), Integer::sum);
             }
         }
+
+        // the base stats finalizer reads the henna values
+        getStats().invalidateFinalValues();
+        getStats().updateEnhancementSkills();
     }
 
     /**
@@ -7402,6 +7408,7 @@ public final class Player extends Playable {
 
     public void setIsInOlympiadMode(boolean b) {
         _inOlympiadMode = b;
+        getStats().invalidateFinalValues();
     }
 
     public void setIsOlympiadStart(boolean b) {
@@ -10335,12 +10342,14 @@ public final class Player extends Playable {
     public void addOverrideCond(PcCondOverride... excs) {
         super.addOverrideCond(excs);
         getVariables().set(COND_OVERRIDE_KEY, Long.toString(_exceptions));
+        getStats().invalidateFinalValues();
     }
 
     @Override
     public void removeOverridedCond(PcCondOverride... excs) {
         super.removeOverridedCond(excs);
         getVariables().set(COND_OVERRIDE_KEY, Long.toString(_exceptions));
+        getStats().invalidateFinalValues();
     }
 
     /**
@@ -89,6 +89,7 @@ public final class Trap extends Npc {
 
     @Override
     public void broadcastPacket(ServerPacket mov) {
+        mov.forBroadcast();
         World.getInstance().forEachVisibleObject(this, Player.class, player ->
         {
             if (_isTriggered || canBeSeen(player)) {
@@ -99,6 +100,7 @@ public final class Trap extends Npc {
 
     @Override
     public void broadcastPacket(ServerPacket mov, int radiusInKnownlist) {
+        mov.forBroadcast();
         World.getInstance().forEachVisibleObjectInRange(this, Player.class, radiusInKnownlist, player ->
         {
             if (_isTriggered || canBeSeen(player)) {
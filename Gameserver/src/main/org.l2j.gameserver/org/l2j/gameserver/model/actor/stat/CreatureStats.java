@@ -40,17 +40,39 @@ import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static org.l2j.commons.util.Util.falseIfNullOrElse;
 import static org.l2j.commons.util.Util.isNullOrEmpty;
 import static org.l2j.gameserver.util.GameUtils.isSummon;
 
 public class CreatureStats {
     private final Creature creature;
-    private final Map<Stat, Double> statsAdd = new EnumMap<>(Stat.class);
-    private final Map<Stat, Double> statsMul = new EnumMap<>(Stat.class);
+    /**
+     * The add and mul values of the stats, replaced at the end of each recalculation.
+     */
+    private volatile StatValues values = StatValues.EMPTY;
+    /**
+     * The values being merged by the recalculation, only accessed by the thread holding the write lock.
+     */
+    private StatValues.Builder pendingValues;
+    /**
+     * The values of everything but the pure pumps of the active buffs, merged by the last full recalculation.
+     */
+    private StatValues baseValues = StatValues.EMPTY;
+    /**
+     * The buffs merged into the base values, a change on them requires a full recalculation.
+     */
+    private Set<BuffInfo> baseInfos;
+    /**
+     * The pure pumps of the active buffs, applied and removed as deltas. Created with the first active buff.
+     */
+    private PureEffectStats pureEffects;
+    /**
+     * The contribution being recorded from the pure pumps of a buff, only accessed by the thread holding the write lock.
+     */
+    private PureEffectStats.Contribution pendingContribution;
     private final Map<Stat, Map<MoveType, Double>> _moveTypeStats = new ConcurrentHashMap<>();
     private final Map<SkillType, Double> reuseStat = Collections.synchronizedMap(new EnumMap<>(SkillType.class));
     private final Map<SkillType, Double> mpConsumeStat = Collections.synchronizedMap(new EnumMap<>(SkillType.class));
@@ -58,7 +80,15 @@ public class CreatureStats {
     private final Map<Stat, Map<Position, Double>> _positionStats = new ConcurrentHashMap<>();
     private final Deque<StatsHolder> _additionalAdd = new ConcurrentLinkedDeque<>();
     private final Deque<StatsHolder> _additionalMul = new ConcurrentLinkedDeque<>();
-    private final Map<Stat, Double> _fixedValue = new ConcurrentHashMap<>();
+    /**
+     * The fixed values of the stats indexed by the stat ordinal, a {@link Double#NaN} means the stat has no fixed value.
+     */
+    private volatile double[] fixedValues;
+    /**
+     * The finalized values of the cacheable stats indexed by the stat ordinal, a {@link Double#NaN} means the value is not calculated yet.
+     * Dropped whenever an input of the finalizers changes.
+     */
+    private volatile double[] finalValues;
 
     private final float[] _attackTraitValues = new float[TraitType.values().length];
     private final float[] _defenceTraitValues = new float[TraitType.values().length];
@@ -183,6 +213,7 @@ public class CreatureStats {
 
     public void setLevel(byte value) {
         _level = value;
+        invalidateFinalValues();
     }
 
     /**
@@ -671,7 +702,21 @@ public class CreatureStats {
      * @param val
      */
     public void mergeAdd(Stat stat, double val) {
-        statsAdd.merge(stat, val, stat::functionAdd);
+        if (_lock.isWriteLockedByCurrentThread() && nonNull(pendingContribution)) {
+            pendingContribution.mergeAdd(stat, val);
+        } else if (_lock.isWriteLockedByCurrentThread() && nonNull(pendingValues)) {
+            pendingValues.mergeAdd(stat, val);
+        } else {
+            _lock.writeLock().lock();
+            try {
+                final var builder = new StatValues.Builder(values);
+                builder.mergeAdd(stat, val);
+                values = builder.build();
+                invalidateFinalValues();
+            } finally {
+                _lock.writeLock().unlock();
+            }
+        }
     }
 
     /**
@@ -681,7 +726,21 @@ public class CreatureStats {
      * @param val
      */
     public void mergeMul(Stat stat, double val) {
-        statsMul.merge(stat, val, stat::functionMul);
+        if (_lock.isWriteLockedByCurrentThread() && nonNull(pendingContribution)) {
+            pendingContribution.mergeMul(stat, val);
+        } else if (_lock.isWriteLockedByCurrentThread() && nonNull(pendingValues)) {
+            pendingValues.mergeMul(stat, val);
+        } else {
+            _lock.writeLock().lock();
+            try {
+                final var builder = new StatValues.Builder(values);
+                builder.mergeMul(stat, val);
+                values = builder.build();
+                invalidateFinalValues();
+            } finally {
+                _lock.writeLock().unlock();
+            }
+        }
     }
 
     /**
@@ -698,12 +757,8 @@ public class CreatureStats {
      * @return the add value
      */
     public double getAdd(Stat stat, double defaultValue) {
-        _lock.readLock().lock();
-        try {
-            return statsAdd.getOrDefault(stat, defaultValue);
-        } finally {
-            _lock.readLock().unlock();
-        }
+        final double add = values.getAdd(stat);
+        return Double.isNaN(add) ? defaultValue : add;
     }
 
     /**
@@ -720,15 +775,8 @@ public class CreatureStats {
      * @return the mul value
      */
     public double getMul(Stat stat, double defaultValue) {
-        _lock.readLock().lock();
-        try {
-            if(statsMul.containsKey(stat)) {
-                return statsMul.get(stat) / 100 + 1;
-            }
-            return defaultValue;
-        } finally {
-            _lock.readLock().unlock();
-        }
+        final double mul = values.getMul(stat);
+        return Double.isNaN(mul) ? defaultValue : mul / 100 + 1;
     }
 
     /**
@@ -737,8 +785,8 @@ public class CreatureStats {
      * @return the final value of the stat
      */
     public double getValue(Stat stat, double baseValue) {
-        final Double fixedValue = _fixedValue.get(stat);
-        return fixedValue != null ? fixedValue : stat.finalize(creature, Optional.of(baseValue));
+        final double fixedValue = getFixedValue(stat);
+        return !Double.isNaN(fixedValue) ? fixedValue : stat.finalize(creature, Optional.of(baseValue));
     }
 
     /**
@@ -746,13 +794,49 @@ public class CreatureStats {
      * @return the final value of the stat
      */
     public double getValue(Stat stat) {
-        final Double fixedValue = _fixedValue.get(stat);
-        return fixedValue != null ? fixedValue : stat.finalize(creature, Optional.empty());
+        final double fixedValue = getFixedValue(stat);
+        if (!Double.isNaN(fixedValue)) {
+            return fixedValue;
+        }
+
+        if (!stat.isCacheable() || isMoveTypeDependent(stat)) {
+            return stat.finalize(creature, Optional.empty());
+        }
+
+        var cache = finalValues;
+        if (isNull(cache)) {
+            cache = new double[Stat.values().length];
+            Arrays.fill(cache, Double.NaN);
+            finalValues = cache;
+        }
+
+        double value = cache[stat.ordinal()];
+        if (Double.isNaN(value)) {
+            value = stat.finalize(creature, Optional.empty());
+            cache[stat.ordinal()] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Drops the cached finalized values.<br>
+     * Must be called whenever something used by the finalizers changes without a stats recalculation.
+     */
+    public void invalidateFinalValues() {
+        finalValues = null;
+    }
+
+    private boolean isMoveTypeDependent(Stat stat) {
+        return !_moveTypeStats.isEmpty() && _moveTypeStats.containsKey(stat);
+    }
+
+    private double getFixedValue(Stat stat) {
+        final var fixed = fixedValues;
+        return isNull(fixed) ? Double.NaN : fixed[stat.ordinal()];
     }
 
     protected void resetStats() {
-        statsAdd.clear();
-        statsMul.clear();
+        pendingValues = new StatValues.Builder();
         _vampiricSum = 0;
     }
 
@@ -762,29 +846,46 @@ public class CreatureStats {
      * @param broadcast
      */
     public final void recalculateStats(boolean broadcast) {
-        // Copy old data before wiping it out
-        final Map<Stat, Double> oldAdds = !broadcast ? Collections.emptyMap() : new EnumMap<>(statsAdd);
-        final Map<Stat, Double> oldMuls = !broadcast ? Collections.emptyMap() : new EnumMap<>(statsMul);
+        final StatValues oldValues;
 
         _lock.writeLock().lock();
         try {
+            oldValues = values;
             // Wipe all the data
             resetStats();
 
-            // Collect all necessary effects
             final EffectList effectList = creature.getEffectList();
-            final Stream<BuffInfo> passives = effectList.getPassives().stream().filter(BuffInfo::isInUse).filter(info -> info.getSkill().checkConditions(SkillConditionScope.PASSIVE, creature, creature));
-            final Stream<BuffInfo> options = effectList.getOptions().stream().filter(BuffInfo::isInUse);
-            final Stream<BuffInfo> effectsStream = Stream.concat(effectList.getEffects().stream().filter(BuffInfo::isInUse), Stream.concat(passives, options));
-
-            // Call pump to each effect
-            //@formatter:off
-            effectsStream.forEach(info -> info.getEffects().stream()
-                    .filter(effect -> canActivate(info, effect))
-                    .forEach(effect -> effect.pump(info.getEffected(), info.getSkill())));
-            //@formatter:on
-
-            if (isSummon(creature) && falseIfNullOrElse(creature.getActingPlayer(), player -> player.hasAbnormalType(AbnormalType.ABILITY_CHANGE))) {
+            final boolean incremental = trackPureEffects(effectList);
+
+            // Call pump to each effect, the pure pumps of the active buffs are kept apart
+            for (BuffInfo info : effectList.getEffects()) {
+                if (info.isInUse()) {
+                    if (incremental && hasOnlyPurePumps(info)) {
+                        pureEffects.apply(info, recordPump(info), null);
+                    } else {
+                        pumpBase(info, incremental);
+                    }
+                }
+            }
+
+            for (BuffInfo passive : effectList.getPassives()) {
+                if (passive.isInUse()) {
+                    if (incremental) {
+                        baseInfos.add(passive);
+                    }
+                    if (passive.getSkill().checkConditions(SkillConditionScope.PASSIVE, creature, creature)) {
+                        pump(passive);
+                    }
+                }
+            }
+
+            for (BuffInfo option : effectList.getOptions()) {
+                if (option.isInUse()) {
+                    pumpBase(option, incremental);
+                }
+            }
+
+            if (hasOwnerAbilityChange()) {
                 //@formatter:off
                 creature.getActingPlayer().getEffectList().getEffects().stream().filter(BuffInfo::isInUse)
                         .filter(info -> info.isAbnormalType(AbnormalType.ABILITY_CHANGE))
@@ -798,22 +899,212 @@ public class CreatureStats {
             _additionalAdd.stream().filter(holder -> holder.verifyCondition(creature)).forEach(holder -> mergeAdd(holder.getStat(), holder.getValue()));
             _additionalMul.stream().filter(holder -> holder.verifyCondition(creature)).forEach(holder -> mergeMul(holder.getStat(), holder.getValue()));
 
-            _attackSpeedMultiplier = Formulas.calcAtkSpdMultiplier(creature);
-            _mAttackSpeedMultiplier = Formulas.calcMAtkSpdMultiplier(creature);
+            // Publish the new values at once
+            if (incremental) {
+                baseValues = pendingValues.build();
+                publishValues();
+            } else {
+                values = pendingValues.build();
+                invalidateFinalValues();
+                updateAttackSpeedMultipliers();
+            }
+            pendingValues = null;
+        } finally {
+            _lock.writeLock().unlock();
+        }
+
+        onRecalculateStats(broadcast);
+
+        if (broadcast) {
+            final var newValues = values;
+            final Set<Stat> modified = EnumSet.noneOf(Stat.class);
+            for (Stat stat : Stat.values()) {
+                if (newValues.differs(oldValues, stat)) {
+                    modified.add(stat);
+                }
+            }
+            creature.broadcastModifiedStats(modified);
+        }
+    }
+
+    /**
+     * Recalculates the stats after a change on the effect list.<br>
+     * When only buffs with pure pumps were added or removed, their contributions are applied as deltas over the values
+     * of the last full recalculation. Any other change falls back to {@link #recalculateStats(boolean)}.
+     *
+     * @param broadcast
+     */
+    public final void recalculateEffectStats(boolean broadcast) {
+        final Set<Stat> modified = EnumSet.noneOf(Stat.class);
+        final StatValues oldValues;
+        final boolean applied;
+
+        _lock.writeLock().lock();
+        try {
+            oldValues = values;
+            applied = applyPureEffectChanges(modified);
         } finally {
             _lock.writeLock().unlock();
         }
 
+        if (!applied) {
+            recalculateStats(broadcast);
+            return;
+        }
+
         onRecalculateStats(broadcast);
 
         if (broadcast) {
-            final var modified = Stat.stream().filter(stat -> isStatChanged(oldAdds, oldMuls, stat)).collect(Collectors.toSet());
+            final var newValues = values;
+            modified.removeIf(stat -> !newValues.differs(oldValues, stat));
             creature.broadcastModifiedStats(modified);
         }
     }
 
-    protected boolean isStatChanged(Map<Stat, Double> oldAdds, Map<Stat, Double> oldMuls, Stat stat) {
-        return !( Objects.equals( statsAdd.get(stat), oldAdds.get(stat) ) && Objects.equals( statsMul.get(stat), oldMuls.get(stat) ));
+    /**
+     * @param modified the set to collect the stats touched by the changes
+     * @return false if the changes can't be applied as deltas
+     */
+    private boolean applyPureEffectChanges(Set<Stat> modified) {
+        if (isNull(pureEffects) || hasOwnerAbilityChange()) {
+            return false;
+        }
+
+        final EffectList effectList = creature.getEffectList();
+        final Set<BuffInfo> current = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<BuffInfo> added = new ArrayList<>();
+        int baseCount = 0;
+
+        for (BuffInfo info : effectList.getEffects()) {
+            if (!info.isInUse()) {
+                continue;
+            }
+
+            if (hasOnlyPurePumps(info)) {
+                current.add(info);
+                if (!pureEffects.contains(info)) {
+                    added.add(info);
+                }
+            } else if (baseInfos.contains(info)) {
+                baseCount++;
+            } else {
+                return false;
+            }
+        }
+
+        for (BuffInfo info : effectList.getPassives()) {
+            if (info.isInUse()) {
+                if (!baseInfos.contains(info)) {
+                    return false;
+                }
+                baseCount++;
+            }
+        }
+
+        for (BuffInfo info : effectList.getOptions()) {
+            if (info.isInUse()) {
+                if (!baseInfos.contains(info)) {
+                    return false;
+                }
+                baseCount++;
+            }
+        }
+
+        if (baseCount != baseInfos.size()) {
+            return false;
+        }
+
+        final List<BuffInfo> removed = new ArrayList<>();
+        for (BuffInfo info : pureEffects.infos()) {
+            if (!current.contains(info)) {
+                removed.add(info);
+            }
+        }
+
+        if (removed.isEmpty() && added.isEmpty()) {
+            return true;
+        }
+
+        for (BuffInfo info : removed) {
+            pureEffects.remove(info, modified);
+        }
+
+        for (BuffInfo info : added) {
+            pureEffects.apply(info, recordPump(info), modified);
+        }
+
+        publishValues();
+        return true;
+    }
+
+    /**
+     * Prepares the pure effects to be tracked apart from the other values, only when the creature has any active buff.
+     *
+     * @return true if the pure effects are tracked
+     */
+    private boolean trackPureEffects(EffectList effectList) {
+        if (isNull(pureEffects)) {
+            if (effectList.getEffects().stream().noneMatch(BuffInfo::isInUse)) {
+                return false;
+            }
+            pureEffects = new PureEffectStats();
+            baseInfos = Collections.newSetFromMap(new IdentityHashMap<>());
+        } else {
+            pureEffects.clear();
+            baseInfos.clear();
+        }
+        return true;
+    }
+
+    private void publishValues() {
+        final var builder = new StatValues.Builder(baseValues);
+        pureEffects.mergeInto(builder);
+        values = builder.build();
+        invalidateFinalValues();
+        updateAttackSpeedMultipliers();
+    }
+
+    private void updateAttackSpeedMultipliers() {
+        _attackSpeedMultiplier = Formulas.calcAtkSpdMultiplier(creature);
+        _mAttackSpeedMultiplier = Formulas.calcMAtkSpdMultiplier(creature);
+    }
+
+    private PureEffectStats.Contribution recordPump(BuffInfo info) {
+        pendingContribution = new PureEffectStats.Contribution();
+        try {
+            pump(info);
+            return pendingContribution;
+        } finally {
+            pendingContribution = null;
+        }
+    }
+
+    private void pumpBase(BuffInfo info, boolean incremental) {
+        if (incremental) {
+            baseInfos.add(info);
+        }
+        pump(info);
+    }
+
+    private void pump(BuffInfo info) {
+        for (AbstractEffect effect : info.getEffects()) {
+            if (canActivate(info, effect)) {
+                effect.pump(info.getEffected(), info.getSkill());
+            }
+        }
+    }
+
+    private boolean hasOnlyPurePumps(BuffInfo info) {
+        for (AbstractEffect effect : info.getEffects()) {
+            if (!effect.isPurePump()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasOwnerAbilityChange() {
+        return isSummon(creature) && falseIfNullOrElse(creature.getActingPlayer(), player -> player.hasAbnormalType(AbnormalType.ABILITY_CHANGE));
     }
 
     private boolean canActivate(BuffInfo info, AbstractEffect effect) {
@@ -847,6 +1138,7 @@ public class CreatureStats {
 
     public void mergeMoveTypeValue(Stat stat, MoveType type, double value) {
         _moveTypeStats.computeIfAbsent(stat, key -> new ConcurrentHashMap<>()).merge(type, value, MathUtil::add);
+        invalidateFinalValues();
     }
 
     public double getReuseTypeValue(SkillType magicType) {
@@ -989,15 +1281,33 @@ public class CreatureStats {
      * @param value
      * @return true if the there wasn't previously set fixed value, {@code false} otherwise
      */
-    public boolean addFixedValue(Stat stat, Double value) {
-        return _fixedValue.put(stat, value) == null;
+    public synchronized boolean addFixedValue(Stat stat, Double value) {
+        final double[] fixed;
+        if (isNull(fixedValues)) {
+            fixed = new double[Stat.values().length];
+            Arrays.fill(fixed, Double.NaN);
+        } else {
+            fixed = fixedValues.clone();
+        }
+
+        final boolean added = Double.isNaN(fixed[stat.ordinal()]);
+        fixed[stat.ordinal()] = value;
+        fixedValues = fixed;
+        return added;
     }
 
     /**
      * @param stat
      * @return {@code true} if fixed value is removed, {@code false} otherwise
      */
-    public boolean removeFixedValue(Stat stat) {
-        return _fixedValue.remove(stat) != null;
+    public synchronized boolean removeFixedValue(Stat stat) {
+        if (Double.isNaN(getFixedValue(stat))) {
+            return false;
+        }
+
+        final double[] fixed = fixedValues.clone();
+        fixed[stat.ordinal()] = Double.NaN;
+        fixedValues = fixed;
+        return true;
     }
 }
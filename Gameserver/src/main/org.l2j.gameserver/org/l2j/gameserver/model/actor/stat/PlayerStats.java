@@ -21,6 +21,7 @@ package org.l2j.gameserver.model.actor.stat;
 import org.l2j.gameserver.Config;
 import org.l2j.gameserver.api.elemental.ElementalType;
 import org.l2j.gameserver.data.xml.impl.LevelData;
+import org.l2j.gameserver.engine.skill.api.SkillEngine;
 import org.l2j.gameserver.enums.PartySmallWindowUpdateType;
 import org.l2j.gameserver.enums.UserInfoType;
 import org.l2j.gameserver.model.Party;
@@ -32,6 +33,7 @@ import org.l2j.gameserver.model.holders.ItemSkillHolder;
 import org.l2j.gameserver.model.item.instance.Item;
 import org.l2j.gameserver.model.item.type.WeaponType;
 import org.l2j.gameserver.model.skills.AbnormalType;
+import org.l2j.gameserver.model.stats.BaseStats;
 import org.l2j.gameserver.model.stats.Formulas;
 import org.l2j.gameserver.model.stats.Stat;
 import org.l2j.gameserver.network.SystemMessageId;
@@ -350,6 +352,7 @@ public class PlayerStats extends PlayableStats {
 
         if (getCreature().isSubClassActive()) {
             getCreature().getSubClasses().get(getCreature().getClassIndex()).setLevel(value);
+            invalidateFinalValues();
         } else {
             super.setLevel(value);
         }
@@ -605,5 +608,25 @@ public class PlayerStats extends PlayableStats {
             player.getServitors().values().forEach(servitor -> servitor.getStats().recalculateStats(broadcast));
         }
         player.sendPacket(new ExUserBoostStat(BoostStatType.STAT, (short) (round(getExpBonusMultiplier() * 100) - 100)));
+        updateEnhancementSkills();
+    }
+
+    /**
+     * Gives the enhancement skill level matching the value of each base stat, removing it when the value is below the first level.
+     */
+    public void updateEnhancementSkills() {
+        final Player player = getCreature();
+        for (BaseStats baseStat : BaseStats.values()) {
+            final var skillId = baseStat.getEnhancementSkillId();
+            final var skillLevel = baseStat.getEnhancementSkillLevel(getValue(baseStat.getStat()));
+
+            if (skillLevel > 0) {
+                if (player.getSkillLevel(skillId) != skillLevel) {
+                    player.addSkill(SkillEngine.getInstance().getSkill(skillId, skillLevel));
+                }
+            } else {
+                player.removeSkill(skillId);
+            }
+        }
     }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.model.actor.stat;
+
+import org.l2j.gameserver.model.skills.BuffInfo;
+import org.l2j.gameserver.model.stats.Stat;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * The running sums of the pure pumps of the active buffs.
+ *
+ * The stats merge their values by sum, so the contribution of each buff is recorded once when the buff is applied
+ * and subtracted when it is removed, without pumping the other buffs again.
+ * The count of contributions of each stat keeps the absent values apart from the values summing zero.
+ *
+ * Only accessed by the thread holding the stats write lock.
+ *
+ * @author JoeAlisson
+ */
+final class PureEffectStats {
+
+    private static final int STATS = Stat.values().length;
+
+    private final Map<BuffInfo, Contribution> contributions = new IdentityHashMap<>();
+    private final double[] add = new double[STATS];
+    private final double[] mul = new double[STATS];
+    private final int[] addCount = new int[STATS];
+    private final int[] mulCount = new int[STATS];
+
+    boolean contains(BuffInfo info) {
+        return contributions.containsKey(info);
+    }
+
+    /**
+     * @return the buffs applied, backed by the sums
+     */
+    Set<BuffInfo> infos() {
+        return contributions.keySet();
+    }
+
+    /**
+     * @param info the buff
+     * @param contribution the values merged by the pure pumps of the buff
+     * @param modified the set to collect the stats touched, may be null
+     */
+    void apply(BuffInfo info, Contribution contribution, Set<Stat> modified) {
+        contributions.put(info, contribution);
+        for (int i = 0; i < contribution.size; i++) {
+            final int index = contribution.stats[i].ordinal();
+            if(contribution.mul[i]) {
+                mul[index] += contribution.values[i];
+                mulCount[index]++;
+            } else {
+                add[index] += contribution.values[i];
+                addCount[index]++;
+            }
+            if(nonNull(modified)) {
+                modified.add(contribution.stats[i]);
+            }
+        }
+    }
+
+    /**
+     * @param info the buff
+     * @param modified the set to collect the stats touched
+     */
+    void remove(BuffInfo info, Set<Stat> modified) {
+        final var contribution = contributions.remove(info);
+        if(isNull(contribution)) {
+            return;
+        }
+
+        for (int i = 0; i < contribution.size; i++) {
+            final int index = contribution.stats[i].ordinal();
+            if(contribution.mul[i]) {
+                mul[index] = --mulCount[index] == 0 ? 0 : mul[index] - contribution.values[i];
+            } else {
+                add[index] = --addCount[index] == 0 ? 0 : add[index] - contribution.values[i];
+            }
+            modified.add(contribution.stats[i]);
+        }
+    }
+
+    void clear() {
+        contributions.clear();
+        Arrays.fill(add, 0);
+        Arrays.fill(mul, 0);
+        Arrays.fill(addCount, 0);
+        Arrays.fill(mulCount, 0);
+    }
+
+    /**
+     * Merges the sums into the builder
+     *
+     * @param builder the values builder
+     */
+    void mergeInto(StatValues.Builder builder) {
+        if(contributions.isEmpty()) {
+            return;
+        }
+
+        final var stats = Stat.values();
+        for (int i = 0; i < STATS; i++) {
+            if(addCount[i] > 0) {
+                builder.mergeAdd(stats[i], add[i]);
+            }
+            if(mulCount[i] > 0) {
+                builder.mergeMul(stats[i], mul[i]);
+            }
+        }
+    }
+
+    /**
+     * The values merged by the pure pumps of a buff.
+     */
+    static final class Contribution {
+        private Stat[] stats = new Stat[2];
+        private double[] values = new double[2];
+        private boolean[] mul = new boolean[2];
+        private int size;
+
+        void mergeAdd(Stat stat, double value) {
+            append(stat, value, false);
+        }
+
+        void mergeMul(Stat stat, double value) {
+            append(stat, value, true);
+        }
+
+        private void append(Stat stat, double value, boolean isMul) {
+            if(size == stats.length) {
+                stats = Arrays.copyOf(stats, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+                mul = Arrays.copyOf(mul, size * 2);
+            }
+            stats[size] = stat;
+            values[size] = value;
+            mul[size++] = isMul;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.model.actor.stat;
+
+import org.l2j.gameserver.model.stats.Stat;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of the add and mul values of the stats of a creature.
+ *
+ * Only the stats with any value take a slot, the slot of each stat is indexed by its ordinal.
+ * A {@link Double#NaN} in a slot means the stat has no value of that kind.
+ *
+ * @author JoeAlisson
+ */
+final class StatValues {
+
+    private static final int STATS = Stat.values().length;
+    private static final short[] NO_SLOTS = new short[STATS];
+
+    static {
+        Arrays.fill(NO_SLOTS, (short) -1);
+    }
+
+    static final StatValues EMPTY = new StatValues(NO_SLOTS, new double[0], new double[0]);
+
+    private final short[] slots;
+    private final double[] add;
+    private final double[] mul;
+
+    private StatValues(short[] slots, double[] add, double[] mul) {
+        this.slots = slots;
+        this.add = add;
+        this.mul = mul;
+    }
+
+    /**
+     * @param stat the stat
+     * @return the add value of the stat or {@link Double#NaN} if there is no add value
+     */
+    double getAdd(Stat stat) {
+        final int slot = slots[stat.ordinal()];
+        return slot < 0 ? Double.NaN : add[slot];
+    }
+
+    /**
+     * @param stat the stat
+     * @return the mul value of the stat or {@link Double#NaN} if there is no mul value
+     */
+    double getMul(Stat stat) {
+        final int slot = slots[stat.ordinal()];
+        return slot < 0 ? Double.NaN : mul[slot];
+    }
+
+    /**
+     * @param other the other values
+     * @param stat the stat
+     * @return true if the add or mul value of the stat differs from the other values
+     */
+    boolean differs(StatValues other, Stat stat) {
+        return Double.compare(getAdd(stat), other.getAdd(stat)) != 0 || Double.compare(getMul(stat), other.getMul(stat)) != 0;
+    }
+
+    /**
+     * Collects the values merged while the stats are recalculated.
+     */
+    static final class Builder {
+        private final double[] add = new double[STATS];
+        private final double[] mul = new double[STATS];
+        private final boolean[] hasAdd = new boolean[STATS];
+        private final boolean[] hasMul = new boolean[STATS];
+
+        Builder() {
+        }
+
+        Builder(StatValues values) {
+            for (int i = 0; i < STATS; i++) {
+                final int slot = values.slots[i];
+                if(slot >= 0) {
+                    hasAdd[i] = !Double.isNaN(values.add[slot]);
+                    add[i] = values.add[slot];
+                    hasMul[i] = !Double.isNaN(values.mul[slot]);
+                    mul[i] = values.mul[slot];
+                }
+            }
+        }
+
+        void mergeAdd(Stat stat, double value) {
+            final int index = stat.ordinal();
+            add[index] = hasAdd[index] ? stat.functionAdd(add[index], value) : value;
+            hasAdd[index] = true;
+        }
+
+        void mergeMul(Stat stat, double value) {
+            final int index = stat.ordinal();
+            mul[index] = hasMul[index] ? stat.functionMul(mul[index], value) : value;
+            hasMul[index] = true;
+        }
+
+        StatValues build() {
+            int count = 0;
+            for (int i = 0; i < STATS; i++) {
+                if(hasAdd[i] || hasMul[i]) {
+                    count++;
+                }
+            }
+
+            if(count == 0) {
+                return EMPTY;
+            }
+
+            final short[] slots = new short[STATS];
+            final double[] addValues = new double[count];
+            final double[] mulValues = new double[count];
+            short slot = 0;
+            for (int i = 0; i < STATS; i++) {
+                if(hasAdd[i] || hasMul[i]) {
+                    slots[i] = slot;
+                    addValues[slot] = hasAdd[i] ? add[i] : Double.NaN;
+                    mulValues[slot] = hasMul[i] ? mul[i] : Double.NaN;
+                    slot++;
+                } else {
+                    slots[i] = -1;
+                }
+            }
+            return new StatValues(slots, addValues, mulValues);
+        }
+    }
+}
@@ -18,20 +18,20 @@
  */
 package org.l2j.gameserver.model.actor.status;
 
-import org.l2j.commons.threading.ThreadPool;
 import org.l2j.gameserver.model.actor.Creature;
 import org.l2j.gameserver.model.actor.instance.Player;
 import org.l2j.gameserver.model.events.EventDispatcher;
+import org.l2j.gameserver.model.events.EventType;
 import org.l2j.gameserver.model.events.impl.character.OnCreatureHpChange;
 import org.l2j.gameserver.model.skills.AbnormalType;
 import org.l2j.gameserver.model.stats.Formulas;
 import org.l2j.gameserver.model.stats.Stat;
+import org.l2j.gameserver.taskmanager.RegenerationTaskManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Future;
 
 
 public class CreatureStatus {
@@ -49,7 +49,7 @@ public class CreatureStatus {
      * Array containing all clients that need to be notified about hp/mp updates of the Creature
      */
     private Set<Creature> _StatusListener;
-    private Future<?> _regTask;
+    private boolean regenerating;
 
     public CreatureStatus(Creature owner) {
         this.owner = owner;
@@ -172,36 +172,36 @@ public class CreatureStatus {
     }
 
     /**
-     * Start the HP/MP/CP Regeneration task.<br>
+     * Start the HP/MP/CP Regeneration.<br>
      * <B><U>Actions</U>:</B>
      * <ul>
-     * <li>Calculate the regen task period</li>
-     * <li>Launch the HP/MP/CP Regeneration task with Medium priority</li>
+     * <li>Check if the creature is not fully regenerated</li>
+     * <li>Add the creature to the {@link RegenerationTaskManager}</li>
      * </ul>
      */
     public final synchronized void startHpMpRegeneration() {
-        if ((_regTask == null) && !owner.isDead()) {
-            // Get the Regeneration period
-            final int period = Formulas.getRegeneratePeriod(owner);
-
-            // Create the HP/MP/CP Regeneration task
-            _regTask = ThreadPool.scheduleAtFixedRate(this::doRegeneration, period, period);
+        if (!regenerating && !owner.isDead() && needRegeneration()) {
+            regenerating = true;
+            RegenerationTaskManager.getInstance().add(this);
         }
     }
 
+    protected boolean needRegeneration() {
+        return (_currentHp < owner.getMaxRecoverableHp()) || (_currentMp < owner.getMaxRecoverableMp());
+    }
+
     /**
-     * Stop the HP/MP/CP Regeneration task.<br>
+     * Stop the HP/MP/CP Regeneration.<br>
      * <B><U>Actions</U>:</B>
      * <ul>
      * <li>Set the RegenActive flag to False</li>
-     * <li>Stop the HP/MP/CP Regeneration task</li>
+     * <li>Remove the creature from the {@link RegenerationTaskManager}</li>
      * </ul>
      */
     public final synchronized void stopHpMpRegeneration() {
-        if (_regTask != null) {
-            // Stop the HP/MP/CP Regeneration task
-            _regTask.cancel(false);
-            _regTask = null;
+        if (regenerating) {
+            regenerating = false;
+            RegenerationTaskManager.getInstance().remove(this);
 
             // Set the RegenActive flag to false
             _flagsRegenActive = 0;
@@ -272,7 +272,9 @@ public class CreatureStatus {
             if (broadcastPacket) {
                 owner.broadcastStatusUpdate();
             }
-            EventDispatcher.getInstance().notifyEventAsync(new OnCreatureHpChange(getOwner(), oldHp, _currentHp), getOwner());
+            if (EventDispatcher.getInstance().hasListener(EventType.ON_CREATURE_HP_CHANGE, getOwner())) {
+                EventDispatcher.getInstance().notifyEventAsync(new OnCreatureHpChange(getOwner(), oldHp, _currentHp), getOwner());
+            }
         }
 
         return hpWasChanged;
@@ -340,15 +342,21 @@ public class CreatureStatus {
         return mpWasChanged;
     }
 
-    protected void doRegeneration() {
-        // Modify the current HP/MP of the Creature and broadcast Server->Client packet StatusUpdate
-        if (!owner.isDead() && ((_currentHp < owner.getMaxRecoverableHp()) || (_currentMp < owner.getMaxRecoverableMp()))) {
+    /**
+     * Modify the current HP/MP of the Creature. Called by the {@link RegenerationTaskManager}.
+     *
+     * @return true if the status was changed and the StatusUpdate must be broadcast
+     */
+    public boolean doRegeneration() {
+        if (!owner.isDead() && needRegeneration()) {
             final double newHp = _currentHp + owner.getStats().getValue(Stat.REGENERATE_HP_RATE);
             final double newMp = _currentMp + owner.getStats().getValue(Stat.REGENERATE_MP_RATE);
-            setCurrentHpMp(newHp, newMp);
-        } else {
-            stopHpMpRegeneration();
+            boolean hpOrMpWasChanged = setCurrentHp(newHp, false);
+            hpOrMpWasChanged |= setCurrentMp(newMp, false);
+            return hpOrMpWasChanged;
         }
+        stopHpMpRegeneration();
+        return false;
     }
 
     public Creature getOwner() {
@@ -303,25 +303,36 @@ public class PlayerStatus extends PlayableStatus {
     }
 
     @Override
-    protected void doRegeneration() {
+    protected boolean needRegeneration() {
+        return (currentCp < getOwner().getStats().getMaxRecoverableCp()) || super.needRegeneration();
+    }
+
+    @Override
+    public boolean doRegeneration() {
         final PlayerStats charstat = getOwner().getStats();
+        final int oldCp = (int) currentCp;
+        boolean changed = false;
 
-        // Modify the current CP of the Creature and broadcast Server->Client packet StatusUpdate
+        // Modify the current CP of the Creature
         if (currentCp < charstat.getMaxRecoverableCp()) {
             setCurrentCp(currentCp + getOwner().getStats().getValue(Stat.REGENERATE_CP_RATE), false);
+            changed = oldCp != (int) currentCp;
         }
 
-        // Modify the current HP of the Creature and broadcast Server->Client packet StatusUpdate
+        // Modify the current HP of the Creature
         if (getCurrentHp() < charstat.getMaxRecoverableHp()) {
-            setCurrentHp(getCurrentHp() + getOwner().getStats().getValue(Stat.REGENERATE_HP_RATE), false);
+            changed |= setCurrentHp(getCurrentHp() + getOwner().getStats().getValue(Stat.REGENERATE_HP_RATE), false);
         }
 
-        // Modify the current MP of the Creature and broadcast Server->Client packet StatusUpdate
+        // Modify the current MP of the Creature
         if (getCurrentMp() < charstat.getMaxRecoverableMp()) {
-            setCurrentMp(getCurrentMp() + getOwner().getStats().getValue(Stat.REGENERATE_MP_RATE), false);
+            changed |= setCurrentMp(getCurrentMp() + getOwner().getStats().getValue(Stat.REGENERATE_MP_RATE), false);
         }
 
-        getOwner().broadcastStatusUpdate(); // send the StatusUpdate packet
+        if (!changed && !needRegeneration()) {
+            stopHpMpRegeneration();
+        }
+        return changed;
     }
 
     @Override
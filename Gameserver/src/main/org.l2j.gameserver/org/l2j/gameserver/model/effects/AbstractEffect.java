@@ -37,6 +37,17 @@ import org.slf4j.LoggerFactory;
 public abstract class AbstractEffect  {
     protected static final Logger LOGGER = LoggerFactory.getLogger(AbstractEffect.class);
 
+    private static final ClassValue<Boolean> PUMP_OVERRIDDEN = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("pump", Creature.class, Skill.class).getDeclaringClass() != AbstractEffect.class;
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        }
+    };
+
     private int _ticks;
 
     /**
@@ -159,6 +170,17 @@ public abstract class AbstractEffect  {
 
     }
 
+    /**
+     * A pure pump only merges constant values, independent of the effected state.<br>
+     * The stats of the pure pumps are applied and removed as deltas when the buff is added or removed.<br>
+     * The effects that don't override {@link #pump(Creature, Skill)} merge nothing, so they are pure as well.
+     *
+     * @return {@code true} if the pump always merges the same values, {@code false} otherwise
+     */
+    public boolean isPurePump() {
+        return !PUMP_OVERRIDDEN.get(getClass());
+    }
+
     /**
      * Get this effect's type.<br>
      * TODO: Remove.
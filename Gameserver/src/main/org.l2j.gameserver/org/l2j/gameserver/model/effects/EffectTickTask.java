@@ -20,6 +20,8 @@ package org.l2j.gameserver.model.effects;
 
 import org.l2j.gameserver.model.skills.BuffInfo;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Effect tick task.
  *
@@ -28,6 +30,7 @@ import org.l2j.gameserver.model.skills.BuffInfo;
 public class EffectTickTask implements Runnable {
     private final BuffInfo _info;
     private final AbstractEffect _effect;
+    private final AtomicBoolean _cancelled = new AtomicBoolean();
 
     /**
      * EffectTickTask constructor.
@@ -58,6 +61,27 @@ public class EffectTickTask implements Runnable {
         return _effect;
     }
 
+    /**
+     * Gets the effect ticks between each run.
+     *
+     * @return the ticks
+     */
+    public int getTicks() {
+        return _effect.getTicks();
+    }
+
+    /**
+     * Cancels this task, it will not run anymore.
+     *
+     * @return {@code true} if the task was not cancelled before
+     */
+    public boolean cancel() {
+        return _cancelled.compareAndSet(false, true);
+    }
+
+    public boolean isCancelled() {
+        return _cancelled.get();
+    }
 
     @Override
     public void run() {
@@ -25,8 +25,6 @@ import org.l2j.gameserver.model.events.returns.AbstractEventReturn;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Queue;
-
 /**
  * @author UnAfraid
  */
@@ -74,13 +72,24 @@ public final class EventDispatcher {
      */
     public <T extends AbstractEventReturn> T notifyEvent(IBaseEvent event, ListenersContainer container, Class<T> callbackClass) {
         try {
-            return Listeners.Global().hasListener(event.getType()) || ((container != null) && container.hasListener(event.getType())) ? notifyEventImpl(event, container, callbackClass) : null;
+            return hasListener(event.getType(), container) ? notifyEventImpl(event, container, callbackClass) : null;
         } catch (Exception e) {
             LOGGER.warn(getClass().getSimpleName() + ": Couldn't notify event " + event.getClass().getSimpleName(), e);
         }
         return null;
     }
 
+    /**
+     * Must be checked by the hot paths before creating the event, so nothing is allocated when nobody listens.
+     *
+     * @param type      the event type
+     * @param container the local listeners container, may be null
+     * @return true if there is a global or local listener for the event type
+     */
+    public boolean hasListener(EventType type, ListenersContainer container) {
+        return Listeners.Global().hasListener(type) || ((container != null) && container.hasListener(type));
+    }
+
     /**
      * Executing current listener notification asynchronously
      *
@@ -103,7 +112,11 @@ public final class EventDispatcher {
         }
 
         if (hasListeners) {
-            ThreadPool.execute(() -> notifyEventToMultipleContainers(event, containers, null));
+            final long submitTime = System.nanoTime();
+            ThreadPool.execute(() -> {
+                EventListenerProfiler.getInstance().recordAsyncDelay(event.getType(), System.nanoTime() - submitTime);
+                notifyEventToMultipleContainers(event, containers, null);
+            });
         }
     }
 
@@ -138,14 +151,14 @@ public final class EventDispatcher {
                 // Local listeners container first.
                 for (ListenersContainer container : containers) {
                     if ((callback == null) || !callback.abort()) {
-                        callback = notifyToListeners(container.getListeners(event.getType()), event, callbackClass, callback);
+                        callback = container.notifyListeners(event, callbackClass, callback);
                     }
                 }
             }
 
             // Global listener container.
             if ((callback == null) || !callback.abort()) {
-                callback = notifyToListeners(Listeners.Global().getListeners(event.getType()), event, callbackClass, callback);
+                callback = Listeners.Global().notifyListeners(event, callbackClass, callback);
             }
 
             return callback;
@@ -170,12 +183,12 @@ public final class EventDispatcher {
         T callback = null;
         // Local listener container first.
         if (container != null) {
-            callback = notifyToListeners(container.getListeners(event.getType()), event, callbackClass, callback);
+            callback = container.notifyListeners(event, callbackClass, callback);
         }
 
         // Global listener container.
         if ((callback == null) || !callback.abort()) {
-            callback = notifyToListeners(Listeners.Global().getListeners(event.getType()), event, callbackClass, callback);
+            callback = Listeners.Global().notifyListeners(event, callbackClass, callback);
         }
 
         return callback;
@@ -189,10 +202,16 @@ public final class EventDispatcher {
      * @param callback
      * @return
      */
-    private <T extends AbstractEventReturn> T notifyToListeners(Queue<AbstractEventListener> listeners, IBaseEvent event, Class<T> returnBackClass, T callback) {
+    <T extends AbstractEventReturn> T notifyToListeners(AbstractEventListener[] listeners, IBaseEvent event, Class<T> returnBackClass, T callback) {
         for (AbstractEventListener listener : listeners) {
             try {
-                final T rb = listener.executeEvent(event, returnBackClass);
+                final long start = System.nanoTime();
+                final T rb;
+                try {
+                    rb = listener.executeEvent(event, returnBackClass);
+                } finally {
+                    EventListenerProfiler.getInstance().recordExecution(event.getType(), listener, System.nanoTime() - start);
+                }
                 if (rb == null) {
                     continue;
                 } else if ((callback == null) || rb.override()) // Let's check if this listener wants to override previous return object or we simply don't have one
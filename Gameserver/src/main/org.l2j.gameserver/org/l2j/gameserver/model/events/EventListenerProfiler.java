@@ -0,0 +1,193 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.model.events;
+
+import org.l2j.gameserver.model.events.listeners.AbstractEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Collects the execution time of the event listeners by {@link EventType} and by listener owner class,
+ * and the time the async notifications wait on the thread pool queue.
+ *
+ * The times are kept in power of two histograms, so recording an execution is a few atomic increments
+ * and the percentiles are the upper bound of the bucket they fall in.
+ *
+ * @author JoeAlisson
+ */
+public final class EventListenerProfiler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventListenerProfiler.class);
+    private static final long SLOW_LISTENER_THRESHOLD = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Metrics[] executionByType;
+    private final Metrics[] asyncDelayByType;
+    private final Queue<Metrics> ownerMetrics = new ConcurrentLinkedQueue<>();
+    private final ClassValue<Metrics> executionByOwner = new ClassValue<>() {
+        @Override
+        protected Metrics computeValue(Class<?> type) {
+            final var metrics = new Metrics(type.getName());
+            ownerMetrics.add(metrics);
+            return metrics;
+        }
+    };
+
+    private EventListenerProfiler() {
+        final var types = EventType.values();
+        executionByType = new Metrics[types.length];
+        asyncDelayByType = new Metrics[types.length];
+        for (EventType type : types) {
+            executionByType[type.ordinal()] = new Metrics(type.name());
+            asyncDelayByType[type.ordinal()] = new Metrics(type.name());
+        }
+    }
+
+    void recordExecution(EventType type, AbstractEventListener listener, long nanos) {
+        executionByType[type.ordinal()].record(nanos);
+        final var owner = listener.getOwner();
+        executionByOwner.get(isNull(owner) ? listener.getClass() : owner.getClass()).record(nanos);
+
+        if(nanos > SLOW_LISTENER_THRESHOLD) {
+            LOGGER.warn("Slow listener of {} owned by {} took {} ms", type, owner, TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    void recordAsyncDelay(EventType type, long nanos) {
+        asyncDelayByType[type.ordinal()].record(nanos);
+    }
+
+    public CharSequence getEventTypeStats() {
+        final var stats = new StringBuilder("Event Listeners by Type\n");
+        stats.append("=================================================\n");
+        for (int i = 0; i < executionByType.length; i++) {
+            final var execution = executionByType[i];
+            if(execution.count.sum() > 0) {
+                execution.appendTo(stats);
+                final var delay = asyncDelayByType[i];
+                if(delay.count.sum() > 0) {
+                    stats.append("\t\tasync delay: p99 ").append(toMicros(delay.percentile(0.99))).append(" us, max ").append(toMicros(delay.max.get())).append(" us\n");
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * @param limit the max amount of owners
+     * @return the stats of the owners with the highest cumulative execution time
+     */
+    public CharSequence getOwnerStats(int limit) {
+        final List<Metrics> owners = new ArrayList<>(ownerMetrics);
+        owners.sort(Comparator.comparingLong((Metrics metrics) -> metrics.totalTime.sum()).reversed());
+
+        final var stats = new StringBuilder("Event Listeners by Owner\n");
+        stats.append("=================================================\n");
+        for (int i = 0; i < Math.min(limit, owners.size()); i++) {
+            owners.get(i).appendTo(stats);
+        }
+        return stats;
+    }
+
+    public void reset() {
+        for (int i = 0; i < executionByType.length; i++) {
+            executionByType[i].reset();
+            asyncDelayByType[i].reset();
+        }
+        ownerMetrics.forEach(Metrics::reset);
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    public static EventListenerProfiler getInstance() {
+        return Singleton.INSTANCE;
+    }
+
+    private static final class Metrics {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalTime = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(Long.SIZE);
+
+        private Metrics(String name) {
+            this.name = name;
+        }
+
+        private void record(long nanos) {
+            count.increment();
+            totalTime.add(nanos);
+            histogram.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(Math.max(nanos, 0)));
+            if(nanos > max.get()) {
+                max.accumulateAndGet(nanos, Math::max);
+            }
+        }
+
+        /**
+         * @param percentile the percentile between 0 and 1
+         * @return the upper bound of the bucket of the percentile
+         */
+        private long percentile(double percentile) {
+            final long target = (long) Math.ceil(count.sum() * percentile);
+            long accumulated = 0;
+            for (int i = 0; i < histogram.length(); i++) {
+                accumulated += histogram.get(i);
+                if(accumulated >= target) {
+                    return Math.min((1L << i) - 1, max.get());
+                }
+            }
+            return max.get();
+        }
+
+        private void appendTo(StringBuilder stats) {
+            final long invocations = count.sum();
+            final long total = totalTime.sum();
+            stats.append('\t').append(name).append(": ").append(invocations).append(" calls, total ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(total)).append(" ms, avg ")
+                    .append(toMicros(invocations > 0 ? total / invocations : 0)).append(" us, p99 ")
+                    .append(toMicros(percentile(0.99))).append(" us, max ").append(toMicros(max.get())).append(" us\n");
+        }
+
+        private void reset() {
+            count.reset();
+            totalTime.reset();
+            max.set(0);
+            for (int i = 0; i < histogram.length(); i++) {
+                histogram.set(i, 0);
+            }
+        }
+    }
+
+    private static class Singleton {
+        private static final EventListenerProfiler INSTANCE = new EventListenerProfiler();
+    }
+}
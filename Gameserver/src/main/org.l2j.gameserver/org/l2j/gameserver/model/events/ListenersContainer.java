@@ -18,20 +18,27 @@
  */
 package org.l2j.gameserver.model.events;
 
-import org.l2j.commons.util.EmptyQueue;
+import org.l2j.gameserver.model.events.impl.IBaseEvent;
 import org.l2j.gameserver.model.events.listeners.AbstractEventListener;
+import org.l2j.gameserver.model.events.returns.AbstractEventReturn;
 
-import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Predicate;
 
 /**
+ * Keeps the listeners of each {@link EventType} in an immutable array sorted by priority, indexed by the event type ordinal.
+ * The arrays are replaced on register/unregister, so the notification just iterates the current array.
+ *
  * @author UnAfraid
+ * @author JoeAlisson
  */
 public class ListenersContainer {
-    private volatile Map<EventType, Queue<AbstractEventListener>> _listeners = null;
+    private static final AbstractEventListener[] EMPTY_LISTENERS = new AbstractEventListener[0];
+    private static final int EVENT_TYPES = EventType.values().length;
+
+    private volatile AtomicReferenceArray<AbstractEventListener[]> _listeners = null;
 
     /**
      * Registers listener for a callback when specified event is executed.
@@ -43,7 +50,22 @@ public class ListenersContainer {
         if ((listener == null)) {
             throw new NullPointerException("Listener cannot be null!");
         }
-        getListeners().computeIfAbsent(listener.getType(), k -> new PriorityBlockingQueue<>()).add(listener);
+
+        final var listeners = getListeners();
+        final int index = listener.getType().ordinal();
+        synchronized (listeners) {
+            final var current = listeners.get(index);
+            int position = current.length;
+            while (position > 0 && current[position - 1].compareTo(listener) > 0) {
+                position--;
+            }
+
+            final var updated = new AbstractEventListener[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, position);
+            updated[position] = listener;
+            System.arraycopy(current, position, updated, position + 1, current.length - position);
+            listeners.set(index, updated);
+        }
         return listener;
     }
 
@@ -58,11 +80,28 @@ public class ListenersContainer {
             throw new NullPointerException("Listener cannot be null!");
         } else if (_listeners == null) {
             throw new NullPointerException("Listeners container is not initialized!");
-        } else if (!_listeners.containsKey(listener.getType())) {
-            throw new IllegalAccessError("Listeners container doesn't had " + listener.getType() + " event type added!");
         }
 
-        _listeners.get(listener.getType()).remove(listener);
+        final var listeners = _listeners;
+        final int index = listener.getType().ordinal();
+        synchronized (listeners) {
+            final var current = listeners.get(index);
+            int position = 0;
+            while (position < current.length && current[position] != listener) {
+                position++;
+            }
+
+            if (position < current.length) {
+                if (current.length == 1) {
+                    listeners.set(index, EMPTY_LISTENERS);
+                } else {
+                    final var updated = new AbstractEventListener[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, position);
+                    System.arraycopy(current, position + 1, updated, position, updated.length - position);
+                    listeners.set(index, updated);
+                }
+            }
+        }
         return listener;
     }
 
@@ -70,34 +109,65 @@ public class ListenersContainer {
      * @param type
      * @return {@code List} of {@link AbstractEventListener} by the specified type
      */
-    public Queue<AbstractEventListener> getListeners(EventType type) {
-        return (_listeners != null) && _listeners.containsKey(type) ? _listeners.get(type) : EmptyQueue.emptyQueue();
+    public List<AbstractEventListener> getListeners(EventType type) {
+        return List.of(getListenerArray(type));
+    }
+
+    /**
+     * The returned array is shared and must never be modified.
+     *
+     * @param type the event type
+     * @return the listeners registered on this container by the specified type, sorted by priority
+     */
+    public final AbstractEventListener[] getListenerArray(EventType type) {
+        final var listeners = _listeners;
+        return listeners == null ? EMPTY_LISTENERS : listeners.get(type.ordinal());
     }
 
     public void removeListenerIf(EventType type, Predicate<? super AbstractEventListener> filter) {
-        getListeners(type).stream().filter(filter).forEach(AbstractEventListener::unregisterMe);
+        Arrays.stream(getListenerArray(type)).filter(filter).forEach(AbstractEventListener::unregisterMe);
     }
 
     public void removeListenerIf(Predicate<? super AbstractEventListener> filter) {
         if (_listeners != null) {
-            getListeners().values().forEach(queue -> queue.stream().filter(filter).forEach(AbstractEventListener::unregisterMe));
+            for (EventType type : EventType.values()) {
+                removeListenerIf(type, filter);
+            }
         }
     }
 
     public boolean hasListener(EventType type) {
-        return !getListeners(type).isEmpty();
+        return getListenerArray(type).length > 0;
+    }
+
+    /**
+     * Notifies the listeners of this container by the event type.
+     * The containers that also notify listeners registered elsewhere override this method.
+     *
+     * @param event           the event
+     * @param returnBackClass the class of the expected return
+     * @param callback        the return of the previous notified listeners
+     * @param <T>             the type of return
+     * @return the return that may keep data from the first listener, or last that breaks notification.
+     */
+    public <T extends AbstractEventReturn> T notifyListeners(IBaseEvent event, Class<T> returnBackClass, T callback) {
+        return EventDispatcher.getInstance().notifyToListeners(getListenerArray(event.getType()), event, returnBackClass, callback);
     }
 
     /**
-     * Creates the listeners container map if doesn't exists.
+     * Creates the listeners container if doesn't exists.
      *
-     * @return the listeners container map.
+     * @return the listeners container.
      */
-    private Map<EventType, Queue<AbstractEventListener>> getListeners() {
+    private AtomicReferenceArray<AbstractEventListener[]> getListeners() {
         if (_listeners == null) {
             synchronized (this) {
                 if (_listeners == null) {
-                    _listeners = new ConcurrentHashMap<>();
+                    final var listeners = new AtomicReferenceArray<AbstractEventListener[]>(EVENT_TYPES);
+                    for (int i = 0; i < EVENT_TYPES; i++) {
+                        listeners.set(i, EMPTY_LISTENERS);
+                    }
+                    _listeners = listeners;
                 }
             }
         }
@@ -44,6 +44,7 @@ import org.l2j.gameserver.model.conditions.Condition;
 import org.l2j.gameserver.model.ensoul.EnsoulOption;
 import org.l2j.gameserver.model.entity.Castle;
 import org.l2j.gameserver.model.events.EventDispatcher;
+import org.l2j.gameserver.model.events.EventType;
 import org.l2j.gameserver.model.events.impl.character.player.OnPlayerAugment;
 import org.l2j.gameserver.model.events.impl.character.player.OnPlayerItemDrop;
 import org.l2j.gameserver.model.events.impl.character.player.OnPlayerItemPickup;
@@ -83,6 +84,7 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static org.l2j.commons.configuration.Configurator.getSettings;
 
 public final class Item extends WorldObject {
@@ -810,6 +812,17 @@ public final class Item extends WorldObject {
         this.enchantLevel = enchantLevel;
         applyEnchantStats();
         _storedInDb = false;
+        invalidateOwnerStats();
+    }
+
+    /**
+     * Drops the cached stats of the owner when the item is equipped, its enchant and attributes are used by the stat finalizers.
+     */
+    private void invalidateOwnerStats() {
+        final var owner = getActingPlayer();
+        if (isEquipped() && nonNull(owner)) {
+            owner.getStats().invalidateFinalValues();
+        }
     }
 
     /**
@@ -1039,6 +1052,7 @@ public final class Item extends WorldObject {
      */
     public void setAttribute(AttributeHolder holder, boolean updateDatabase) {
         applyAttribute(holder);
+        invalidateOwnerStats();
         if (updateDatabase) {
             updateItemElementals();
         }
@@ -1057,6 +1071,7 @@ public final class Item extends WorldObject {
         synchronized (_elementals) {
             _elementals.remove(type);
         }
+        invalidateOwnerStats();
 
         try (Connection con = DatabaseFactory.getInstance().getConnection();
              PreparedStatement ps = con.prepareStatement("DELETE FROM item_elementals WHERE itemId = ? AND elemType = ?")) {
@@ -1076,6 +1091,7 @@ public final class Item extends WorldObject {
         synchronized (_elementals) {
             _elementals.clear();
         }
+        invalidateOwnerStats();
 
         try (Connection con = DatabaseFactory.getInstance().getConnection();
              PreparedStatement ps = con.prepareStatement("DELETE FROM item_elementals WHERE itemId = ?")) {
@@ -1133,7 +1149,9 @@ public final class Item extends WorldObject {
         ThreadPool.execute(new ItemDropTask(this, dropper, x, y, z));
         if (GameUtils.isPlayer(dropper)) {
             // Notify to scripts
-            EventDispatcher.getInstance().notifyEventAsync(new OnPlayerItemDrop(dropper.getActingPlayer(), this, new Location(x, y, z)), getTemplate());
+            if (EventDispatcher.getInstance().hasListener(EventType.ON_PLAYER_ITEM_DROP, getTemplate())) {
+                EventDispatcher.getInstance().notifyEventAsync(new OnPlayerItemDrop(dropper.getActingPlayer(), this, new Location(x, y, z)), getTemplate());
+            }
         }
     }
 
@@ -18,27 +18,24 @@
  */
 package org.l2j.gameserver.model.skills;
 
-import org.l2j.commons.threading.ThreadPool;
-import org.l2j.gameserver.Config;
 import org.l2j.gameserver.engine.skill.api.Skill;
 import org.l2j.gameserver.model.EffectList;
 import org.l2j.gameserver.model.actor.Creature;
 import org.l2j.gameserver.model.actor.Summon;
 import org.l2j.gameserver.model.effects.AbstractEffect;
-import org.l2j.gameserver.model.effects.EffectTaskInfo;
 import org.l2j.gameserver.model.effects.EffectTickTask;
 import org.l2j.gameserver.model.item.instance.Item;
 import org.l2j.gameserver.model.options.Options;
 import org.l2j.gameserver.model.stats.Formulas;
 import org.l2j.gameserver.network.SystemMessageId;
 import org.l2j.gameserver.network.serverpackets.SystemMessage;
+import org.l2j.gameserver.taskmanager.EffectTickTaskManager;
 import org.l2j.gameserver.world.WorldTimeController;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
 
 import static org.l2j.gameserver.util.GameUtils.isPlayer;
 import static org.l2j.gameserver.util.GameUtils.isSummon;
@@ -67,7 +64,7 @@ public final class BuffInfo {
     /**
      * Effect tasks for ticks.
      */
-    private volatile Map<AbstractEffect, EffectTaskInfo> _tasks;
+    private volatile Map<AbstractEffect, EffectTickTask> _tasks;
 
     /**
      * Abnormal time.
@@ -130,10 +127,10 @@ public final class BuffInfo {
      * Adds an effect task to this buff info.<br>
      * Uses double-checked locking to initialize the map if it's necessary.
      *
-     * @param effect         the effect that owns the task
-     * @param effectTaskInfo the task info
+     * @param effect     the effect that owns the task
+     * @param effectTask the task
      */
-    private void addTask(AbstractEffect effect, EffectTaskInfo effectTaskInfo) {
+    private void addTask(AbstractEffect effect, EffectTickTask effectTask) {
         if (_tasks == null) {
             synchronized (this) {
                 if (_tasks == null) {
@@ -141,7 +138,7 @@ public final class BuffInfo {
                 }
             }
         }
-        _tasks.put(effect, effectTaskInfo);
+        _tasks.put(effect, effectTask);
     }
 
     /**
@@ -150,7 +147,7 @@ public final class BuffInfo {
      * @param effect the effect
      * @return the task
      */
-    private EffectTaskInfo getEffectTask(AbstractEffect effect) {
+    private EffectTickTask getEffectTask(AbstractEffect effect) {
         return (_tasks == null) ? null : _tasks.get(effect);
     }
 
@@ -331,13 +328,13 @@ public final class BuffInfo {
             // Call on start.
             effect.onStart(_effector, _effected, _skill, _item);
 
-            // If it's a continuous effect, if has ticks schedule a task with period, otherwise schedule a simple task to end it.
+            // If it's a continuous effect, if has ticks schedule a task on the effect clock.
             if (effect.getTicks() > 0) {
                 // The task for the effect ticks.
                 final EffectTickTask effectTask = new EffectTickTask(this, effect);
-                final ScheduledFuture<?> scheduledFuture = ThreadPool.scheduleAtFixedRate(effectTask, effect.getTicks() * Config.EFFECT_TICK_RATIO, effect.getTicks() * Config.EFFECT_TICK_RATIO);
                 // Adds the task for ticking.
-                addTask(effect, new EffectTaskInfo(effectTask, scheduledFuture));
+                addTask(effect, effectTask);
+                EffectTickTaskManager.getInstance().schedule(effectTask);
             }
         }
     }
@@ -357,9 +354,9 @@ public final class BuffInfo {
         }
 
         if (!continueForever && _skill.isToggle()) {
-            final EffectTaskInfo task = getEffectTask(effect);
+            final EffectTickTask task = getEffectTask(effect);
             if (task != null) {
-                task.getScheduledFuture().cancel(true); // Don't allow to finish current run.
+                EffectTickTaskManager.getInstance().cancel(task);
                 _effected.getEffectList().stopSkillEffects(true, _skill); // Remove the buff from the effect list.
             }
         }
@@ -368,8 +365,8 @@ public final class BuffInfo {
     public void finishEffects() {
         // Cancels the ticking task.
         if (_tasks != null) {
-            for (EffectTaskInfo effectTask : _tasks.values()) {
-                effectTask.getScheduledFuture().cancel(true); // Don't allow to finish current run.
+            for (EffectTickTask effectTask : _tasks.values()) {
+                EffectTickTaskManager.getInstance().cancel(effectTask);
             }
         }
 
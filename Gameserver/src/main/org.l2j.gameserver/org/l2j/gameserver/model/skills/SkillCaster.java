@@ -40,6 +40,7 @@ import org.l2j.gameserver.model.actor.Summon;
 import org.l2j.gameserver.model.actor.instance.Player;
 import org.l2j.gameserver.model.effects.EffectType;
 import org.l2j.gameserver.model.events.EventDispatcher;
+import org.l2j.gameserver.model.events.EventType;
 import org.l2j.gameserver.model.events.impl.character.OnCreatureSkillFinishCast;
 import org.l2j.gameserver.model.events.impl.character.OnCreatureSkillUse;
 import org.l2j.gameserver.model.events.impl.character.npc.OnNpcSkillSee;
@@ -357,7 +358,7 @@ public class SkillCaster implements Runnable {
             return false;
         }
 
-        final TerminateReturn term = EventDispatcher.getInstance().notifyEvent(new OnCreatureSkillUse(caster, skill, skill.isWithoutAction()), caster, TerminateReturn.class);
+        final TerminateReturn term = EventDispatcher.getInstance().hasListener(EventType.ON_CREATURE_SKILL_USE, caster) ? EventDispatcher.getInstance().notifyEvent(new OnCreatureSkillUse(caster, skill, skill.isWithoutAction()), caster, TerminateReturn.class) : null;
         if ((term != null) && term.terminate()) {
             caster.sendPacket(ActionFailed.STATIC_PACKET);
             return false;
@@ -680,7 +681,9 @@ public class SkillCaster implements Runnable {
         }
 
         // Notify skill is casted.
-        EventDispatcher.getInstance().notifyEvent(new OnCreatureSkillFinishCast(caster, target, _skill, _skill.isWithoutAction()), caster);
+        if (EventDispatcher.getInstance().hasListener(EventType.ON_CREATURE_SKILL_FINISH_CAST, caster)) {
+            EventDispatcher.getInstance().notifyEvent(new OnCreatureSkillFinishCast(caster, target, _skill, _skill.isWithoutAction()), caster);
+        }
 
         // Call the skill's effects and AI interraction and stuff.
         callSkill(caster, target, _targets, _skill, _item);
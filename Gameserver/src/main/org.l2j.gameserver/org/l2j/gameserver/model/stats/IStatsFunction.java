@@ -136,5 +136,16 @@ public interface IStatsFunction {
         return max(minValue, value);
     }
 
+    /**
+     * The finalized values are cached until the stats of the creature are recalculated.
+     * The finalizers that depend on context changing without a recalculation, like the time of the day,
+     * the zones or the movement, must not be cached.
+     *
+     * @return true if the finalized value can't be cached
+     */
+    default boolean isVolatile() {
+        return false;
+    }
+
     double calc(Creature creature, Optional<Double> base, Stat stat);
 }
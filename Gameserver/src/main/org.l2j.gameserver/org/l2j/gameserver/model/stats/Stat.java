@@ -291,6 +291,7 @@ public enum Stat {
     private final IStatsFunction _valueFinalizer;
     private final BiFunction<Double, Double, Double> _addFunction;
     private final BiFunction<Double, Double, Double> _mulFunction;
+    private final boolean cacheable;
     private boolean hasDefaultFinalizer ;
 
     Stat() {
@@ -307,6 +308,7 @@ public enum Stat {
         _valueFinalizer = valueFinalizer;
         _addFunction = addFunction;
         _mulFunction = mulFunction;
+        cacheable = !valueFinalizer.isVolatile();
     }
 
     public static Stream<Stat> stream() {
@@ -345,6 +347,13 @@ public enum Stat {
         return _mulFunction.apply(oldValue, value);
     }
 
+    /**
+     * @return true if the finalized value can be cached until the stats are recalculated
+     */
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
     public boolean hasDefaultFinalizer() {
         return hasDefaultFinalizer;
     }
@@ -19,7 +19,6 @@
 package org.l2j.gameserver.model.stats.finalizers;
 
 import org.l2j.gameserver.data.xml.impl.ArmorSetsData;
-import org.l2j.gameserver.engine.skill.api.SkillEngine;
 import org.l2j.gameserver.model.ArmorSet;
 import org.l2j.gameserver.model.actor.Creature;
 import org.l2j.gameserver.model.actor.instance.Player;
@@ -67,26 +66,6 @@ public class BaseStatsFinalizer implements IStatsFunction {
             baseValue += player.getStatsData().getValue(baseStat);
         }
 
-        var value = validateValue(creature, Stat.defaultValue(creature, stat, baseValue), 1, BaseStats.MAX_STAT_VALUE - 1);
-        if(isPlayer(creature)) {
-            checkEnhancementStatBonus(creature, baseStat, value);
-        }
-        return value;
-    }
-
-    private void checkEnhancementStatBonus(Creature creature, BaseStats baseStat, double value) {
-        var skillId = baseStat.getEnhancementSkillId();
-        var skillLevel = baseStat.getEnhancementSkillLevel(value);
-
-        if(skillLevel > 0) {
-            var existentLevel = creature.getSkillLevel(skillId);
-            if(existentLevel != skillLevel) {
-                final var skill = SkillEngine.getInstance().getSkill(skillId, skillLevel);
-                creature.addSkill(skill);
-            }
-        } else {
-            creature.removeSkill(skillId);
-        }
-
+        return validateValue(creature, Stat.defaultValue(creature, stat, baseValue), 1, BaseStats.MAX_STAT_VALUE - 1);
     }
 }
@@ -77,4 +77,9 @@ public class PAccuracyFinalizer implements IStatsFunction {
     public double calcEnchantBodyPartBonus(int enchantLevel) {
         return (0.2 * Math.max(enchantLevel - 3, 0)) + (0.2 * Math.max(enchantLevel - 6, 0));
     }
+
+    @Override
+    public boolean isVolatile() {
+        return true;
+    }
 }
@@ -50,4 +50,9 @@ public class RegenCPFinalizer implements IStatsFunction {
         }
         return Stat.defaultValue(player, stat, baseValue);
     }
+
+    @Override
+    public boolean isVolatile() {
+        return true;
+    }
 }
@@ -142,4 +142,9 @@ public class RegenHPFinalizer implements IStatsFunction {
 
         return Stat.defaultValue(creature, stat, baseValue);
     }
+
+    @Override
+    public boolean isVolatile() {
+        return true;
+    }
 }
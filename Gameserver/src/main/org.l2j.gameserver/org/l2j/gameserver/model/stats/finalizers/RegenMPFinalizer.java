@@ -112,4 +112,9 @@ public class RegenMPFinalizer implements IStatsFunction {
 
         return Stat.defaultValue(creature, stat, baseValue);
     }
+
+    @Override
+    public boolean isVolatile() {
+        return true;
+    }
 }
@@ -45,4 +45,9 @@ public class ShotsBonusFinalizer implements IStatsFunction {
         }
         return Stat.defaultValue(creature, stat, CommonUtil.constrain(baseValue, 1.0, 1.21));
     }
+
+    @Override
+    public boolean isVolatile() {
+        return true;
+    }
 }
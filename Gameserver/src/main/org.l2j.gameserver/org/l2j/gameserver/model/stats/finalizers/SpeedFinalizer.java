@@ -93,4 +93,9 @@ public class SpeedFinalizer implements IStatsFunction {
         }
         return baseValue;
     }
+
+    @Override
+    public boolean isVolatile() {
+        return true;
+    }
 }
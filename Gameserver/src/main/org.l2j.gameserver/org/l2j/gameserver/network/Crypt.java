@@ -18,16 +18,30 @@
  */
 package org.l2j.gameserver.network;
 
-import org.l2j.gameserver.model.events.EventDispatcher;
-import org.l2j.gameserver.model.events.impl.server.OnPacketReceived;
-import org.l2j.gameserver.model.events.impl.server.OnPacketSent;
+import org.l2j.gameserver.network.tap.PacketTapRegistry;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
 
 import static java.lang.Byte.toUnsignedInt;
+import static org.l2j.gameserver.network.tap.PacketDirection.INCOMING;
+import static org.l2j.gameserver.network.tap.PacketDirection.OUTGOING;
 
 /**
+ * The game packets cipher. Each byte is xored with the key and with the previous encrypted byte.
+ *
+ * The data is processed 8 bytes at a time, the key is read as two longs and the rolling xor
+ * of the encryption is solved inside each long with a prefix xor.
+ *
  * @author UnAfraid, Nos
+ * @author JoeAlisson
  */
 public class Crypt {
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long BYTE_BROADCAST = 0x0101010101010101L;
+
     private final GameClient _client;
     private final byte[] _inKey = new byte[16];
     private final byte[] outKey = new byte[16];
@@ -45,16 +59,28 @@ public class Crypt {
     public byte[] encrypt(final byte[] data, final int offset, final int size) {
         if(!_isEnabled) {
             _isEnabled = true;
-            onPacketSent(data);
+            onPacketSent(data, offset, size);
             return data;
         }
 
-        onPacketSent(data);
+        onPacketSent(data, offset, size);
+
+        final long lowKey = (long) LONG.get(outKey, 0);
+        final long highKey = (long) LONG.get(outKey, 8);
+        long encrypted = 0;
+        int i = 0;
+        for (final int words = size & ~7; i < words; i += Long.BYTES) {
+            long value = (long) LONG.get(data, offset + i) ^ ((i & 8) == 0 ? lowKey : highKey);
+            value ^= value << 8;
+            value ^= value << 16;
+            value ^= value << 32;
+            value ^= encrypted * BYTE_BROADCAST;
+            LONG.set(data, offset + i, value);
+            encrypted = value >>> 56;
+        }
 
-        int encrypted = 0;
-        for (int i = 0; i < size; i++) {
-            int raw = toUnsignedInt(data[offset + i]);
-            encrypted =  raw ^ outKey[i & 0x0F] ^ encrypted;
+        for (; i < size; i++) {
+            encrypted = toUnsignedInt(data[offset + i]) ^ toUnsignedInt(outKey[i & 0x0F]) ^ encrypted;
             data[offset + i] = (byte) encrypted;
         }
 
@@ -64,42 +90,45 @@ public class Crypt {
 
     public boolean decrypt(byte[] data, int offset, int size) {
         if(!_isEnabled) {
-            onPacketReceive(data);
+            onPacketReceive(data, offset, size);
             return true;
         }
 
-        int xOr = 0;
-        for(int i = 0; i < size; i++) {
-            int encrypted =  toUnsignedInt(data[offset + i]);
+        final long lowKey = (long) LONG.get(_inKey, 0);
+        final long highKey = (long) LONG.get(_inKey, 8);
+        long xOr = 0;
+        int i = 0;
+        for (final int words = size & ~7; i < words; i += Long.BYTES) {
+            final long encrypted = (long) LONG.get(data, offset + i);
+            LONG.set(data, offset + i, encrypted ^ ((i & 8) == 0 ? lowKey : highKey) ^ ((encrypted << 8) | xOr));
+            xOr = encrypted >>> 56;
+        }
+
+        for(; i < size; i++) {
+            final int encrypted = toUnsignedInt(data[offset + i]);
             data[offset + i] = (byte) (encrypted ^ _inKey[i & 15] ^ xOr);
-            xOr  = encrypted;
+            xOr = encrypted;
         }
 
         shiftKey(_inKey, size);
-        onPacketReceive(data);
+        onPacketReceive(data, offset, size);
         return true;
 
     }
 
-    private void onPacketSent(byte[] data) {
-        EventDispatcher.getInstance().notifyEvent(new OnPacketSent(_client, data));
+    private void onPacketSent(byte[] data, int offset, int size) {
+        if(PacketTapRegistry.isActive()) {
+            PacketTapRegistry.getInstance().tap(_client, OUTGOING, data, offset, size);
+        }
     }
 
-    private void onPacketReceive(byte[] data) {
-        EventDispatcher.getInstance().notifyEvent(new OnPacketReceived(_client, data));
+    private void onPacketReceive(byte[] data, int offset, int size) {
+        if(PacketTapRegistry.isActive()) {
+            PacketTapRegistry.getInstance().tap(_client, INCOMING, data, offset, size);
+        }
     }
 
     private void shiftKey(byte[] key, int size) {
-        int old = key[8] & 0xff;
-        old |= (key[9] << 8) & 0xff00;
-        old |= (key[10] << 0x10) & 0xff0000;
-        old |= (key[11] << 0x18) & 0xff000000;
-
-        old += size;
-
-        key[8] = (byte) (old & 0xff);
-        key[9] = (byte) ((old >> 0x08) & 0xff);
-        key[10] = (byte) ((old >> 0x10) & 0xff);
-        key[11] = (byte) ((old >> 0x18) & 0xff);
+        INT.set(key, 8, (int) INT.get(key, 8) + size);
     }
 }
@@ -44,6 +44,7 @@ import org.l2j.gameserver.network.authcomm.AuthServerCommunication;
 import org.l2j.gameserver.network.authcomm.gs2as.PlayerLogout;
 import org.l2j.gameserver.network.serverpackets.*;
 import org.l2j.gameserver.network.serverpackets.vip.ReceiveVipInfo;
+import org.l2j.gameserver.settings.ServerSettings;
 import org.l2j.gameserver.util.FloodProtectors;
 import org.l2j.gameserver.world.World;
 import org.slf4j.Logger;
@@ -57,6 +58,7 @@ import java.util.concurrent.locks.ReentrantLock;
 
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
+import static org.l2j.commons.configuration.Configurator.getSettings;
 import static org.l2j.commons.database.DatabaseAccess.getDAO;
 import static org.l2j.commons.util.Util.hash;
 import static org.l2j.commons.util.Util.isNotEmpty;
@@ -76,6 +78,7 @@ public final class GameClient extends Client<Connection<GameClient>> {
     private final FloodProtectors floodProtectors = new FloodProtectors(this);
 
     private final Crypt crypt;
+    private final OutboundPacketQueue outboundPackets;
     private String accountName;
     private SessionKey sessionId;
     private Player player;
@@ -95,6 +98,9 @@ public final class GameClient extends Client<Connection<GameClient>> {
     public GameClient(Connection<GameClient> connection) {
         super(connection);
         crypt = new Crypt(this);
+
+        final var serverSettings = getSettings(ServerSettings.class);
+        outboundPackets = serverSettings.coalesceOutboundPackets() ? new OutboundPacketQueue(this, serverSettings.outboundFlushThreshold()) : null;
     }
 
     public static void deleteCharByObjId(int objId) {
@@ -130,6 +136,10 @@ public final class GameClient extends Client<Connection<GameClient>> {
     protected void onDisconnection() {
         LOGGER_ACCOUNTING.debug("Client Disconnected: {}", this);
 
+        if(nonNull(outboundPackets)) {
+            outboundPackets.clear();
+        }
+
         if(state == ConnectionState.AUTHENTICATED) {
             AuthServerCommunication.getInstance().removeAuthedClient(getAccountName());
         } else {
@@ -153,6 +163,7 @@ public final class GameClient extends Client<Connection<GameClient>> {
     }
 
     public void close(ServerPacket packet) {
+        flushPackets();
         super.close(packet);
     }
 
@@ -216,10 +227,31 @@ public final class GameClient extends Client<Connection<GameClient>> {
             return;
         }
 
+        if(nonNull(outboundPackets) && state == ConnectionState.IN_GAME) {
+            outboundPackets.add(packet);
+            return;
+        }
+
         writePacket(packet);
         packet.runImpl(player);
     }
 
+    /**
+     * Writes the packets collected since the last flush, when the outbound packet coalescing is enabled.
+     */
+    public void flushPackets() {
+        if(nonNull(outboundPackets)) {
+            outboundPackets.flush();
+        }
+    }
+
+    void writeQueued(ServerPacket packet) {
+        if(!isDetached) {
+            writePacket(packet);
+            packet.runImpl(player);
+        }
+    }
+
 
     public void sendPacket(SystemMessageId smId) {
         sendPacket(SystemMessage.getSystemMessage(smId));
@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.network;
+
+import org.l2j.gameserver.network.serverpackets.ServerPacket;
+import org.l2j.gameserver.world.WorldTimeController;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the packets sent to a client during a game tick, so they are written together at the end of the tick.
+ *
+ * A queued packet superseded by a newer one with the same key (see {@link ServerPacket#getCoalesceKey()}) is dropped,
+ * saving its serialization, encryption and bytes. The packets are still written one by one, since each packet is framed
+ * and encrypted on its own.
+ *
+ * @author JoeAlisson
+ */
+final class OutboundPacketQueue {
+
+    private final GameClient client;
+    private final int flushThreshold;
+    private final Map<Object, Integer> keyIndexes = new HashMap<>();
+    private List<ServerPacket> packets;
+
+    OutboundPacketQueue(GameClient client, int flushThreshold) {
+        this.client = client;
+        this.flushThreshold = flushThreshold;
+        packets = new ArrayList<>(flushThreshold);
+    }
+
+    synchronized void add(ServerPacket packet) {
+        if(packets.isEmpty()) {
+            WorldTimeController.getInstance().scheduleFlush(client);
+        }
+
+        final var key = packet.getCoalesceKey();
+        if(key != null) {
+            final Integer superseded = keyIndexes.put(key, packets.size());
+            if(superseded != null) {
+                // the slot is kept, so the indexes of the other queued packets don't change
+                packets.set(superseded, null);
+            }
+        }
+
+        packets.add(packet);
+
+        if(packets.size() >= flushThreshold) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the queued packets keeping the order they were sent.
+     */
+    synchronized void flush() {
+        if(packets.isEmpty()) {
+            return;
+        }
+
+        final var toWrite = packets;
+        packets = new ArrayList<>(flushThreshold);
+        keyIndexes.clear();
+        for (ServerPacket packet : toWrite) {
+            if(packet != null) {
+                client.writeQueued(packet);
+            }
+        }
+    }
+
+    synchronized void clear() {
+        packets.clear();
+        keyIndexes.clear();
+    }
+}
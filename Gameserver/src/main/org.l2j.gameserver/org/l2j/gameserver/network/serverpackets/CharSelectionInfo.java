@@ -49,6 +49,7 @@ import static org.l2j.gameserver.enums.InventorySlot.TWO_HAND;
 /**
  * @author JoeAlisson
  */
+@RecipientDependent
 public class CharSelectionInfo extends ServerPacket {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CharSelectionInfo.class);
@@ -21,6 +21,7 @@ package org.l2j.gameserver.network.serverpackets;
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerExPacketId;
 
+@RecipientDependent
 public class ExBloodyCoinCount extends ServerPacket {
     @Override
     protected void writeImpl(GameClient client) {
@@ -24,6 +24,7 @@ import org.l2j.gameserver.network.ServerExPacketId;
 /**
  * @author GodKratos
  */
+@RecipientDependent
 public class ExBrPremiumState extends ServerPacket {
 
     @Override
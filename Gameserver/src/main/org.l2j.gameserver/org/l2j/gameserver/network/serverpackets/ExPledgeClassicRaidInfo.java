@@ -29,6 +29,7 @@ import static org.l2j.commons.util.Util.zeroIfNullOrElse;
 /**
  * @author JoeAlisson
  */
+@RecipientDependent
 public class ExPledgeClassicRaidInfo extends ServerPacket {
 
     @Override
@@ -1,5 +1,4 @@
 /*
- * Copyright © 2019 L2J Mobius
  * Copyright © 2019-2020 L2JOrg
  *
  * This file is part of the L2JOrg project.
@@ -17,29 +16,20 @@
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-package org.l2j.gameserver.model.effects;
+package org.l2j.gameserver.network.serverpackets;
 
-import java.util.concurrent.ScheduledFuture;
+import java.lang.annotation.*;
 
 /**
- * Effect Task Info DTO.
+ * Marks a packet which content depends on the client it's written to.
  *
- * @author Zoey76
+ * These packets are never shared in broadcast, they are written to each recipient, see {@link ServerPacket#forBroadcast()}.
+ *
+ * @author JoeAlisson
  */
-public class EffectTaskInfo {
-    private final EffectTickTask _effectTask;
-    private final ScheduledFuture<?> _scheduledFuture;
-
-    public EffectTaskInfo(EffectTickTask effectTask, ScheduledFuture<?> scheduledFuture) {
-        _effectTask = effectTask;
-        _scheduledFuture = scheduledFuture;
-    }
-
-    public EffectTickTask getEffectTask() {
-        return _effectTask;
-    }
-
-    public ScheduledFuture<?> getScheduledFuture() {
-        return _scheduledFuture;
-    }
+@Documented
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RecipientDependent {
 }
@@ -38,6 +38,13 @@ public abstract class ServerPacket extends WritablePacket<GameClient> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ServerPacket.class);
 
+    private static final ClassValue<Boolean> SHAREABLE = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return !type.isAnnotationPresent(RecipientDependent.class);
+        }
+    };
+
     private final InventorySlot[] PAPERDOLL_ORDER_AUGMENT = {
         RIGHT_HAND,
         LEFT_HAND,
@@ -62,6 +69,21 @@ public abstract class ServerPacket extends WritablePacket<GameClient> {
         player.sendPacket(this);
     }
 
+    /**
+     * Prepares this packet to be sent to several clients.
+     *
+     * The body is serialized only once into a shared buffer and each client just copies and encrypts it.
+     * Packets annotated with {@link RecipientDependent} are still written to each client.
+     *
+     * @return this packet
+     */
+    public final ServerPacket forBroadcast() {
+        if(SHAREABLE.get(getClass())) {
+            sendInBroadcast(true);
+        }
+        return this;
+    }
+
     @Override
     protected boolean write(GameClient client) {
         try {
@@ -74,6 +96,16 @@ public abstract class ServerPacket extends WritablePacket<GameClient> {
         return false;
     }
 
+    /**
+     * Used by the outbound packet coalescing to drop a queued packet which content is replaced by a newer one.<br>
+     * A queued packet is dropped when a newer packet with an equal key is sent in the same tick.
+     *
+     * @return the key of the content of this packet or null if the packet is never superseded
+     */
+    public Object getCoalesceKey() {
+        return null;
+    }
+
     public void runImpl(Player player) {
 
     }
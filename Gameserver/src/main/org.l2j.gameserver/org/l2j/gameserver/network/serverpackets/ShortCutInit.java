@@ -25,6 +25,7 @@ import org.l2j.gameserver.network.ServerPacketId;
 /**
  * @author JoeAlisson
  */
+@RecipientDependent
 public final class ShortCutInit extends ServerPacket {
 
     @Override
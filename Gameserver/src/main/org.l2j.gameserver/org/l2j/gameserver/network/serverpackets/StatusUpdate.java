@@ -37,6 +37,7 @@ public final class StatusUpdate extends ServerPacket {
     private final Map<StatusUpdateType, Integer> updates = new EnumMap<>(StatusUpdateType.class);
     private int casterObjectId = 0;
     private boolean isVisible = false;
+    private CoalesceKey coalesceKey;
 
     public StatusUpdate(WorldObject object) {
         objectId = object.getObjectId();
@@ -63,6 +64,21 @@ public final class StatusUpdate extends ServerPacket {
         return !updates.isEmpty();
     }
 
+    /**
+     * The updates of the same object, by the same caster and with the same types are superseded by the newest one.
+     */
+    @Override
+    public Object getCoalesceKey() {
+        if (coalesceKey == null) {
+            int types = 0;
+            for (StatusUpdateType type : updates.keySet()) {
+                types |= 1 << type.ordinal();
+            }
+            coalesceKey = new CoalesceKey(objectId, casterObjectId, types);
+        }
+        return coalesceKey;
+    }
+
     @Override
     public void writeImpl(GameClient client) {
         writeId(ServerPacketId.STATUS_UPDATE);
@@ -81,4 +97,26 @@ public final class StatusUpdate extends ServerPacket {
         return new StatusUpdate(object).addUpdate(type, value);
     }
 
+
+    private static final class CoalesceKey {
+        private final int objectId;
+        private final int casterObjectId;
+        private final int types;
+
+        private CoalesceKey(int objectId, int casterObjectId, int types) {
+            this.objectId = objectId;
+            this.casterObjectId = casterObjectId;
+            this.types = types;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CoalesceKey other && other.objectId == objectId && other.casterObjectId == casterObjectId && other.types == types;
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * objectId + casterObjectId) * 31 + types;
+        }
+    }
 }
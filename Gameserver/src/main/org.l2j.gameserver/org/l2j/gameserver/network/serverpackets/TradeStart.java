@@ -33,6 +33,7 @@ import static java.util.Objects.nonNull;
 /**
  * @author JoeAlisson
  */
+@RecipientDependent
 public final class TradeStart extends AbstractItemPacket {
 
     private static final byte PARTNER_INFO = 1;
@@ -22,10 +22,12 @@ import org.l2j.gameserver.model.commission.CommissionItem;
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerExPacketId;
 import org.l2j.gameserver.network.serverpackets.AbstractItemPacket;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 
 /**
  * @author NosBit
  */
+@RecipientDependent
 public class ExResponseCommissionBuyInfo extends AbstractItemPacket {
     public static final ExResponseCommissionBuyInfo FAILED = new ExResponseCommissionBuyInfo(null);
 
@@ -22,6 +22,7 @@ import org.l2j.gameserver.model.commission.CommissionItem;
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerExPacketId;
 import org.l2j.gameserver.network.serverpackets.AbstractItemPacket;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 
 import java.time.Instant;
 import java.util.Collections;
@@ -30,6 +31,7 @@ import java.util.List;
 /**
  * @author NosBit
  */
+@RecipientDependent
 public class ExResponseCommissionList extends AbstractItemPacket {
     public static final int MAX_CHUNK_SIZE = 120;
 
@@ -21,12 +21,14 @@ package org.l2j.gameserver.network.serverpackets.elementalspirits;
 import org.l2j.gameserver.api.elemental.ElementalType;
 import org.l2j.gameserver.engine.elemental.AbsorbItem;
 import org.l2j.gameserver.network.GameClient;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 import org.l2j.gameserver.network.serverpackets.ServerPacket;
 
 import static java.util.Objects.isNull;
 import static org.l2j.commons.util.Util.zeroIfNullOrElse;
 import static org.l2j.gameserver.network.ServerExPacketId.EX_ELEMENTAL_SPIRIT_ABSORB_INFO;
 
+@RecipientDependent
 public class ElementalSpiritAbsorbInfo extends ServerPacket {
 
     private final byte type;
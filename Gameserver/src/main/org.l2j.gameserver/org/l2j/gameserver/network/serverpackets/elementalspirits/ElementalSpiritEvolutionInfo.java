@@ -21,11 +21,13 @@ package org.l2j.gameserver.network.serverpackets.elementalspirits;
 import org.l2j.gameserver.api.elemental.ElementalType;
 import org.l2j.gameserver.model.holders.ItemHolder;
 import org.l2j.gameserver.network.GameClient;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 import org.l2j.gameserver.network.serverpackets.ServerPacket;
 
 import static java.util.Objects.isNull;
 import static org.l2j.gameserver.network.ServerExPacketId.EX_ELEMENTAL_SPIRIT_EVOLUTION_INFO;
 
+@RecipientDependent
 public class ElementalSpiritEvolutionInfo extends ServerPacket {
 
     private final byte type;
@@ -21,10 +21,12 @@ package org.l2j.gameserver.network.serverpackets.elementalspirits;
 import org.l2j.gameserver.api.elemental.ElementalType;
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerExPacketId;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 import org.l2j.gameserver.network.serverpackets.ServerPacket;
 
 import static java.util.Objects.isNull;
 
+@RecipientDependent
 public class ElementalSpiritExtractInfo extends ServerPacket {
 
     private final byte type;
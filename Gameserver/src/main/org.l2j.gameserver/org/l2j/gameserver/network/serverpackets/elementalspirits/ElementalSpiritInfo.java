@@ -21,9 +21,11 @@ package org.l2j.gameserver.network.serverpackets.elementalspirits;
 import org.l2j.gameserver.api.elemental.ElementalSpirit;
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerExPacketId;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 
 import static java.util.Objects.isNull;
 
+@RecipientDependent
 public class ElementalSpiritInfo extends AbstractElementalSpiritPacket {
 
     private final byte spiritType;
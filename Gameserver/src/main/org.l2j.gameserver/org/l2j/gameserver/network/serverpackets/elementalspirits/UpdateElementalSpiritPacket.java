@@ -20,9 +20,11 @@ package org.l2j.gameserver.network.serverpackets.elementalspirits;
 
 import org.l2j.gameserver.api.elemental.ElementalType;
 import org.l2j.gameserver.network.GameClient;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 
 import static java.util.Objects.isNull;
 
+@RecipientDependent
 public abstract class UpdateElementalSpiritPacket extends AbstractElementalSpiritPacket {
 
     private final byte type;
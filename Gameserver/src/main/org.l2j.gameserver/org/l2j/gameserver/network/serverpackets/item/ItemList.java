@@ -23,6 +23,7 @@ import org.l2j.gameserver.model.item.instance.Item;
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerPacketId;
 import org.l2j.gameserver.network.serverpackets.AbstractItemPacket;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 import org.l2j.gameserver.network.serverpackets.ServerPacket;
 
 import java.util.Collection;
@@ -75,6 +76,7 @@ public final class ItemList {
         }
     }
 
+    @RecipientDependent
     private static final class List extends AbstractItemPacket {
 
         private final Collection<Item> items;
@@ -27,6 +27,7 @@ import org.l2j.gameserver.model.item.instance.Item;
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerPacketId;
 import org.l2j.gameserver.network.serverpackets.AbstractItemPacket;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 import org.l2j.gameserver.network.serverpackets.ServerPacket;
 
 import java.util.Collection;
@@ -95,6 +96,7 @@ public final class WarehouseDepositList {
         }
     }
 
+    @RecipientDependent
     private static class DepositableList extends AbstractItemPacket {
         private final Collection<Item> depositableItems;
 
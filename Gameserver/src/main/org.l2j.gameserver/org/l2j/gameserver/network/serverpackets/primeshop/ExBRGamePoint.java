@@ -20,11 +20,13 @@ package org.l2j.gameserver.network.serverpackets.primeshop;
 
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerExPacketId;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 import org.l2j.gameserver.network.serverpackets.ServerPacket;
 
 /**
  * @author Gnacik, UnAfraid
  */
+@RecipientDependent
 public class ExBRGamePoint extends ServerPacket {
 
     @Override
@@ -21,6 +21,7 @@ package org.l2j.gameserver.network.serverpackets.pvpbook;
 import org.l2j.gameserver.data.database.data.KillerData;
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerExPacketId;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 import org.l2j.gameserver.network.serverpackets.ServerPacket;
 
 import java.util.List;
@@ -28,6 +29,7 @@ import java.util.List;
 /**
  * @author JoeAlisson
  */
+@RecipientDependent
 public class PvpBookList extends ServerPacket {
 
     private final List<KillerData> killers;
@@ -23,6 +23,7 @@ import org.l2j.gameserver.data.database.data.RankData;
 import org.l2j.gameserver.model.actor.instance.Player;
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerExPacketId;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 import org.l2j.gameserver.network.serverpackets.ServerPacket;
 
 import java.util.Collections;
@@ -33,6 +34,7 @@ import static java.util.Objects.nonNull;
 /**
  * @author JoeAlisson
  */
+@RecipientDependent
 public class ExRankList extends ServerPacket {
 
     private final int race;
@@ -21,11 +21,13 @@ package org.l2j.gameserver.network.serverpackets.rank;
 import org.l2j.gameserver.data.database.RankManager;
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerExPacketId;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 import org.l2j.gameserver.network.serverpackets.ServerPacket;
 
 /**
  * @author JoeAlisson
  */
+@RecipientDependent
 public class ExRankingCharHistory extends ServerPacket {
 
     @Override
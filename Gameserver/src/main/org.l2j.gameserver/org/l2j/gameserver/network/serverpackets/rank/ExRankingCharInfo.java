@@ -21,6 +21,7 @@ package org.l2j.gameserver.network.serverpackets.rank;
 import org.l2j.gameserver.data.database.RankManager;
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerExPacketId;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 import org.l2j.gameserver.network.serverpackets.ServerPacket;
 
 import static java.util.Objects.isNull;
@@ -28,6 +29,7 @@ import static java.util.Objects.isNull;
 /**
  * @author JoeAlisson
  */
+@RecipientDependent
 public class ExRankingCharInfo extends ServerPacket {
 
     @Override
@@ -20,11 +20,13 @@ package org.l2j.gameserver.network.serverpackets.teleport;
 
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerExPacketId;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 import org.l2j.gameserver.network.serverpackets.ServerPacket;
 
 /**
  * @author joeAlisson
  */
+@RecipientDependent
 public class ExTeleportFavoritesList extends ServerPacket {
 
     private final boolean open;
@@ -21,11 +21,13 @@ package org.l2j.gameserver.network.serverpackets.vip;
 import org.l2j.gameserver.engine.vip.VipEngine;
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerExPacketId;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 import org.l2j.gameserver.network.serverpackets.ServerPacket;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
+@RecipientDependent
 public class ReceiveVipInfo extends ServerPacket {
 
     @Override
@@ -20,8 +20,10 @@ package org.l2j.gameserver.network.serverpackets.vip;
 
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerExPacketId;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 import org.l2j.gameserver.network.serverpackets.ServerPacket;
 
+@RecipientDependent
 public class ReceiveVipLuckyGameInfo extends ServerPacket {
 
     @Override
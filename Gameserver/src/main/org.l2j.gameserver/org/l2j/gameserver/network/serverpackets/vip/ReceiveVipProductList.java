@@ -23,10 +23,12 @@ import org.l2j.gameserver.model.primeshop.PrimeShopItem;
 import org.l2j.gameserver.model.primeshop.PrimeShopProduct;
 import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.ServerExPacketId;
+import org.l2j.gameserver.network.serverpackets.RecipientDependent;
 import org.l2j.gameserver.network.serverpackets.ServerPacket;
 
 import static java.util.Objects.nonNull;
 
+@RecipientDependent
 public class ReceiveVipProductList extends ServerPacket {
 
     @Override
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.network.tap;
+
+/**
+ * @author JoeAlisson
+ */
+public enum PacketDirection {
+    INCOMING(0xD0),
+    OUTGOING(0xFE);
+
+    private final int exOpcode;
+
+    PacketDirection(int exOpcode) {
+        this.exOpcode = exOpcode;
+    }
+
+    /**
+     * @return the first byte of the extended packets, followed by their ex opcode
+     */
+    public int getExOpcode() {
+        return exOpcode;
+    }
+
+    /**
+     * @param data the packet data
+     * @param offset the position of the opcode
+     * @param size the packet size
+     * @return the ex opcode of the packet or -1 if it isn't an extended packet
+     */
+    int exOpcodeOf(byte[] data, int offset, int size) {
+        if(size < 3 || Byte.toUnsignedInt(data[offset]) != exOpcode) {
+            return -1;
+        }
+        return Byte.toUnsignedInt(data[offset + 1]) | (Byte.toUnsignedInt(data[offset + 2]) << 8);
+    }
+}
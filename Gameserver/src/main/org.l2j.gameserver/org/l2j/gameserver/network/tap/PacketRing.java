@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.network.tap;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded ring buffer with many producers, the network threads, and a single consumer.
+ *
+ * When the consumer can't keep up the new packets are discarded, the producers never wait.
+ *
+ * @author JoeAlisson
+ */
+final class PacketRing {
+
+    private final AtomicReferenceArray<TappedPacket> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long head;
+
+    PacketRing(int capacity) {
+        final int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    boolean offer(TappedPacket packet) {
+        long current;
+        do {
+            current = tail.get();
+            if(current - head > mask) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!tail.compareAndSet(current, current + 1));
+
+        slots.lazySet((int) (current & mask), packet);
+        return true;
+    }
+
+    /**
+     * Must be called only by the consumer.
+     *
+     * @return the oldest published packet or null
+     */
+    TappedPacket poll() {
+        final long current = head;
+        final int index = (int) (current & mask);
+        final var packet = slots.get(index);
+        if(packet != null) {
+            slots.lazySet(index, null);
+            head = current + 1;
+        }
+        return packet;
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+}
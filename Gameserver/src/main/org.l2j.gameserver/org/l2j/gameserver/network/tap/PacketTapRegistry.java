@@ -0,0 +1,202 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.network.tap;
+
+import org.l2j.commons.threading.ThreadPool;
+import org.l2j.gameserver.network.GameClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Captures the network traffic for the registered {@link PacketTap}s.
+ *
+ * The network threads only check {@link #isActive()}, a single volatile read, while there is no tap registered.
+ * Otherwise the packets with an opcode wanted by any tap are copied to a ring buffer and delivered to the taps
+ * by a scheduled task. The extended packets are matched by their ex opcode, the pair of the direction's
+ * {@link PacketDirection#getExOpcode()} and the short following it.
+ *
+ * @author JoeAlisson
+ */
+public final class PacketTapRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PacketTapRegistry.class);
+
+    private static final int RING_CAPACITY = 1 << 14;
+    private static final int DRAIN_INTERVAL = 50;
+    private static final int OPCODES = 256;
+
+    private static volatile boolean active;
+
+    private final PacketRing ring = new PacketRing(RING_CAPACITY);
+    private final List<Registration> registrations = new ArrayList<>();
+    private volatile Registration[] snapshot = new Registration[0];
+    private volatile BitSet[] filters = newFilters();
+    private ScheduledFuture<?> drainTask;
+    private long reportedDrops;
+
+    private PacketTapRegistry() {
+    }
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Registers a tap for the packets of the direction.
+     *
+     * @param tap the packet consumer
+     * @param direction the direction of the packets
+     * @param opcodes the first byte of the wanted packets, all packets when empty.
+     *                The {@link PacketDirection#getExOpcode()} matches all the extended packets
+     */
+    public synchronized void register(PacketTap tap, PacketDirection direction, int... opcodes) {
+        final var filter = new BitSet();
+        if(opcodes.length == 0) {
+            filter.set(0, OPCODES);
+        } else {
+            for (int opcode : opcodes) {
+                filter.set(opcode & 0xFF);
+            }
+        }
+        registrations.add(new Registration(tap, direction, filter));
+        update();
+    }
+
+    /**
+     * Registers a tap for the extended packets of the direction.
+     *
+     * @param tap the packet consumer
+     * @param direction the direction of the packets
+     * @param exOpcodes the ex opcodes of the wanted packets
+     */
+    public synchronized void registerEx(PacketTap tap, PacketDirection direction, int... exOpcodes) {
+        final var filter = new BitSet();
+        for (int exOpcode : exOpcodes) {
+            filter.set(OPCODES + (exOpcode & 0xFFFF));
+        }
+        registrations.add(new Registration(tap, direction, filter));
+        update();
+    }
+
+    public synchronized void unregister(PacketTap tap) {
+        if(registrations.removeIf(registration -> registration.tap == tap)) {
+            update();
+        }
+    }
+
+    private void update() {
+        final var updatedFilters = newFilters();
+        for (Registration registration : registrations) {
+            updatedFilters[registration.direction.ordinal()].or(registration.opcodes);
+        }
+        filters = updatedFilters;
+        snapshot = registrations.toArray(Registration[]::new);
+
+        active = !registrations.isEmpty();
+        if(active && isNull(drainTask)) {
+            drainTask = ThreadPool.scheduleAtFixedDelay(this::drain, DRAIN_INTERVAL, DRAIN_INTERVAL);
+        }
+    }
+
+    /**
+     * Copies the packet to the ring buffer if any tap wants it.
+     *
+     * @param client the client sending or receiving the packet
+     * @param direction the packet direction
+     * @param data the decrypted data
+     * @param offset the position of the opcode
+     * @param size the packet size
+     */
+    public void tap(GameClient client, PacketDirection direction, byte[] data, int offset, int size) {
+        if(size <= 0 || !matches(filters[direction.ordinal()], Byte.toUnsignedInt(data[offset]), direction.exOpcodeOf(data, offset, size))) {
+            return;
+        }
+
+        final var copy = new byte[size];
+        System.arraycopy(data, offset, copy, 0, size);
+        ring.offer(new TappedPacket(client, direction, copy, System.currentTimeMillis()));
+    }
+
+    /**
+     * The only consumer of the ring. The task is never cancelled, so a drain can't overlap another one,
+     * while there is no tap registered the ring is empty and it does nothing.
+     */
+    private void drain() {
+        TappedPacket packet;
+        while (nonNull(packet = ring.poll())) {
+            final int opcode = packet.getOpcode();
+            final int exOpcode = packet.getExOpcode();
+            for (Registration registration : snapshot) {
+                if(registration.direction == packet.getDirection() && matches(registration.opcodes, opcode, exOpcode)) {
+                    try {
+                        registration.tap.onPacket(packet);
+                    } catch (Exception e) {
+                        LOGGER.error("Error on packet tap {}", registration.tap, e);
+                    }
+                }
+            }
+        }
+
+        final long drops = ring.dropped();
+        if(drops > reportedDrops) {
+            LOGGER.warn("Packet taps are not keeping up, {} packets discarded", drops - reportedDrops);
+            reportedDrops = drops;
+        }
+    }
+
+    private static boolean matches(BitSet filter, int opcode, int exOpcode) {
+        return filter.get(opcode) || (exOpcode >= 0 && filter.get(OPCODES + exOpcode));
+    }
+
+    private static BitSet[] newFilters() {
+        final var newFilters = new BitSet[PacketDirection.values().length];
+        for (int i = 0; i < newFilters.length; i++) {
+            newFilters[i] = new BitSet();
+        }
+        return newFilters;
+    }
+
+    public static PacketTapRegistry getInstance() {
+        return Singleton.INSTANCE;
+    }
+
+    private static final class Registration {
+        private final PacketTap tap;
+        private final PacketDirection direction;
+        private final BitSet opcodes;
+
+        private Registration(PacketTap tap, PacketDirection direction, BitSet opcodes) {
+            this.tap = tap;
+            this.direction = direction;
+            this.opcodes = opcodes;
+        }
+    }
+
+    private static final class Singleton {
+        private static final PacketTapRegistry INSTANCE = new PacketTapRegistry();
+    }
+}
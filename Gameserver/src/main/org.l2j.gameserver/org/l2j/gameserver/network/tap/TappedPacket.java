@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.network.tap;
+
+import org.l2j.gameserver.network.GameClient;
+
+/**
+ * A copy of a packet captured by the {@link PacketTapRegistry}.
+ *
+ * @author JoeAlisson
+ */
+public final class TappedPacket {
+
+    private final GameClient client;
+    private final PacketDirection direction;
+    private final byte[] data;
+    private final long time;
+
+    TappedPacket(GameClient client, PacketDirection direction, byte[] data, long time) {
+        this.client = client;
+        this.direction = direction;
+        this.data = data;
+        this.time = time;
+    }
+
+    public GameClient getClient() {
+        return client;
+    }
+
+    public PacketDirection getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return the first byte of the packet
+     */
+    public int getOpcode() {
+        return Byte.toUnsignedInt(data[0]);
+    }
+
+    /**
+     * @return the ex opcode of the packet or -1 if it isn't an extended packet
+     */
+    public int getExOpcode() {
+        return direction.exOpcodeOf(data, 0, data.length);
+    }
+
+    /**
+     * @return the decrypted packet data, starting at the opcode
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * @return the time in millis the packet was captured
+     */
+    public long getTime() {
+        return time;
+    }
+}
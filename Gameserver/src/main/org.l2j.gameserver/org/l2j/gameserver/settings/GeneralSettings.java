@@ -52,6 +52,7 @@ public class GeneralSettings implements Settings {
     private boolean destroyEquipableItem;
     private IntSet protectedItems;
     private boolean clearDroppedItemsAfterLoad;
+    private boolean trackKnownPlayers;
 
     @Override
     public void load(SettingsFile settingsFile) {
@@ -85,6 +86,8 @@ public class GeneralSettings implements Settings {
         defaultAccessLevel = settingsFile.getInteger("DefaultAccessLevel", 0);
 
         autoSavePlayerTime = settingsFile.getInteger("PlayerDataStoreInterval", 20);
+
+        trackKnownPlayers = settingsFile.getBoolean("TrackKnownPlayers", false);
      }
 
     public int banChatAdenaAdsReportCount() {
@@ -174,4 +177,8 @@ public class GeneralSettings implements Settings {
     public int autoSavePlayerTime() {
         return autoSavePlayerTime;
     }
+
+    public boolean trackKnownPlayers() {
+        return trackKnownPlayers;
+    }
 }
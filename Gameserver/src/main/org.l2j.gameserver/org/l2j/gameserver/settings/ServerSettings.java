@@ -44,12 +44,15 @@ public class ServerSettings implements Settings {
 
     private int scheduledPoolSize;
     private int threadPoolSize;
+    private boolean useTimingWheel;
     private int[] acceptedProtocols;
     private boolean scheduleRestart;
     private boolean useDeadLockDetector;
     private int deadLockDetectorInterval;
     private boolean restartOnDeadLock;
     private int maxPlayers;
+    private boolean coalesceOutboundPackets;
+    private int outboundFlushThreshold;
 
     @Override
     public void load(SettingsFile settingsFile) {
@@ -60,6 +63,8 @@ public class ServerSettings implements Settings {
         authServerPort = settingsFile.getShort("LoginPort", (short) 9014);
 
         port = settingsFile.getShort("GameserverPort", (short) 7777);
+        coalesceOutboundPackets = settingsFile.getBoolean("CoalesceOutboundPackets", false);
+        outboundFlushThreshold = Math.max(1, settingsFile.getInteger("OutboundPacketsFlushThreshold", 64));
 
         type = ServerType.maskOf(settingsFile.getStringArray("ServerListType"));
 
@@ -74,6 +79,7 @@ public class ServerSettings implements Settings {
 
         scheduledPoolSize = determinePoolSize(settingsFile, "ScheduledThreadPoolSize", processors);
         threadPoolSize = determinePoolSize(settingsFile, "ThreadPoolSize", processors);
+        useTimingWheel = settingsFile.getBoolean("UseTimingWheel", false);
         acceptedProtocols =  settingsFile.getIntegerArray("AllowedProtocolRevisions", ";");
 
         scheduleRestart = settingsFile.getBoolean("ServerRestartScheduleEnabled", false);
@@ -152,6 +158,10 @@ public class ServerSettings implements Settings {
         return threadPoolSize;
     }
 
+    public boolean useTimingWheel() {
+        return useTimingWheel;
+    }
+
     public int[] acceptedProtocols() {
         return acceptedProtocols;
     }
@@ -172,5 +182,13 @@ public class ServerSettings implements Settings {
         return restartOnDeadLock;
     }
 
+    public boolean coalesceOutboundPackets() {
+        return coalesceOutboundPackets;
+    }
+
+    public int outboundFlushThreshold() {
+        return outboundFlushThreshold;
+    }
+
 
 }
@@ -18,18 +18,16 @@
  */
 package org.l2j.gameserver.taskmanager;
 
-import org.l2j.commons.threading.ThreadPool;
 import org.l2j.gameserver.model.actor.Creature;
 import org.l2j.gameserver.model.actor.Summon;
 import org.l2j.gameserver.network.serverpackets.AutoAttackStop;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static org.l2j.gameserver.util.GameUtils.isPlayer;
 import static org.l2j.gameserver.util.GameUtils.isSummon;
 
@@ -37,18 +35,23 @@ import static org.l2j.gameserver.util.GameUtils.isSummon;
 /**
  * Attack stance task manager.
  *
+ * Each hit only refreshes the expiration of the actor's stance. The deadline queue is touched when the stance starts
+ * and when a deadline is due, then a refreshed stance is scheduled again to its new expiration.
+ *
  * @author Luca Baldi, Zoey76
  */
 public class AttackStanceTaskManager {
     public static final long COMBAT_TIME = 15_000;
-    protected static final Logger LOGGER = LoggerFactory.getLogger(AttackStanceTaskManager.class);
-    protected static final Map<Creature, Long> _attackStanceTasks = new ConcurrentHashMap<>();
+    private static final long CLOSED = -1;
+
+    private final Map<Creature, AtomicLong> stances = new ConcurrentHashMap<>();
+    private final DeadlineQueue<Creature> attackStanceTasks;
 
     /**
      * Instantiates a new attack stance task manager.
      */
     private AttackStanceTaskManager() {
-        ThreadPool.scheduleAtFixedRate(new FightModeScheduler(), 0, 1000);
+        attackStanceTasks = DeadlineTaskManager.getInstance().createQueue("AttackStance", this::onDeadline);
     }
 
     /**
@@ -57,8 +60,65 @@ public class AttackStanceTaskManager {
      * @param actor the actor
      */
     public void addAttackStanceTask(Creature actor) {
-        if (actor != null) {
-            _attackStanceTasks.put(actor, System.currentTimeMillis());
+        if (actor == null) {
+            return;
+        }
+
+        final long expiration = System.currentTimeMillis() + COMBAT_TIME;
+        AtomicLong stance = stances.get(actor);
+        while (true) {
+            if (isNull(stance)) {
+                stance = stances.putIfAbsent(actor, new AtomicLong(expiration));
+                if (isNull(stance)) {
+                    attackStanceTasks.schedule(actor, expiration);
+                    return;
+                }
+            } else if (refresh(stance, expiration)) {
+                return;
+            } else {
+                // the stance has just expired, start a new one
+                stances.remove(actor, stance);
+                stance = null;
+            }
+        }
+    }
+
+    private static boolean refresh(AtomicLong stance, long expiration) {
+        long current;
+        do {
+            current = stance.get();
+            if (current == CLOSED) {
+                return false;
+            }
+            if (current >= expiration) {
+                return true;
+            }
+        } while (!stance.compareAndSet(current, expiration));
+        return true;
+    }
+
+    private void onDeadline(Creature actor) {
+        final AtomicLong stance = stances.get(actor);
+        if (isNull(stance)) {
+            // the stance was removed
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        long expiration = stance.get();
+        while (expiration != CLOSED) {
+            if (expiration > now) {
+                // refreshed after the deadline was scheduled
+                attackStanceTasks.schedule(actor, expiration);
+                return;
+            }
+
+            if (stance.compareAndSet(expiration, CLOSED)) {
+                stances.remove(actor, stance);
+                stopAttackStance(actor);
+                return;
+            }
+            expiration = stance.get();
         }
     }
 
@@ -72,7 +132,11 @@ public class AttackStanceTaskManager {
             if (isSummon(actor)) {
                 actor = actor.getActingPlayer();
             }
-            _attackStanceTasks.remove(actor);
+            // the pending deadline finds no stance and is skipped
+            final AtomicLong stance = stances.remove(actor);
+            if (nonNull(stance)) {
+                stance.set(CLOSED);
+            }
         }
     }
 
@@ -87,7 +151,8 @@ public class AttackStanceTaskManager {
             if (isSummon(actor)) {
                 actor = actor.getActingPlayer();
             }
-            return _attackStanceTasks.containsKey(actor);
+            final AtomicLong stance = stances.get(actor);
+            return nonNull(stance) && stance.get() != CLOSED;
         }
         return false;
     }
@@ -100,36 +165,15 @@ public class AttackStanceTaskManager {
         private static final AttackStanceTaskManager INSTANCE = new AttackStanceTaskManager();
     }
 
-    protected class FightModeScheduler implements Runnable {
-        @Override
-        public void run() {
-            final long current = System.currentTimeMillis();
-            try {
-                final Iterator<Entry<Creature, Long>> iter = _attackStanceTasks.entrySet().iterator();
-                Entry<Creature, Long> e;
-                Creature actor;
-                while (iter.hasNext()) {
-                    e = iter.next();
-                    if ((current - e.getValue()) > COMBAT_TIME) {
-                        actor = e.getKey();
-                        if (actor != null) {
-                            actor.broadcastPacket(new AutoAttackStop(actor.getObjectId()));
-                            actor.getAI().setAutoAttacking(false);
-                            if (isPlayer(actor) && actor.hasSummon()) {
-                                final Summon pet = actor.getPet();
-                                if (pet != null) {
-                                    pet.broadcastPacket(new AutoAttackStop(pet.getObjectId()));
-                                }
-                                actor.getServitors().values().forEach(s -> s.broadcastPacket(new AutoAttackStop(s.getObjectId())));
-                            }
-                        }
-                        iter.remove();
-                    }
-                }
-            } catch (Exception e) {
-                // Unless caught here, players remain in attack positions.
-                LOGGER.warn("Error in FightModeScheduler: " + e.getMessage(), e);
+    private void stopAttackStance(Creature actor) {
+        actor.broadcastPacket(new AutoAttackStop(actor.getObjectId()));
+        actor.getAI().setAutoAttacking(false);
+        if (isPlayer(actor) && actor.hasSummon()) {
+            final Summon pet = actor.getPet();
+            if (pet != null) {
+                pet.broadcastPacket(new AutoAttackStop(pet.getObjectId()));
             }
+            actor.getServitors().values().forEach(s -> s.broadcastPacket(new AutoAttackStop(s.getObjectId())));
         }
     }
 }
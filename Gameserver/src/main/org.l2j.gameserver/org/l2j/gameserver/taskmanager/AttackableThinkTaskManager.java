@@ -19,77 +19,174 @@
 package org.l2j.gameserver.taskmanager;
 
 import org.l2j.commons.threading.ThreadPool;
-import org.l2j.gameserver.ai.CreatureAI;
 import org.l2j.gameserver.model.actor.Attackable;
+import org.l2j.gameserver.world.WorldRegion;
+import org.l2j.gameserver.world.WorldTimeController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
-
+import static java.util.Objects.isNull;
 
 /**
+ * Calls the AI think of the attackables every second.
+ *
+ * The attackables are spread in slices by their object id and each game tick processes one slice, so every tick
+ * handles a fraction of the attackables. The attackables of a slice are grouped by their {@link WorldRegion}
+ * and each group thinks in its own thread pool task.
+ *
+ * A slice is never processed again while its previous run is still in progress, so an attackable never has two thinks
+ * in flight and keeps the order of its thinks. The slow runs and the skipped slices are counted as overruns and logged
+ * at most once per minute.
+ *
  * @author Mobius
+ * @author JoeAlisson
  */
-public class AttackableThinkTaskManager
-{
-    private static final Set<Attackable> ATTACKABLES = ConcurrentHashMap.newKeySet();
-    private static boolean _working = false;
-
-    public AttackableThinkTaskManager()
-    {
-        ThreadPool.scheduleAtFixedRate(() ->
-        {
-            if (_working)
-            {
-                return;
-            }
-            _working = true;
-
-            CreatureAI ai;
-            for (Attackable attackable : ATTACKABLES)
-            {
-                if (attackable.hasAI())
-                {
-                    ai = attackable.getAI();
-                    if (ai != null)
-                    {
-                        ai.onEvtThink();
-                    }
-                    else
-                    {
-                        remove(attackable);
-                    }
-                }
-                else
-                {
-                    remove(attackable);
-                }
-            }
+public final class AttackableThinkTaskManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AttackableThinkTaskManager.class);
+    private static final int THINK_PERIOD = 1000;
+    private static final int SLICES = THINK_PERIOD / WorldTimeController.MILLIS_IN_TICK;
+    private static final long OVERRUN_LOG_INTERVAL = TimeUnit.MINUTES.toNanos(1);
 
-            _working = false;
-        }, 1000, 1000);
+    private final ThinkSlice[] slices = new ThinkSlice[SLICES];
+    private final LongAdder overruns = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final AtomicInteger overrunsSinceLog = new AtomicInteger();
+    private final AtomicLong nextOverrunLog = new AtomicLong(System.nanoTime());
+    private final AtomicLong maxRunTime = new AtomicLong();
+    private int currentSlice;
+
+    private AttackableThinkTaskManager() {
+        for (int i = 0; i < SLICES; i++) {
+            slices[i] = new ThinkSlice();
+        }
+        ThreadPool.scheduleAtFixedRate(this::tick, WorldTimeController.MILLIS_IN_TICK, WorldTimeController.MILLIS_IN_TICK);
+    }
+
+    public void add(Attackable attackable) {
+        sliceOf(attackable).attackables.add(attackable);
+    }
+
+    public void remove(Attackable attackable) {
+        sliceOf(attackable).attackables.remove(attackable);
     }
 
-    public void add(Attackable attackable)
-    {
-        if (!ATTACKABLES.contains(attackable))
-        {
-            ATTACKABLES.add(attackable);
+    private ThinkSlice sliceOf(Attackable attackable) {
+        return slices[Math.floorMod(attackable.getObjectId(), SLICES)];
+    }
+
+    private void tick() {
+        final var slice = slices[currentSlice];
+        currentSlice = (currentSlice + 1) % SLICES;
+
+        if(slice.pendingRegions.get() > 0) {
+            // the previous run is still in progress
+            skipped.increment();
+            onOverrun(System.nanoTime() - slice.startTime);
+            return;
         }
+        slice.think();
     }
 
-    public void remove(Attackable attackable)
-    {
-        ATTACKABLES.remove(attackable);
+    private void recordRunTime(long runTime) {
+        maxRunTime.accumulateAndGet(runTime, Math::max);
+        if(runTime > TimeUnit.MILLISECONDS.toNanos(THINK_PERIOD)) {
+            onOverrun(runTime);
+        }
     }
 
-    public static AttackableThinkTaskManager getInstance()
-    {
-        return SingletonHolder.INSTANCE;
+    private void onOverrun(long runTime) {
+        overruns.increment();
+        overrunsSinceLog.incrementAndGet();
+        final long now = System.nanoTime();
+        final long nextLog = nextOverrunLog.get();
+        if(now - nextLog >= 0 && nextOverrunLog.compareAndSet(nextLog, now + OVERRUN_LOG_INTERVAL)) {
+            LOGGER.warn("Attackable think slices overran {} times in the last minute, the last run took {} ms", overrunsSinceLog.getAndSet(0), TimeUnit.NANOSECONDS.toMillis(runTime));
+        }
+    }
+
+    public CharSequence getStats() {
+        final var stats = new StringBuilder("AttackableThinkTaskManager\n");
+        stats.append("=================================================\n");
+        for (int i = 0; i < SLICES; i++) {
+            final var slice = slices[i];
+            stats.append("\tSlice ").append(i).append(": attackables ").append(slice.attackables.size())
+                    .append(", last run ").append(TimeUnit.NANOSECONDS.toMicros(slice.lastRunTime)).append(" us\n");
+        }
+        stats.append("\tMax run: ").append(TimeUnit.NANOSECONDS.toMillis(maxRunTime.get())).append(" ms\n");
+        stats.append("\tOverruns: ").append(overruns.sum()).append(", skipped slices ").append(skipped.sum()).append('\n');
+        return stats;
+    }
+
+    public static AttackableThinkTaskManager getInstance() {
+        return Singleton.INSTANCE;
+    }
+
+    private final class ThinkSlice {
+        private final Set<Attackable> attackables = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger pendingRegions = new AtomicInteger();
+        private volatile long startTime;
+        private volatile long lastRunTime;
+
+        private void think() {
+            if(attackables.isEmpty()) {
+                return;
+            }
+
+            final Map<WorldRegion, List<Attackable>> regions = new HashMap<>();
+            final List<Attackable> outOfRegion = new ArrayList<>();
+            for (Attackable attackable : attackables) {
+                final var region = attackable.getWorldRegion();
+                if(isNull(region)) {
+                    outOfRegion.add(attackable);
+                } else {
+                    regions.computeIfAbsent(region, r -> new ArrayList<>()).add(attackable);
+                }
+            }
+
+            startTime = System.nanoTime();
+            pendingRegions.set(regions.size() + 1);
+            for (List<Attackable> group : regions.values()) {
+                ThreadPool.execute(() -> think(group));
+            }
+            think(outOfRegion);
+        }
+
+        private void think(List<Attackable> group) {
+            try {
+                for (Attackable attackable : group) {
+                    try {
+                        final var ai = attackable.hasAI() ? attackable.getAI() : null;
+                        if(isNull(ai)) {
+                            attackables.remove(attackable);
+                        } else {
+                            ai.onEvtThink();
+                        }
+                    } catch (Exception e) {
+                        LOGGER.warn("Error on think of {}", attackable, e);
+                    }
+                }
+            } finally {
+                if(pendingRegions.decrementAndGet() == 0) {
+                    lastRunTime = System.nanoTime() - startTime;
+                    recordRunTime(lastRunTime);
+                }
+            }
+        }
     }
 
-    private static class SingletonHolder
-    {
-        protected static final AttackableThinkTaskManager INSTANCE = new AttackableThinkTaskManager();
+    private static class Singleton {
+        private static final AttackableThinkTaskManager INSTANCE = new AttackableThinkTaskManager();
     }
 }
@@ -19,7 +19,6 @@
 package org.l2j.gameserver.taskmanager;
 
 
-import org.l2j.commons.threading.ThreadPool;
 import org.l2j.commons.util.Rnd;
 import org.l2j.gameserver.ai.CreatureAI;
 import org.l2j.gameserver.model.WorldObject;
@@ -39,44 +38,45 @@ import static org.l2j.gameserver.util.MathUtil.isInsideRadius3D;
  */
 public class CreatureFollowTaskManager
 {
+    private static final long NORMAL_FOLLOW_INTERVAL = 1000;
+    private static final long ATTACK_FOLLOW_INTERVAL = 500;
+
     private static final Map<Creature, Integer> NORMAL_FOLLOW_CREATURES = new ConcurrentHashMap<>();
     private static final Map<Creature, Integer> ATTACK_FOLLOW_CREATURES = new ConcurrentHashMap<>();
-    private static boolean _workingNormal = false;
-    private static boolean _workingAttack = false;
+
+    private final DeadlineQueue<Creature> normalFollowTasks;
+    private final DeadlineQueue<Creature> attackFollowTasks;
 
     public CreatureFollowTaskManager()
     {
-        ThreadPool.scheduleAtFixedRate(() ->
-        {
-            if (_workingNormal)
-            {
-                return;
-            }
-            _workingNormal = true;
+        normalFollowTasks = DeadlineTaskManager.getInstance().createQueue("NormalFollow", this::followNormal);
+        attackFollowTasks = DeadlineTaskManager.getInstance().createQueue("AttackFollow", this::followAttack);
+    }
 
-            for (Map.Entry<Creature, Integer> entry : NORMAL_FOLLOW_CREATURES.entrySet())
-            {
-                follow(entry.getKey(), entry.getValue());
-            }
+    private void followNormal(Creature creature)
+    {
+        followAgain(creature, NORMAL_FOLLOW_CREATURES, normalFollowTasks, NORMAL_FOLLOW_INTERVAL);
+    }
 
-            _workingNormal = false;
-        }, 1000, 1000);
+    private void followAttack(Creature creature)
+    {
+        followAgain(creature, ATTACK_FOLLOW_CREATURES, attackFollowTasks, ATTACK_FOLLOW_INTERVAL);
+    }
 
-        ThreadPool.scheduleAtFixedRate(() ->
+    private void followAgain(Creature creature, Map<Creature, Integer> followers, DeadlineQueue<Creature> tasks, long interval)
+    {
+        final Integer range = followers.get(creature);
+        if (range == null)
         {
-            if (_workingAttack)
-            {
-                return;
-            }
-            _workingAttack = true;
+            return;
+        }
 
-            for (Map.Entry<Creature, Integer> entry : ATTACK_FOLLOW_CREATURES.entrySet())
-            {
-                follow(entry.getKey(), entry.getValue());
-            }
+        follow(creature, range);
 
-            _workingAttack = false;
-        }, 500, 500);
+        if (followers.containsKey(creature))
+        {
+            tasks.schedule(creature, System.currentTimeMillis() + interval);
+        }
     }
 
     private void follow(Creature creature, int range)
@@ -126,18 +126,26 @@ public class CreatureFollowTaskManager
 
     public void addNormalFollow(Creature creature, int range)
     {
-        NORMAL_FOLLOW_CREATURES.putIfAbsent(creature, range);
+        if (NORMAL_FOLLOW_CREATURES.putIfAbsent(creature, range) == null)
+        {
+            normalFollowTasks.schedule(creature, System.currentTimeMillis() + NORMAL_FOLLOW_INTERVAL);
+        }
     }
 
     public void addAttackFollow(Creature creature, int range)
     {
-        ATTACK_FOLLOW_CREATURES.putIfAbsent(creature, range);
+        if (ATTACK_FOLLOW_CREATURES.putIfAbsent(creature, range) == null)
+        {
+            attackFollowTasks.schedule(creature, System.currentTimeMillis() + ATTACK_FOLLOW_INTERVAL);
+        }
     }
 
     public void remove(Creature creature)
     {
         NORMAL_FOLLOW_CREATURES.remove(creature);
         ATTACK_FOLLOW_CREATURES.remove(creature);
+        normalFollowTasks.cancel(creature);
+        attackFollowTasks.cancel(creature);
     }
 
     public static CreatureFollowTaskManager getInstance()
@@ -0,0 +1,190 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.taskmanager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the deadline of each entry and runs an action when it is due.
+ *
+ * The entries are grouped in buckets by the tick they become due, so processing a tick only visits the due entries.
+ * Instances are created by {@link DeadlineTaskManager#createQueue(String, Consumer)}.
+ *
+ * @param <T> the type of the entries
+ * @author JoeAlisson
+ */
+public final class DeadlineQueue<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeadlineQueue.class);
+
+    private final String name;
+    private final Consumer<T> action;
+    private final Map<T, Long> deadlines = new HashMap<>();
+    private final NavigableMap<Long, Set<T>> buckets = new TreeMap<>();
+    private final AtomicBoolean processing = new AtomicBoolean();
+    private final LongAdder due = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private volatile long nextTick = Long.MAX_VALUE;
+    private volatile int size;
+
+    DeadlineQueue(String name, Consumer<T> action) {
+        this.name = name;
+        this.action = action;
+    }
+
+    /**
+     * Schedules the entry, replacing its previous deadline.
+     *
+     * @param entry the entry
+     * @param time the time in millis the entry becomes due
+     */
+    public synchronized void schedule(T entry, long time) {
+        final var previous = deadlines.put(entry, time);
+        if(previous != null) {
+            removeFromBucket(entry, previous);
+        }
+        buckets.computeIfAbsent(DeadlineTaskManager.tickOf(time), tick -> new HashSet<>()).add(entry);
+        updateState();
+    }
+
+    /**
+     * Schedules the entry only if it doesn't have a deadline.
+     *
+     * @param entry the entry
+     * @param time the time in millis the entry becomes due
+     * @return true if the entry was scheduled
+     */
+    public synchronized boolean scheduleIfAbsent(T entry, long time) {
+        if(deadlines.containsKey(entry)) {
+            return false;
+        }
+        schedule(entry, time);
+        return true;
+    }
+
+    /**
+     * @param entry the entry
+     * @return true if the entry had a deadline
+     */
+    public synchronized boolean cancel(T entry) {
+        final var deadline = deadlines.remove(entry);
+        if(deadline == null) {
+            return false;
+        }
+        removeFromBucket(entry, deadline);
+        updateState();
+        return true;
+    }
+
+    public synchronized boolean contains(T entry) {
+        return deadlines.containsKey(entry);
+    }
+
+    /**
+     * @param entry the entry
+     * @return the deadline of the entry in millis or {@link Long#MAX_VALUE} if the entry is not scheduled
+     */
+    public synchronized long getDeadline(T entry) {
+        return deadlines.getOrDefault(entry, Long.MAX_VALUE);
+    }
+
+    /**
+     * @return a copy of the entries and their deadlines
+     */
+    public synchronized Map<T, Long> snapshot() {
+        return new HashMap<>(deadlines);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    long getDueCount() {
+        return due.sum();
+    }
+
+    long getProcessedCount() {
+        return processed.sum();
+    }
+
+    boolean hasDue(long tick) {
+        return nextTick <= tick;
+    }
+
+    boolean startProcessing() {
+        return processing.compareAndSet(false, true);
+    }
+
+    /**
+     * Runs the action of the entries due until the tick. The entries are removed before the action runs,
+     * so the action can schedule them again.
+     */
+    void process(long tick) {
+        try {
+            for (T entry : pollDue(tick)) {
+                due.increment();
+                try {
+                    action.accept(entry);
+                    processed.increment();
+                } catch (Exception e) {
+                    LOGGER.warn("Error processing {} on {}", entry, name, e);
+                }
+            }
+        } finally {
+            processing.set(false);
+        }
+    }
+
+    private synchronized List<T> pollDue(long tick) {
+        final List<T> dueEntries = new ArrayList<>();
+        Map.Entry<Long, Set<T>> bucket;
+        while (!buckets.isEmpty() && buckets.firstKey() <= tick) {
+            bucket = buckets.pollFirstEntry();
+            for (T entry : bucket.getValue()) {
+                deadlines.remove(entry);
+                dueEntries.add(entry);
+            }
+        }
+        updateState();
+        return dueEntries;
+    }
+
+    private void removeFromBucket(T entry, long deadline) {
+        final var tick = DeadlineTaskManager.tickOf(deadline);
+        final var bucket = buckets.get(tick);
+        if(bucket != null && bucket.remove(entry) && bucket.isEmpty()) {
+            buckets.remove(tick);
+        }
+    }
+
+    private void updateState() {
+        nextTick = buckets.isEmpty() ? Long.MAX_VALUE : buckets.firstKey();
+        size = deadlines.size();
+    }
+}
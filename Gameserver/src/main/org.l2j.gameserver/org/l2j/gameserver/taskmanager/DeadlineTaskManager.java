@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.taskmanager;
+
+import org.l2j.commons.threading.ThreadPool;
+import org.l2j.gameserver.world.WorldTimeController;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Drives the {@link DeadlineQueue}s of the task managers.
+ *
+ * Each game tick only the queues with due entries are processed, each one in its own thread pool task.
+ * A queue is never processed by two threads at the same time.
+ *
+ * @author JoeAlisson
+ */
+public final class DeadlineTaskManager {
+
+    private final List<DeadlineQueue<?>> queues = new CopyOnWriteArrayList<>();
+
+    private DeadlineTaskManager() {
+        ThreadPool.scheduleAtFixedRate(this::tick, WorldTimeController.MILLIS_IN_TICK, WorldTimeController.MILLIS_IN_TICK);
+    }
+
+    /**
+     * @param name the name shown in the stats
+     * @param action the action run when an entry is due
+     * @param <T> the type of the entries
+     * @return a new queue
+     */
+    public <T> DeadlineQueue<T> createQueue(String name, Consumer<T> action) {
+        final var queue = new DeadlineQueue<>(name, action);
+        queues.add(queue);
+        return queue;
+    }
+
+    private void tick() {
+        final long tick = currentTick();
+        for (DeadlineQueue<?> queue : queues) {
+            if(queue.hasDue(tick) && queue.startProcessing()) {
+                ThreadPool.execute(() -> queue.process(tick));
+            }
+        }
+    }
+
+    /**
+     * @param time the time in millis
+     * @return the first tick processed after the time
+     */
+    static long tickOf(long time) {
+        return (time / WorldTimeController.MILLIS_IN_TICK) + 1;
+    }
+
+    private static long currentTick() {
+        return System.currentTimeMillis() / WorldTimeController.MILLIS_IN_TICK;
+    }
+
+    public CharSequence getStats() {
+        final var stats = new StringBuilder("DeadlineTaskManager\n");
+        stats.append("=================================================\n");
+        for (DeadlineQueue<?> queue : queues) {
+            stats.append('\t').append(queue.getName()).append(": scheduled ").append(queue.size())
+                    .append(", due ").append(queue.getDueCount())
+                    .append(", processed ").append(queue.getProcessedCount()).append('\n');
+        }
+        return stats;
+    }
+
+    public static DeadlineTaskManager getInstance() {
+        return Singleton.INSTANCE;
+    }
+
+    private static class Singleton {
+        private static final DeadlineTaskManager INSTANCE = new DeadlineTaskManager();
+    }
+}
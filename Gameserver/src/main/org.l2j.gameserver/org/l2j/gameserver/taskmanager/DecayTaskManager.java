@@ -18,7 +18,6 @@
  */
 package org.l2j.gameserver.taskmanager;
 
-import org.l2j.commons.threading.ThreadPool;
 import org.l2j.gameserver.Config;
 import org.l2j.gameserver.model.actor.Attackable;
 import org.l2j.gameserver.model.actor.Creature;
@@ -26,9 +25,7 @@ import org.l2j.gameserver.model.actor.templates.NpcTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static org.l2j.gameserver.util.GameUtils.isAttackable;
 
@@ -39,22 +36,10 @@ import static org.l2j.gameserver.util.GameUtils.isAttackable;
 public final class DecayTaskManager {
     protected static final Logger LOGGER = LoggerFactory.getLogger(DecayTaskManager.class);
 
-    private static final Map<Creature, Long> DECAY_SCHEDULES = new ConcurrentHashMap<>();
+    private final DeadlineQueue<Creature> decaySchedules;
 
     private DecayTaskManager() {
-        ThreadPool.scheduleAtFixedRate(() ->
-        {
-            final long time = System.currentTimeMillis();
-            for (Entry<Creature, Long> entry : DECAY_SCHEDULES.entrySet())
-            {
-                if (time > entry.getValue())
-                {
-                    final Creature creature = entry.getKey();
-                    DECAY_SCHEDULES.remove(creature);
-                    creature.onDecay();
-                }
-            }
-        }, 0, 1000);
+        decaySchedules = DeadlineTaskManager.getInstance().createQueue("Decay", Creature::onDecay);
     }
 
     /**
@@ -81,7 +66,7 @@ public final class DecayTaskManager {
         }
 
 		// Add to decay schedules.
-		DECAY_SCHEDULES.put(character, System.currentTimeMillis() + (delay * 1000));
+		decaySchedules.schedule(character, System.currentTimeMillis() + (delay * 1000));
     }
 
     /**
@@ -91,7 +76,7 @@ public final class DecayTaskManager {
      */
 	public void cancel(Creature creature)
 	{
-		DECAY_SCHEDULES.remove(creature);
+		decaySchedules.cancel(creature);
     }
 
     /**
@@ -102,8 +87,8 @@ public final class DecayTaskManager {
      */
 	public long getRemainingTime(Creature creature)
 	{
-		final Long time = DECAY_SCHEDULES.get(creature);
-		return time != null ? time - System.currentTimeMillis() : Long.MAX_VALUE;
+		final long time = decaySchedules.getDeadline(creature);
+		return time != Long.MAX_VALUE ? time - System.currentTimeMillis() : Long.MAX_VALUE;
     }
 
     @Override
@@ -112,13 +97,13 @@ public final class DecayTaskManager {
         ret.append("============= DecayTask Manager Report ============");
         ret.append(System.lineSeparator());
         ret.append("Tasks count: ");
-		ret.append(DECAY_SCHEDULES.size());
+		ret.append(decaySchedules.size());
         ret.append(System.lineSeparator());
         ret.append("Tasks dump:");
         ret.append(System.lineSeparator());
 
 		final long time = System.currentTimeMillis();
-		for (Entry<Creature, Long> entry : DECAY_SCHEDULES.entrySet())
+		for (Entry<Creature, Long> entry : decaySchedules.snapshot().entrySet())
 		{
             ret.append("Class/Name: ");
             ret.append(entry.getKey().getClass().getSimpleName());
@@ -0,0 +1,170 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.taskmanager;
+
+import org.l2j.commons.threading.ThreadPool;
+import org.l2j.gameserver.Config;
+import org.l2j.gameserver.model.effects.EffectTickTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The shared clock of the periodic effects.
+ *
+ * The clock ticks every {@link Config#EFFECT_TICK_RATIO} millis and each effect task is bucketed by the effect tick
+ * it's due, so every clock tick just takes the due buckets and runs all their tasks in one pass.
+ * A cancelled task is only flagged and it's dropped when its bucket is due.
+ *
+ * @author JoeAlisson
+ */
+public final class EffectTickTaskManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EffectTickTaskManager.class);
+    private static final int BATCH_SIZE = 256;
+
+    private final TreeMap<Long, List<EffectTickTask>> buckets = new TreeMap<>();
+    private final AtomicBoolean processing = new AtomicBoolean();
+    private final AtomicInteger activeEffects = new AtomicInteger();
+    private final LongAdder processed = new LongAdder();
+    private final long start = System.nanoTime();
+
+    private EffectTickTaskManager() {
+        ThreadPool.scheduleAtFixedRate(this::tick, Config.EFFECT_TICK_RATIO, Config.EFFECT_TICK_RATIO);
+    }
+
+    /**
+     * Schedules the task to run every {@link EffectTickTask#getTicks()} effect ticks.
+     * The first run is on the first clock tick after the effect ticks have elapsed since the effect started, now.
+     *
+     * @param task the task to schedule
+     */
+    public void schedule(EffectTickTask task) {
+        activeEffects.incrementAndGet();
+        final long firstRun = elapsedMillis() + ((long) task.getTicks() * Config.EFFECT_TICK_RATIO);
+        synchronized (buckets) {
+            enqueue(task, (firstRun + Config.EFFECT_TICK_RATIO - 1) / Config.EFFECT_TICK_RATIO);
+        }
+    }
+
+    /**
+     * @param task the task to cancel
+     */
+    public void cancel(EffectTickTask task) {
+        if(task.cancel()) {
+            activeEffects.decrementAndGet();
+        }
+    }
+
+    private void enqueue(EffectTickTask task, long tick) {
+        buckets.computeIfAbsent(tick, t -> new ArrayList<>()).add(task);
+    }
+
+    private void tick() {
+        if(!processing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            final List<EffectTickTask> due = new ArrayList<>();
+            final List<Long> dueTicks = new ArrayList<>();
+            synchronized (buckets) {
+                final var dueBuckets = buckets.headMap(currentTick(), true);
+                for (var entry : dueBuckets.entrySet()) {
+                    for (EffectTickTask task : entry.getValue()) {
+                        due.add(task);
+                        dueTicks.add(entry.getKey());
+                    }
+                }
+                dueBuckets.clear();
+            }
+
+            for (int i = BATCH_SIZE; i < due.size(); i += BATCH_SIZE) {
+                final int from = i;
+                ThreadPool.execute(() -> process(due, dueTicks, from, Math.min(from + BATCH_SIZE, due.size())));
+            }
+            process(due, dueTicks, 0, Math.min(BATCH_SIZE, due.size()));
+        } finally {
+            processing.set(false);
+        }
+    }
+
+    private void process(List<EffectTickTask> tasks, List<Long> ticks, int from, int to) {
+        for (int i = from; i < to; i++) {
+            final var task = tasks.get(i);
+            if(task.isCancelled()) {
+                continue;
+            }
+
+            try {
+                task.run();
+                processed.increment();
+            } catch (Exception e) {
+                LOGGER.warn("Error on effect tick of {}", task.getEffect(), e);
+            }
+
+            if(!task.isCancelled()) {
+                synchronized (buckets) {
+                    enqueue(task, Math.max(ticks.get(i) + task.getTicks(), currentTick() + 1));
+                }
+            }
+        }
+    }
+
+    private long currentTick() {
+        return elapsedMillis() / Config.EFFECT_TICK_RATIO;
+    }
+
+    private long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * @return the amount of effects ticking
+     */
+    public int getActiveCount() {
+        return activeEffects.get();
+    }
+
+    public CharSequence getStats() {
+        final var stats = new StringBuilder("EffectTickTaskManager\n");
+        stats.append("=================================================\n");
+        stats.append("\tActive effects: ").append(getActiveCount()).append('\n');
+        synchronized (buckets) {
+            stats.append("\tScheduled ticks: ").append(buckets.size()).append('\n');
+        }
+        stats.append("\tProcessed: ").append(processed.sum()).append('\n');
+        return stats;
+    }
+
+    public static EffectTickTaskManager getInstance() {
+        return Singleton.INSTANCE;
+    }
+
+    private static class Singleton {
+        private static final EffectTickTaskManager INSTANCE = new EffectTickTaskManager();
+    }
+}
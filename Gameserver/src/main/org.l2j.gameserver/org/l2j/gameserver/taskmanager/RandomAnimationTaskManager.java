@@ -18,15 +18,10 @@
  */
 package org.l2j.gameserver.taskmanager;
 
-import org.l2j.commons.threading.ThreadPool;
 import org.l2j.commons.util.Rnd;
 import org.l2j.gameserver.Config;
 import org.l2j.gameserver.model.actor.Npc;
 
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-
 import static org.l2j.gameserver.util.GameUtils.isAttackable;
 
 /**
@@ -34,40 +29,39 @@ import static org.l2j.gameserver.util.GameUtils.isAttackable;
  */
 public class RandomAnimationTaskManager
 {
-    private static final Map<Npc, Long> PENDING_ANIMATIONS = new ConcurrentHashMap<>();
+    private final DeadlineQueue<Npc> pendingAnimations;
 
     public RandomAnimationTaskManager()
     {
-        ThreadPool.scheduleAtFixedRate(() ->
+        pendingAnimations = DeadlineTaskManager.getInstance().createQueue("RandomAnimation", this::animate);
+    }
+
+    private void animate(Npc npc)
+    {
+        if (npc.isInActiveRegion() && !npc.isDead() && !npc.isInCombat() && !npc.isMoving() && !npc.hasBlockActions())
         {
-            final long time = System.currentTimeMillis();
-            for (Entry<Npc, Long> entry : PENDING_ANIMATIONS.entrySet())
-            {
-                if (time > entry.getValue())
-                {
-                    final Npc npc = entry.getKey();
-					if (npc.isInActiveRegion() && !npc.isDead() && !npc.isInCombat() && !npc.isMoving() && !npc.hasBlockActions())
-                    {
-                        npc.onRandomAnimation(Rnd.get(2, 3));
-                    }
+            npc.onRandomAnimation(Rnd.get(2, 3));
+        }
+
+        pendingAnimations.schedule(npc, nextAnimationTime(npc));
+    }
 
-                    PENDING_ANIMATIONS.put(npc, time + (Rnd.get((isAttackable(npc) ? Config.MIN_MONSTER_ANIMATION : Config.MIN_NPC_ANIMATION), (isAttackable(npc) ? Config.MAX_MONSTER_ANIMATION : Config.MAX_NPC_ANIMATION)) * 1000));
-                }
-            }
-        }, 0, 1000);
+    private long nextAnimationTime(Npc npc)
+    {
+        return System.currentTimeMillis() + (Rnd.get((isAttackable(npc) ? Config.MIN_MONSTER_ANIMATION : Config.MIN_NPC_ANIMATION), (isAttackable(npc) ? Config.MAX_MONSTER_ANIMATION : Config.MAX_NPC_ANIMATION)) * 1000);
     }
 
     public void add(Npc npc)
     {
         if (npc.hasRandomAnimation())
         {
-            PENDING_ANIMATIONS.putIfAbsent(npc, System.currentTimeMillis() + (Rnd.get((isAttackable(npc) ? Config.MIN_MONSTER_ANIMATION : Config.MIN_NPC_ANIMATION), (isAttackable(npc) ? Config.MAX_MONSTER_ANIMATION : Config.MAX_NPC_ANIMATION)) * 1000));
+            pendingAnimations.scheduleIfAbsent(npc, nextAnimationTime(npc));
         }
     }
 
     public void remove(Npc npc)
     {
-        PENDING_ANIMATIONS.remove(npc);
+        pendingAnimations.cancel(npc);
     }
 
     public static RandomAnimationTaskManager getInstance()
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.taskmanager;
+
+import org.l2j.commons.threading.ThreadPool;
+import org.l2j.gameserver.model.actor.Creature;
+import org.l2j.gameserver.model.actor.status.CreatureStatus;
+import org.l2j.gameserver.model.stats.Formulas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Regenerates the HP/MP/CP of the creatures.
+ *
+ * The creatures are grouped by their regeneration period and each group is regenerated in batches by a single
+ * scheduled task. A creature leaves its group as soon as it's fully regenerated and only comes back when it
+ * loses HP, MP or CP. The status updates of a batch are broadcast after the whole batch is regenerated, once per creature.
+ *
+ * @author JoeAlisson
+ */
+public final class RegenerationTaskManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegenerationTaskManager.class);
+    private static final int BATCH_SIZE = 256;
+
+    private final Map<Integer, RegenerationGroup> groups = new ConcurrentHashMap<>();
+
+    private RegenerationTaskManager() {
+    }
+
+    public void add(CreatureStatus status) {
+        groups.computeIfAbsent(Formulas.getRegeneratePeriod(status.getOwner()), RegenerationGroup::new).add(status);
+    }
+
+    public void remove(CreatureStatus status) {
+        final var group = groups.get(Formulas.getRegeneratePeriod(status.getOwner()));
+        if(group != null) {
+            group.remove(status);
+        }
+    }
+
+    public static RegenerationTaskManager getInstance() {
+        return Singleton.INSTANCE;
+    }
+
+    private static final class RegenerationGroup {
+        private final Set<CreatureStatus> members = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger runningBatches = new AtomicInteger();
+
+        private RegenerationGroup(int period) {
+            ThreadPool.scheduleAtFixedRate(this::regenerate, period, period);
+        }
+
+        private void add(CreatureStatus status) {
+            members.add(status);
+        }
+
+        private void remove(CreatureStatus status) {
+            members.remove(status);
+        }
+
+        private void regenerate() {
+            if(members.isEmpty() || runningBatches.get() > 0) {
+                return;
+            }
+
+            List<CreatureStatus> batch = new ArrayList<>(BATCH_SIZE);
+            for (CreatureStatus status : members) {
+                batch.add(status);
+                if(batch.size() == BATCH_SIZE) {
+                    final var toProcess = batch;
+                    runningBatches.incrementAndGet();
+                    ThreadPool.execute(() -> processBatch(toProcess));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+
+            if(!batch.isEmpty()) {
+                runningBatches.incrementAndGet();
+                processBatch(batch);
+            }
+        }
+
+        private void processBatch(List<CreatureStatus> batch) {
+            try {
+                final List<Creature> updated = new ArrayList<>(batch.size());
+                for (CreatureStatus status : batch) {
+                    try {
+                        if(status.doRegeneration()) {
+                            updated.add(status.getOwner());
+                        }
+                    } catch (Exception e) {
+                        LOGGER.warn("Error regenerating {}", status.getOwner(), e);
+                    }
+                }
+
+                for (Creature creature : updated) {
+                    creature.broadcastStatusUpdate();
+                }
+            } finally {
+                runningBatches.decrementAndGet();
+            }
+        }
+    }
+
+    private static class Singleton {
+        private static final RegenerationTaskManager INSTANCE = new RegenerationTaskManager();
+    }
+}
@@ -18,44 +18,31 @@
  */
 package org.l2j.gameserver.taskmanager;
 
-import org.l2j.commons.threading.ThreadPool;
 import org.l2j.gameserver.model.Spawn;
-import org.l2j.gameserver.model.actor.Attackable;
 import org.l2j.gameserver.model.actor.Npc;
 
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-
-import static org.l2j.gameserver.util.GameUtils.isAttackable;
-
 /**
  * @author Mobius
  */
 public class RespawnTaskManager {
 
-	private static final Map<Npc, Long> PENDING_RESPAWNS = new ConcurrentHashMap<>();
+	private final DeadlineQueue<Npc> pendingRespawns;
 
 	public RespawnTaskManager() {
-		ThreadPool.scheduleAtFixedRate(() -> {
-			final long time = System.currentTimeMillis();
+		pendingRespawns = DeadlineTaskManager.getInstance().createQueue("Respawn", this::respawn);
+	}
 
-			for (Entry<Npc, Long> entry : PENDING_RESPAWNS.entrySet()) {
-				if (time > entry.getValue()) {
-				final Npc npc = entry.getKey();
-				PENDING_RESPAWNS.remove(npc);
-				final Spawn spawn = npc.getSpawn();
-				if (spawn != null) {
-					spawn.respawnNpc(npc);
-					spawn._scheduledCount--;
-				}
-			}
-		} }, 0, 1000);
+	private void respawn(Npc npc) {
+		final Spawn spawn = npc.getSpawn();
+		if (spawn != null) {
+			spawn.respawnNpc(npc);
+			spawn._scheduledCount--;
+		}
 	}
 
 	public void add(Npc npc, long time)
 	{
-		PENDING_RESPAWNS.put(npc, time);
+		pendingRespawns.schedule(npc, time);
 	}
 	
 	public static RespawnTaskManager getInstance()
@@ -45,6 +45,7 @@ public final class Broadcast {
      * @param mov
      */
     public static void toPlayersTargettingMyself(Creature character, ServerPacket mov) {
+        mov.forBroadcast();
         World.getInstance().forEachVisibleObject(character, Player.class, player ->
         {
             if (player.getTarget() == character) {
@@ -64,6 +65,7 @@ public final class Broadcast {
      * @param mov
      */
     public static void toKnownPlayers(Creature character, ServerPacket mov) {
+        mov.forBroadcast();
         World.getInstance().forEachVisibleObject(character, Player.class, player ->
         {
             try {
@@ -109,7 +111,7 @@ public final class Broadcast {
             radius = 1500;
         }
 
-        World.getInstance().forEachVisibleObjectInRange(character, Player.class, radius, mov::sendTo);
+        World.getInstance().forEachVisibleObjectInRange(character, Player.class, radius, mov.forBroadcast()::sendTo);
     }
 
     /**
@@ -138,6 +140,7 @@ public final class Broadcast {
             radius = 600;
         }
 
+        mov.forBroadcast();
         if (isPlayer(character)) {
             character.sendPacket(mov);
         }
@@ -154,6 +157,9 @@ public final class Broadcast {
      * @param packets
      */
     public static void toAllOnlinePlayers(ServerPacket... packets) {
+        for (ServerPacket packet : packets) {
+            packet.forBroadcast();
+        }
         World.getInstance().forEachPlayer(p -> p.sendPacket(packets));
     }
 
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.world;
+
+import io.github.joealisson.primitive.CHashIntMap;
+import io.github.joealisson.primitive.IntMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * The region layer of an instance world.
+ *
+ * The instances only use a few regions of the map, so the regions are created on demand.
+ * The surrounding regions only reference the regions already created, the others can't have any object.
+ *
+ * @author JoeAlisson
+ */
+final class InstanceWorldRegions {
+
+    private final int instanceId;
+    private final int maxRegionX;
+    private final int maxRegionY;
+    private final IntMap<WorldRegion> regions = new CHashIntMap<>();
+
+    InstanceWorldRegions(int instanceId, int maxRegionX, int maxRegionY) {
+        this.instanceId = instanceId;
+        this.maxRegionX = maxRegionX;
+        this.maxRegionY = maxRegionY;
+    }
+
+    WorldRegion getRegion(int regionX, int regionY) {
+        final var region = regions.get(key(regionX, regionY));
+        if(nonNull(region)) {
+            return region;
+        }
+        return createRegion(regionX, regionY);
+    }
+
+    private synchronized WorldRegion createRegion(int regionX, int regionY) {
+        var region = regions.get(key(regionX, regionY));
+        if(nonNull(region)) {
+            return region;
+        }
+
+        region = new WorldRegion(regionX, regionY, instanceId);
+        regions.put(key(regionX, regionY), region);
+
+        for (WorldRegion surrounding : existingSurroundingRegions(regionX, regionY)) {
+            surrounding.setSurroundingRegions(existingSurroundingRegions(surrounding.getRegionX(), surrounding.getRegionY()));
+        }
+        region.activateIfNeighborActive();
+        return region;
+    }
+
+    private WorldRegion[] existingSurroundingRegions(int x, int y) {
+        final List<WorldRegion> surroundingRegions = new ArrayList<>(9);
+        for (int sx = x - 1; sx <= (x + 1); sx++) {
+            for (int sy = y - 1; sy <= (y + 1); sy++) {
+                if ((sx >= 0) && (sx <= maxRegionX) && (sy >= 0) && (sy <= maxRegionY)) {
+                    final var region = regions.get(key(sx, sy));
+                    if(nonNull(region)) {
+                        surroundingRegions.add(region);
+                    }
+                }
+            }
+        }
+        return surroundingRegions.toArray(WorldRegion[]::new);
+    }
+
+    private static int key(int regionX, int regionY) {
+        return (regionX << 16) | regionY;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.world;
+
+import org.l2j.gameserver.model.WorldObject;
+import org.l2j.gameserver.model.actor.Attackable;
+import org.l2j.gameserver.model.actor.Npc;
+import org.l2j.gameserver.model.actor.Playable;
+import org.l2j.gameserver.model.actor.instance.Player;
+import org.l2j.gameserver.model.item.instance.Item;
+
+import java.util.Arrays;
+
+/**
+ * The kinds of objects kept apart inside a {@link WorldRegion}.
+ *
+ * Each object is stored in the first bucket that accepts its class, so the queries only visit the buckets
+ * that can hold an instance of the requested class. e.g. a query by {@link Player} never touches the npcs.
+ *
+ * @author JoeAlisson
+ */
+enum RegionBucket {
+    PLAYER(Player.class),
+    SUMMON(Playable.class, Player.class),
+    ATTACKABLE(Attackable.class),
+    NPC(Npc.class, Attackable.class),
+    ITEM(Item.class),
+    /**
+     * Doors, static objects, fences, vehicles and anything else.
+     */
+    OTHER(WorldObject.class, Playable.class, Npc.class, Item.class);
+
+    static final RegionBucket[] VALUES = values();
+
+    private static final ClassValue<RegionBucket> OBJECT_BUCKET = new ClassValue<>() {
+        @Override
+        protected RegionBucket computeValue(Class<?> type) {
+            for (RegionBucket bucket : VALUES) {
+                if(bucket.accepts(type)) {
+                    return bucket;
+                }
+            }
+            return OTHER;
+        }
+    };
+
+    private static final ClassValue<RegionBucket[]> QUERY_BUCKETS = new ClassValue<>() {
+        @Override
+        protected RegionBucket[] computeValue(Class<?> type) {
+            return Arrays.stream(VALUES).filter(bucket -> bucket.mayContain(type)).toArray(RegionBucket[]::new);
+        }
+    };
+
+    private final Class<? extends WorldObject> base;
+    private final Class<?>[] excluded;
+
+    RegionBucket(Class<? extends WorldObject> base, Class<?>... excluded) {
+        this.base = base;
+        this.excluded = excluded;
+    }
+
+    /**
+     * @param type the class of the stored object
+     * @return true when objects of this type are stored in this bucket
+     */
+    private boolean accepts(Class<?> type) {
+        return base.isAssignableFrom(type) && !isExcluded(type);
+    }
+
+    /**
+     * @param type the class requested by a query
+     * @return true when this bucket can hold any instance of the type
+     */
+    private boolean mayContain(Class<?> type) {
+        return (base.isAssignableFrom(type) || type.isAssignableFrom(base)) && !isExcluded(type);
+    }
+
+    private boolean isExcluded(Class<?> type) {
+        for (Class<?> exclude : excluded) {
+            if(exclude.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static RegionBucket of(WorldObject object) {
+        return OBJECT_BUCKET.get(object.getClass());
+    }
+
+    /**
+     * The returned array is shared and must never be modified.
+     *
+     * @param type the class requested by the query
+     * @return the narrowest buckets that can hold instances of type
+     */
+    static RegionBucket[] forQuery(Class<?> type) {
+        return QUERY_BUCKETS.get(type);
+    }
+}
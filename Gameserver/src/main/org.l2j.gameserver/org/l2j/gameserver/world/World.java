@@ -34,12 +34,14 @@ import org.l2j.gameserver.model.actor.Npc;
 import org.l2j.gameserver.model.actor.Summon;
 import org.l2j.gameserver.model.actor.instance.Pet;
 import org.l2j.gameserver.model.actor.instance.Player;
+import org.l2j.gameserver.model.instancezone.Instance;
 import org.l2j.gameserver.model.events.EventDispatcher;
+import org.l2j.gameserver.model.events.EventType;
 import org.l2j.gameserver.model.events.impl.character.npc.OnNpcCreatureSee;
 import org.l2j.gameserver.network.Disconnection;
 import org.l2j.gameserver.settings.CharacterSettings;
+import org.l2j.gameserver.settings.GeneralSettings;
 import org.l2j.gameserver.util.GameUtils;
-import org.l2j.gameserver.util.MathUtil;
 import org.l2j.gameserver.world.zone.ZoneManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,7 +70,11 @@ public final class World {
     /**
      * Bit shift, defines number of regions note, shifting by 15 will result in regions corresponding to map tiles shifting by 11 divides one tile to 16x16 regions.
      */
-    private static final int SHIFT_BY = 11;
+    static final int SHIFT_BY = 11;
+    /**
+     * Bit shift of the cells inside each region, shifting by 9 divides one region to 4x4 cells used by the short range queries.
+     */
+    static final int CELL_SHIFT_BY = 9;
     public static final int TILE_SIZE = 32768;
     /**
      * Map dimensions.
@@ -86,13 +92,18 @@ public final class World {
     /**
      * Calculated offset used so top left region is 0,0
      */
-    private static final int OFFSET_X = Math.abs(MAP_MIN_X >> SHIFT_BY);
-    private static final int OFFSET_Y = Math.abs(MAP_MIN_Y >> SHIFT_BY);
+    static final int OFFSET_X = Math.abs(MAP_MIN_X >> SHIFT_BY);
+    static final int OFFSET_Y = Math.abs(MAP_MIN_Y >> SHIFT_BY);
     /**
      * Number of regions.
      */
     private static final int REGIONS_X = (MAP_MAX_X >> SHIFT_BY) + OFFSET_X;
     private static final int REGIONS_Y = (MAP_MAX_Y >> SHIFT_BY) + OFFSET_Y;
+    /**
+     * Range used by the visibility queries that must not filter by distance.
+     */
+    private static final int UNLIMITED_RANGE = -1;
+    private static final Predicate<WorldObject> ACCEPT_ALL = o -> true;
     /**
      * Map containing all the players in game.
      */
@@ -110,11 +121,18 @@ public final class World {
     private final AtomicInteger memberInPartyNumber = new AtomicInteger();
 
     private final WorldRegion[][] regions = new WorldRegion[REGIONS_X + 1][REGIONS_Y + 1];
+    /**
+     * Region layers of the instance worlds, so the objects of an instance are never visited by queries of another world.
+     */
+    private final IntMap<InstanceWorldRegions> instanceRegions = new CHashIntMap<>();
+
+    private boolean trackKnownPlayers;
 
     private World() {
     }
 
     private void initRegions() {
+        trackKnownPlayers = getSettings(GeneralSettings.class).trackKnownPlayers();
 
         for (int x = 0; x <= REGIONS_X; x++) {
             for (int y = 0; y <= REGIONS_Y; y++) {
@@ -129,6 +147,9 @@ public final class World {
         }
 
         LOGGER.info("World Region Grid set up: {} by {}", REGIONS_X, REGIONS_Y);
+        if(trackKnownPlayers) {
+            LOGGER.info("Tracking known players of the world objects");
+        }
     }
 
     private List<WorldRegion> initSurroundingRegions(int x, int y) {
@@ -276,6 +297,10 @@ public final class World {
         }
         newRegion.addVisibleObject(object);
 
+        if(trackKnownPlayers) {
+            newRegion.forEachSurroundingRegion(w -> knowObjectsIn(object, w));
+        }
+
         if(newRegion.isActive()) {
             forEachVisibleObject(object, WorldObject.class, wo -> beAwareOfEachOther(object, wo));
         }
@@ -288,11 +313,15 @@ public final class World {
         describeObjectToOther(wo, object);
 
         if (isNpc(wo) && isCreature(object)) {
-            EventDispatcher.getInstance().notifyEventAsync(new OnNpcCreatureSee((Npc) wo, (Creature) object, isSummon(object)), wo);
+            if (EventDispatcher.getInstance().hasListener(EventType.ON_NPC_CREATURE_SEE, wo)) {
+                EventDispatcher.getInstance().notifyEventAsync(new OnNpcCreatureSee((Npc) wo, (Creature) object, isSummon(object)), wo);
+            }
         }
 
         if (isNpc(object) && isCreature(wo)) {
-            EventDispatcher.getInstance().notifyEventAsync(new OnNpcCreatureSee((Npc) object, (Creature) wo, isSummon(wo)), object);
+            if (EventDispatcher.getInstance().hasListener(EventType.ON_NPC_CREATURE_SEE, object)) {
+                EventDispatcher.getInstance().notifyEventAsync(new OnNpcCreatureSee((Npc) object, (Creature) wo, isSummon(wo)), object);
+            }
         }
     }
 
@@ -338,19 +367,52 @@ public final class World {
 
         oldRegion.removeVisibleObject(object);
         oldRegion.forEachObjectInSurrounding(Creature.class, other ->  forgetEachOther(object, other), other -> !object.equals(other));
+
+        if(trackKnownPlayers) {
+            forgetKnownPlayers(object, oldRegion);
+        }
     }
 
+    /**
+     * Moves the object to the region of its position.
+     *
+     * Only one thread switches the region of an object at a time. A request made meanwhile is handled by that thread,
+     * which checks the region again with the latest position, so the region sets and known objects are never updated concurrently.
+     *
+     * @param object the object
+     */
     public void switchRegionIfNeed(WorldObject object) {
+        if(!object.requestRegionSwitch()) {
+            return;
+        }
+
+        int requests = 1;
+        do {
+            try {
+                switchToCurrentRegion(object);
+            } catch (Exception e) {
+                LOGGER.error("Error switching the region of {}", object, e);
+            }
+            requests = object.completeRegionSwitch(requests);
+        } while (requests > 0);
+    }
+
+    private void switchToCurrentRegion(WorldObject object) {
         var newRegion = getRegion(object);
-        WorldRegion oldRegion;
+        if(isNull(newRegion)) {
+            return;
+        }
 
-        if (nonNull(newRegion) && !newRegion.equals(oldRegion = object.getWorldRegion())) {
+        var oldRegion = object.getWorldRegion();
+        if (!newRegion.equals(oldRegion)) {
             object.setWorldRegion(newRegion);
             if (nonNull(oldRegion)) {
                 oldRegion.removeVisibleObject(object);
             }
             newRegion.addVisibleObject(object);
             switchRegion(object, oldRegion, newRegion);
+        } else {
+            newRegion.updateCell(object);
         }
     }
 
@@ -358,7 +420,10 @@ public final class World {
 
         newRegion.forEachSurroundingRegion(w -> {
             if (!w.isSurroundingRegion(oldRegion)) {
-                w.forEachObject(WorldObject.class, other -> beAwareOfEachOther(object, other), other -> !object.equals(other) && Objects.equals(other.getInstanceWorld(), object.getInstanceWorld()));
+                w.forEachObject(WorldObject.class, other -> beAwareOfEachOther(object, other), other -> !object.equals(other));
+                if(trackKnownPlayers) {
+                    knowObjectsIn(object, w);
+                }
             }
         });
 
@@ -366,11 +431,50 @@ public final class World {
             oldRegion.forEachSurroundingRegion(w -> {
                 if (!newRegion.isSurroundingRegion(w)) {
                     w.forEachObject(WorldObject.class, other -> this.forgetEachOther(object, other), other -> !object.equals(other));
+                    if(trackKnownPlayers) {
+                        forgetObjectsIn(object, w);
+                    }
                 }
             });
         }
     }
 
+    /**
+     * Registers the players of the region as known players of the object and the object as known player of every object in the region when it's a player.
+     */
+    private void knowObjectsIn(WorldObject object, WorldRegion region) {
+        if(isPlayer(object)) {
+            region.forEachObject(WorldObject.class, other -> knowEachOther(object, other), other -> !object.equals(other));
+        } else {
+            region.forEachObject(Player.class, player -> object.getKnownPlayers().add(player.getObjectId()), player -> !object.equals(player));
+        }
+    }
+
+    private void knowEachOther(WorldObject player, WorldObject other) {
+        other.getKnownPlayers().add(player.getObjectId());
+        if(isPlayer(other)) {
+            player.getKnownPlayers().add(other.getObjectId());
+        }
+    }
+
+    private void forgetObjectsIn(WorldObject object, WorldRegion region) {
+        if(isPlayer(object)) {
+            region.forEachObject(WorldObject.class, other -> forgetKnownPlayer(other, object), other -> !object.equals(other));
+        }
+        region.forEachObject(Player.class, player -> forgetKnownPlayer(object, player), player -> !object.equals(player));
+    }
+
+    private void forgetKnownPlayers(WorldObject object, WorldRegion region) {
+        if(isPlayer(object)) {
+            region.forEachObjectInSurrounding(WorldObject.class, other -> forgetKnownPlayer(other, object), other -> !object.equals(other));
+        }
+        object.getKnownPlayers().clear();
+    }
+
+    private void forgetKnownPlayer(WorldObject object, WorldObject player) {
+        object.getKnownPlayers().remove(player.getObjectId());
+    }
+
     private void forgetEachOther(WorldObject object, WorldObject other) {
         forgetObject(object, other);
         forgetObject(other, object);
@@ -408,7 +512,7 @@ public final class World {
             return includeReference && clazz.isInstance(reference) ? clazz.cast(reference) : null;
         }
 
-        return region.findAnyObjectInSurrounding(clazz, and(isVisibleInRange(reference, range, includeReference), filter));
+        return region.findAnyVisibleObjectInSurrounding(reference, clazz, range, includeReference, filter);
     }
 
     public <T extends WorldObject> T findFirstVisibleObject(WorldObject reference, Class<T> clazz, int range, boolean includeReference, Predicate<T> filter, Comparator<T> comparator) {
@@ -418,7 +522,7 @@ public final class World {
             return includeReference && clazz.isInstance(reference)? clazz.cast(reference) : null;
         }
 
-        return region.findFirstObjectInSurrounding(clazz, and(isVisibleInRange(reference, range, includeReference), filter), comparator);
+        return region.findFirstVisibleObjectInSurrounding(reference, clazz, range, includeReference, filter, comparator);
     }
 
     public boolean hasVisiblePlayer(WorldObject object) {
@@ -428,7 +532,7 @@ public final class World {
             return false;
         }
 
-        return region.hasObjectInSurrounding(Player.class, isVisibleInRange(object, getSettings(CharacterSettings.class).partyRange(), false));
+        return region.hasVisibleObjectInSurrounding(object, Player.class, getSettings(CharacterSettings.class).partyRange(), ACCEPT_ALL);
     }
 
     public <T extends WorldObject> boolean hasAnyVisibleObjectInRange(WorldObject reference, Class<T> clazz, int range, Predicate<T> filter) {
@@ -436,20 +540,36 @@ public final class World {
         if(isNull(region)) {
             return false;
         }
-        return region.hasObjectInSurrounding(clazz, and(isVisibleInRange(reference, range, false), filter));
+        return region.hasVisibleObjectInSurrounding(reference, clazz, range, filter);
     }
 
     public <T extends WorldObject> void forEachVisibleObject(WorldObject reference, Class<T> clazz, Consumer<T> action) {
+        forEachVisibleObject(reference, clazz, action, ACCEPT_ALL);
+    }
+
+    public <T extends WorldObject> void forEachVisibleObject(WorldObject reference, Class<T> clazz, Consumer<T> action, Predicate<? super T> filter) {
         var region = getRegion(reference);
-        if(nonNull(region)) {
-            region.forEachObjectInSurrounding(clazz, action, isVisible(reference));
+        if(isNull(region)) {
+            return;
+        }
+
+        if(trackKnownPlayers && clazz == Player.class) {
+            forEachKnownPlayer(reference, region, clazz, action, filter);
+        } else {
+            region.forEachVisibleObjectInSurrounding(reference, clazz, UNLIMITED_RANGE, filter, action);
         }
     }
 
-    public <T extends WorldObject> void forEachVisibleObject(WorldObject reference, Class<T> clazz, Consumer<T> action, Predicate<T> filter) {
-        var region = getRegion(reference);
-        if(nonNull(region)) {
-            region.forEachObjectInSurrounding(clazz, action, and(isVisible(reference), filter));
+    private <T extends WorldObject> void forEachKnownPlayer(WorldObject reference, WorldRegion region, Class<T> clazz, Consumer<T> action, Predicate<? super T> filter) {
+        final var it = reference.getKnownPlayers().iterator();
+        while (it.hasNext()) {
+            final Player player = players.get(it.nextInt());
+            if(nonNull(player) && region.isInSurroundingRegion(player)) {
+                final T casted = clazz.cast(player);
+                if(filter.test(casted)) {
+                    action.accept(casted);
+                }
+            }
         }
     }
 
@@ -460,7 +580,7 @@ public final class World {
             return Collections.emptyList();
         }
 
-        return region.findAllObjectsInSurrounding(clazz, and(isVisibleInRange(reference, range, false), filter));
+        return region.findAllVisibleObjectsInSurrounding(reference, clazz, range, filter);
     }
 
     public void forEachPlayerInRange(WorldObject reference, int range, Consumer<Player> action, Predicate<Player> filter) {
@@ -477,7 +597,7 @@ public final class World {
             return;
         }
 
-        region.forEachObjectInSurrounding(clazz, action, and(isVisibleInRange(reference, range, false), filter));
+        region.forEachVisibleObjectInSurrounding(reference, clazz, range, filter, action);
     }
 
     public <T extends WorldObject> void forVisibleObjectsInRange(WorldObject reference, Class<T> clazz, int range, int maxObjects, Predicate<T> filter, Consumer<T> action) {
@@ -486,7 +606,7 @@ public final class World {
             return;
         }
 
-        region.forEachObjectInSurroundingLimiting(clazz, maxObjects, and(isVisibleInRange(reference, range, false), filter), action);
+        region.forEachVisibleObjectInSurroundingLimiting(reference, clazz, range, maxObjects, filter, action);
     }
 
     public <T extends WorldObject> void forVisibleOrderedObjectsInRange(WorldObject reference, Class<T> clazz, int range, int maxObjects, Predicate<T> filter, Comparator<T> comparator, Consumer<? super T> action) {
@@ -496,7 +616,7 @@ public final class World {
             return;
         }
 
-        region.forEachOrderedObjectInSurrounding(clazz, maxObjects, comparator, and(isVisibleInRange(reference, range, false), filter), action);
+        region.forEachOrderedVisibleObjectInSurrounding(reference, clazz, range, maxObjects, comparator, filter, action);
     }
 
     public <T extends WorldObject> void forAnyVisibleObject(WorldObject reference, Class<T> clazz, Consumer<T> action, Predicate<T> filter) {
@@ -509,7 +629,10 @@ public final class World {
         if(isNull(region)) {
             return;
         }
-        region.forAnyObjectInSurrounding(clazz, action, and(isVisibleInRange(reference, range, false), filter));
+        final T object = region.findAnyVisibleObjectInSurrounding(reference, clazz, range, false, filter);
+        if(nonNull(object)) {
+            action.accept(object);
+        }
     }
 
     public <T extends WorldObject> boolean checkAnyVisibleObjectInRange(WorldObject reference, Class<T> clazz, int range, Predicate<T> filter) {
@@ -519,7 +642,7 @@ public final class World {
             return false;
         }
 
-        return region.hasObjectInSurrounding(clazz, and(isVisibleInRange(reference, range, false), filter));
+        return region.hasVisibleObjectInSurrounding(reference, clazz, range, filter);
     }
 
     /**
@@ -534,12 +657,41 @@ public final class World {
         if(isNull(object)) {
             return null;
         }
-        try {
-            return regions[(object.getX() >> SHIFT_BY) + OFFSET_X][(object.getY() >> SHIFT_BY) + OFFSET_Y];
-        } catch (ArrayIndexOutOfBoundsException e) { // Precaution. Moved at invalid region?
+
+        final int regionX = (object.getX() >> SHIFT_BY) + OFFSET_X;
+        final int regionY = (object.getY() >> SHIFT_BY) + OFFSET_Y;
+
+        if(regionX < 0 || regionX > REGIONS_X || regionY < 0 || regionY > REGIONS_Y) { // Precaution. Moved at invalid region?
             disposeOutOfBoundsObject(object);
             return null;
         }
+
+        final var instance = object.getInstanceWorld();
+        if(nonNull(instance)) {
+            // the layer only exists while the instance is registered, a late lookup must not bring it back
+            final var layer = instanceRegions.get(instance.getId());
+            return nonNull(layer) ? layer.getRegion(regionX, regionY) : null;
+        }
+        return regions[regionX][regionY];
+    }
+
+    /**
+     * Creates the region layer of the instance world.
+     * The regions of the layer are only created when an object enters on them.
+     *
+     * @param instance the instance world
+     */
+    public void addInstanceRegions(Instance instance) {
+        instanceRegions.putIfAbsent(instance.getId(), new InstanceWorldRegions(instance.getId(), REGIONS_X, REGIONS_Y));
+    }
+
+    /**
+     * Releases the region layer of a destroyed instance world.
+     *
+     * @param instanceId the id of the instance world
+     */
+    public void removeInstanceRegions(int instanceId) {
+        instanceRegions.remove(instanceId);
     }
 
     public WorldRegion getRegion(int x, int y) {
@@ -578,6 +730,9 @@ public final class World {
 
             if (nonNull(object.getWorldRegion())) {
                 object.getWorldRegion().removeVisibleObject(object);
+                if(trackKnownPlayers) {
+                    forgetKnownPlayers(object, object.getWorldRegion());
+                }
             }
         }
     }
@@ -622,19 +777,6 @@ public final class World {
         FenceDataManager.init();
     }
 
-    private static <T extends WorldObject> Predicate<T> isVisible(WorldObject reference) {
-        return isVisible(reference, false);
-    }
-
-    private static <T extends WorldObject> Predicate<T> isVisible(WorldObject reference, boolean includeReference) {
-        return object -> nonNull(object) && (includeReference || !object.equals(reference)) &&
-                Objects.equals(object.getInstanceWorld(), reference.getInstanceWorld());
-    }
-
-    private static <T extends WorldObject> Predicate<T> isVisibleInRange(WorldObject reference, int range, boolean includeReference){
-        return object -> isVisible(reference, includeReference).test(object) && MathUtil.isInsideRadius3D(reference, object, range);
-    }
-
     public static World getInstance() {
         return Singleton.INSTANCE;
     }
@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.world;
+
+import org.l2j.gameserver.model.WorldObject;
+
+import java.util.Arrays;
+
+/**
+ * Dense copy-on-write storage of the objects of a {@link WorldRegion} belonging to the same {@link RegionBucket}.
+ *
+ * Writes are rare compared to the visibility queries, so every change publishes a new array and the readers
+ * just iterate the last published snapshot with an indexed loop, without locks or iterators.
+ *
+ * @author JoeAlisson
+ */
+final class WorldObjectBucket {
+
+    static final WorldObject[] EMPTY = new WorldObject[0];
+
+    private volatile WorldObject[] objects = EMPTY;
+
+    /**
+     * @param object the object to add
+     * @return true if the object was not present in the bucket
+     */
+    synchronized boolean add(WorldObject object) {
+        final var current = objects;
+        if(indexOf(current, object.getObjectId()) >= 0) {
+            return false;
+        }
+        final var updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = object;
+        objects = updated;
+        return true;
+    }
+
+    /**
+     * @param object the object to remove
+     * @return true if the object was present in the bucket
+     */
+    synchronized boolean remove(WorldObject object) {
+        final var current = objects;
+        final int index = indexOf(current, object.getObjectId());
+        if(index < 0) {
+            return false;
+        }
+
+        if(current.length == 1) {
+            objects = EMPTY;
+        } else {
+            final var updated = new WorldObject[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, updated.length - index);
+            objects = updated;
+        }
+        return true;
+    }
+
+    /**
+     * The returned array is shared and must never be modified.
+     *
+     * @return the current snapshot of the objects
+     */
+    WorldObject[] snapshot() {
+        return objects;
+    }
+
+    int size() {
+        return objects.length;
+    }
+
+    boolean isEmpty() {
+        return objects.length == 0;
+    }
+
+    private static int indexOf(WorldObject[] objects, int objectId) {
+        for (int i = 0; i < objects.length; i++) {
+            if(objects[i].getObjectId() == objectId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
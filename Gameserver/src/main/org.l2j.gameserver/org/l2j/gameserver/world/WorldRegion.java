@@ -23,21 +23,20 @@ import io.github.joealisson.primitive.IntMap;
 import org.l2j.commons.threading.ThreadPool;
 import org.l2j.gameserver.Config;
 import org.l2j.gameserver.ai.CtrlIntention;
+import org.l2j.gameserver.engine.geo.GeoEngine;
 import org.l2j.gameserver.model.WorldObject;
 import org.l2j.gameserver.model.actor.Attackable;
 import org.l2j.gameserver.model.actor.Npc;
 import org.l2j.gameserver.taskmanager.RandomAnimationTaskManager;
-import org.l2j.gameserver.util.GameUtils;
 import org.l2j.gameserver.util.MathUtil;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static java.lang.Math.abs;
 import static java.util.Objects.isNull;
@@ -46,28 +45,147 @@ import static org.l2j.gameserver.util.GameUtils.*;
 
 public final class WorldRegion {
 
+    private static final int CELLS_PER_SIDE = 1 << (World.SHIFT_BY - World.CELL_SHIFT_BY);
+    private static final int CELLS = CELLS_PER_SIDE * CELLS_PER_SIDE;
+    private static final int CELL_SIZE = 1 << World.CELL_SHIFT_BY;
+    /**
+     * Cell mask bit used to visit the whole region buckets instead of its cells.
+     */
+    private static final int WHOLE_REGION = 1 << CELLS;
+    private static final int ALL_CELLS = WHOLE_REGION - 1;
+    /**
+     * Any range from this value covers all the surrounding regions entirely.
+     */
+    private static final int MAX_CELLS_RANGE = 3 << World.SHIFT_BY;
+
     private final int regionX;
     private final int regionY;
+    private final int minX;
+    private final int minY;
+    /**
+     * The instance world owning this region, 0 for the regions of the main world.
+     */
+    private final int instanceId;
     /**
      * Map containing visible objects in this world region.
      */
     private final IntMap<WorldObject> objects = new CHashIntMap<>();
+    /**
+     * Dense snapshots of the visible objects used by the visibility queries, indexed by {@link RegionBucket}.
+     */
+    private final WorldObjectBucket[] buckets = new WorldObjectBucket[RegionBucket.VALUES.length];
+    /**
+     * Sub-grid of the region used by the short range queries, indexed by {@link RegionBucket} and created when the first object of the bucket enters.
+     */
+    private final AtomicReferenceArray<WorldObjectBucket[]> cells = new AtomicReferenceArray<>(RegionBucket.VALUES.length);
+    /**
+     * The cell of each visible object in this region.
+     */
+    private final IntMap<Integer> objectCells = new CHashIntMap<>();
+    private final Object objectsLocker = new Object();
     /**
      * Map containing nearby regions forming this world region's effective area.
      */
-    private WorldRegion[] surroundingRegions;
+    private volatile WorldRegion[] surroundingRegions;
     private boolean active;
 
     private ScheduledFuture<?> neighborsTask = null;
     private final Object taskLocker = new Object();
 
     WorldRegion(int regionX, int regionY) {
+        this(regionX, regionY, 0);
+    }
+
+    WorldRegion(int regionX, int regionY, int instanceId) {
         this.regionX = regionX;
         this.regionY = regionY;
+        this.instanceId = instanceId;
+        this.minX = (regionX - World.OFFSET_X) << World.SHIFT_BY;
+        this.minY = (regionY - World.OFFSET_Y) << World.SHIFT_BY;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new WorldObjectBucket();
+        }
     }
 
     private boolean areNeighborsEmpty() {
-        return checkEachSurroundingRegion(w -> !(w.isActive() && w.objects.values().stream().anyMatch(GameUtils::isPlayable)));
+        for (WorldRegion region : surroundingRegions) {
+            if(region.isActive() && region.hasPlayable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasPlayable() {
+        return !bucket(RegionBucket.PLAYER).isEmpty() || !bucket(RegionBucket.SUMMON).isEmpty();
+    }
+
+    private WorldObjectBucket bucket(RegionBucket type) {
+        return buckets[type.ordinal()];
+    }
+
+    private WorldObjectBucket cellBucket(RegionBucket type, int cell) {
+        var typeCells = cells.get(type.ordinal());
+        if(isNull(typeCells)) {
+            typeCells = new WorldObjectBucket[CELLS];
+            for (int i = 0; i < CELLS; i++) {
+                typeCells[i] = new WorldObjectBucket();
+            }
+            cells.set(type.ordinal(), typeCells);
+        }
+        return typeCells[cell];
+    }
+
+    /**
+     * @param cell the cell index or {@link #WHOLE_REGION} index
+     * @return the objects of the type in the cell
+     */
+    private WorldObject[] snapshot(RegionBucket type, int cell) {
+        if(cell == CELLS) {
+            return bucket(type).snapshot();
+        }
+        final var typeCells = cells.get(type.ordinal());
+        return isNull(typeCells) ? WorldObjectBucket.EMPTY : typeCells[cell].snapshot();
+    }
+
+    private int cellOf(WorldObject object) {
+        final int cellX = Math.max(0, Math.min(CELLS_PER_SIDE - 1, (object.getX() - minX) >> World.CELL_SHIFT_BY));
+        final int cellY = Math.max(0, Math.min(CELLS_PER_SIDE - 1, (object.getY() - minY) >> World.CELL_SHIFT_BY));
+        return cellY * CELLS_PER_SIDE + cellX;
+    }
+
+    /**
+     * Computes the cells intersecting the circle of the range around the reference.
+     *
+     * @param range the query range, a negative value means the whole region
+     * @return the bitmask of the cells to visit
+     */
+    private int cellsInRange(WorldObject reference, int range) {
+        if(range < 0 || range >= MAX_CELLS_RANGE) {
+            return WHOLE_REGION;
+        }
+
+        final int x = reference.getX();
+        final int y = reference.getY();
+        final int minCellX = Math.max(0, (x - range - minX) >> World.CELL_SHIFT_BY);
+        final int maxCellX = Math.min(CELLS_PER_SIDE - 1, (x + range - minX) >> World.CELL_SHIFT_BY);
+        final int minCellY = Math.max(0, (y - range - minY) >> World.CELL_SHIFT_BY);
+        final int maxCellY = Math.min(CELLS_PER_SIDE - 1, (y + range - minY) >> World.CELL_SHIFT_BY);
+
+        final long rangeSq = (long) range * range;
+        int mask = 0;
+        for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+            final int cellMinY = minY + (cellY << World.CELL_SHIFT_BY);
+            final long dy = Math.max(0, Math.max(cellMinY - y, y - (cellMinY + CELL_SIZE - 1)));
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                final int cellMinX = minX + (cellX << World.CELL_SHIFT_BY);
+                final long dx = Math.max(0, Math.max(cellMinX - x, x - (cellMinX + CELL_SIZE - 1)));
+                if(dx * dx + dy * dy <= rangeSq) {
+                    mask |= 1 << (cellY * CELLS_PER_SIDE + cellX);
+                }
+            }
+        }
+        return mask == ALL_CELLS ? WHOLE_REGION : mask;
     }
 
     /**
@@ -81,7 +199,15 @@ public final class WorldRegion {
             return;
         }
 
-        objects.put(object.getObjectId(), object);
+        synchronized (objectsLocker) {
+            objects.put(object.getObjectId(), object);
+            final var type = RegionBucket.of(object);
+            if(bucket(type).add(object)) {
+                final int cell = cellOf(object);
+                cellBucket(type, cell).add(object);
+                objectCells.put(object.getObjectId(), cell);
+            }
+        }
 
         if (isPlayable(object)) {
             // If this is the first player to enter the region, activate self and neighbors.
@@ -101,6 +227,19 @@ public final class WorldRegion {
         startNeighborsTask(true, Config.GRID_NEIGHBOR_TURNON_TIME);
     }
 
+    /**
+     * Activates the region when any of its neighbors is active.
+     * The regions created on demand miss the activation of their neighbors, which only reaches the regions already created.
+     */
+    void activateIfNeighborActive() {
+        for (WorldRegion region : surroundingRegions) {
+            if (region != this && region.isActive()) {
+                setActive(true);
+                return;
+            }
+        }
+    }
+
     private void setActive(boolean active) {
         if (this.active == active) {
             return;
@@ -108,50 +247,51 @@ public final class WorldRegion {
 
         this.active = active;
 
+        if (active) {
+            GeoEngine.getInstance().preloadRegion(minX, minY);
+        }
+
         // Turn the AI on or off to match the region's activation.
         switchAI(active);
     }
 
     private void switchAI(boolean isOn) {
-        if (objects.isEmpty()) {
-            return;
-        }
+        final var attackables = bucket(RegionBucket.ATTACKABLE).snapshot();
+        final var npcs = bucket(RegionBucket.NPC).snapshot();
 
         if (!isOn) {
-            for (WorldObject o : objects.values()) {
-                if (isAttackable(o)) {
-                    final Attackable mob = (Attackable) o;
+            for (WorldObject o : attackables) {
+                final Attackable mob = (Attackable) o;
 
-                    // Set target to null and cancel attack or cast.
-                    mob.setTarget(null);
+                // Set target to null and cancel attack or cast.
+                mob.setTarget(null);
 
-                    // Stop movement.
-                    mob.stopMove(null);
+                // Stop movement.
+                mob.stopMove(null);
 
-                    // Stop all active skills effects in progress on the Creature.
-                    mob.stopAllEffects();
+                // Stop all active skills effects in progress on the Creature.
+                mob.stopAllEffects();
 
-                    mob.clearAggroList();
-                    mob.getAttackByList().clear();
+                mob.clearAggroList();
+                mob.getAttackByList().clear();
 
-                    // Stop the AI tasks.
-                    if (mob.hasAI()) {
-                        mob.getAI().setIntention(CtrlIntention.AI_INTENTION_IDLE);
-                        mob.getAI().stopAITask();
-                    }
-                    RandomAnimationTaskManager.getInstance().remove(mob);
-                } else if (isNpc(o)) {
-                    RandomAnimationTaskManager.getInstance().remove((Npc) o);
+                // Stop the AI tasks.
+                if (mob.hasAI()) {
+                    mob.getAI().setIntention(CtrlIntention.AI_INTENTION_IDLE);
+                    mob.getAI().stopAITask();
                 }
+                RandomAnimationTaskManager.getInstance().remove(mob);
+            }
+            for (WorldObject o : npcs) {
+                RandomAnimationTaskManager.getInstance().remove((Npc) o);
             }
         } else {
-            for (WorldObject o : objects.values()) {
-                if (isAttackable(o)) {
-                    // Start HP/MP/CP regeneration task.
-                    ((Attackable) o).getStatus().startHpMpRegeneration();
-                } else if (isNpc(o)) {
-                    RandomAnimationTaskManager.getInstance().add((Npc) o);
-                }
+            for (WorldObject o : attackables) {
+                // Start HP/MP/CP regeneration task.
+                ((Attackable) o).getStatus().startHpMpRegeneration();
+            }
+            for (WorldObject o : npcs) {
+                RandomAnimationTaskManager.getInstance().add((Npc) o);
             }
         }
     }
@@ -182,7 +322,15 @@ public final class WorldRegion {
             return;
         }
 
-        objects.remove(object.getObjectId());
+        synchronized (objectsLocker) {
+            objects.remove(object.getObjectId());
+            final var type = RegionBucket.of(object);
+            bucket(type).remove(object);
+            final Integer cell = objectCells.remove(object.getObjectId());
+            if(nonNull(cell)) {
+                cellBucket(type, cell).remove(object);
+            }
+        }
 
         if (isPlayable(object)) {
             if (areNeighborsEmpty() && !Config.GRIDS_ALWAYS_ON) {
@@ -191,6 +339,30 @@ public final class WorldRegion {
         }
     }
 
+    /**
+     * Moves the object to its current cell when it has moved inside this region.
+     *
+     * @param object the object moved
+     */
+    void updateCell(WorldObject object) {
+        final Integer current = objectCells.get(object.getObjectId());
+        if(isNull(current) || current == cellOf(object)) {
+            return;
+        }
+
+        synchronized (objectsLocker) {
+            final Integer oldCell = objectCells.get(object.getObjectId());
+            final int newCell = cellOf(object);
+            if(isNull(oldCell) || oldCell == newCell) {
+                return;
+            }
+            final var type = RegionBucket.of(object);
+            cellBucket(type, oldCell).remove(object);
+            cellBucket(type, newCell).add(object);
+            objectCells.put(object.getObjectId(), newCell);
+        }
+    }
+
     boolean checkEachSurroundingRegion(Predicate<WorldRegion> p) {
         for (WorldRegion worldRegion : surroundingRegions) {
             if (!p.test(worldRegion)) {
@@ -201,37 +373,83 @@ public final class WorldRegion {
     }
 
     void forEachSurroundingRegion(Consumer<WorldRegion> action) {
-        Arrays.stream(surroundingRegions).forEach(action);
+        for (WorldRegion worldRegion : surroundingRegions) {
+            action.accept(worldRegion);
+        }
     }
 
     <T extends WorldObject> void forEachObject(Class<T> clazz, Consumer<T> action, Predicate<T> filter) {
-        regionToWorldObjectStream(this).filter(applyInstanceFilter(clazz, filter)).map(clazz::cast).forEach(action);
+        for (RegionBucket type : RegionBucket.forQuery(clazz)) {
+            final var snapshot = bucket(type).snapshot();
+            for (int i = 0; i < snapshot.length; i++) {
+                final var object = snapshot[i];
+                if(clazz.isInstance(object)) {
+                    final T casted = clazz.cast(object);
+                    if(filter.test(casted)) {
+                        action.accept(casted);
+                    }
+                }
+            }
+        }
     }
 
     <T extends WorldObject> void forEachObjectInSurrounding(Class<T> clazz, Consumer<T> action, Predicate<T> filter) {
-        filteredParallelSurroundingObjects(clazz, filter).forEach(action);
-    }
-
-    private <T extends WorldObject> Stream<T> filteredParallelSurroundingObjects(Class<T> clazz, Predicate<T> filter) {
-        return Arrays.stream(surroundingRegions)
-                .flatMap(WorldRegion::regionToWorldObjectStream)
-                .filter(applyInstanceFilter(clazz, filter)).map(clazz::cast);
+        for (WorldRegion region : surroundingRegions) {
+            region.forEachObject(clazz, action, filter);
+        }
     }
 
-    <T extends WorldObject> void forEachObjectInSurroundingLimiting(Class<T> clazz, int limit, Predicate<T> filter, Consumer<T> action) {
-        filteredParallelSurroundingObjects(clazz, filter).limit(limit).forEach(action);
+    <T extends WorldObject> void forEachVisibleObjectInSurrounding(WorldObject reference, Class<T> clazz, int range, Predicate<? super T> filter, Consumer<T> action) {
+        final var types = RegionBucket.forQuery(clazz);
+        for (WorldRegion region : surroundingRegions) {
+            final int regionCells = region.cellsInRange(reference, range);
+            for (RegionBucket type : types) {
+                for (int cells = regionCells; cells != 0; cells &= cells - 1) {
+                    final var snapshot = region.snapshot(type, Integer.numberOfTrailingZeros(cells));
+                    for (int i = 0; i < snapshot.length; i++) {
+                        final T object = visibleObject(reference, snapshot[i], clazz, range, false, filter);
+                        if(nonNull(object)) {
+                            action.accept(object);
+                        }
+                    }
+                }
+            }
+        }
     }
 
-    <T extends WorldObject> void forEachOrderedObjectInSurrounding(Class<T> clazz, int maxObjects, Comparator<T> comparator, Predicate<T> filter, Consumer<? super T> action) {
-        filteredSurroundingObjects(clazz, filter).sorted(comparator).limit(maxObjects).forEach(action);
-    }
+    <T extends WorldObject> void forEachVisibleObjectInSurroundingLimiting(WorldObject reference, Class<T> clazz, int range, int limit, Predicate<? super T> filter, Consumer<T> action) {
+        if(limit <= 0) {
+            return;
+        }
 
-    private <T extends WorldObject> Stream<T> filteredSurroundingObjects(Class<T> clazz, Predicate<T> filter) {
-        return Arrays.stream(surroundingRegions).flatMap(r -> r.objects.values().stream()).filter(applyInstanceFilter(clazz, filter)).map(clazz::cast);
+        final var types = RegionBucket.forQuery(clazz);
+        int count = 0;
+        for (WorldRegion region : surroundingRegions) {
+            final int regionCells = region.cellsInRange(reference, range);
+            for (RegionBucket type : types) {
+                for (int cells = regionCells; cells != 0; cells &= cells - 1) {
+                    final var snapshot = region.snapshot(type, Integer.numberOfTrailingZeros(cells));
+                    for (int i = 0; i < snapshot.length; i++) {
+                        final T object = visibleObject(reference, snapshot[i], clazz, range, false, filter);
+                        if(nonNull(object)) {
+                            action.accept(object);
+                            if(++count >= limit) {
+                                return;
+                            }
+                        }
+                    }
+                }
+            }
+        }
     }
 
-    <T extends WorldObject> void forAnyObjectInSurrounding(Class<T> clazz, Consumer<T> action, Predicate<T> filter) {
-        filteredParallelSurroundingObjects(clazz, filter).findAny().ifPresent(action);
+    <T extends WorldObject> void forEachOrderedVisibleObjectInSurrounding(WorldObject reference, Class<T> clazz, int range, int maxObjects, Comparator<T> comparator, Predicate<? super T> filter, Consumer<? super T> action) {
+        final var objects = findAllVisibleObjectsInSurrounding(reference, clazz, range, filter);
+        objects.sort(comparator);
+        final int limit = Math.min(maxObjects, objects.size());
+        for (int i = 0; i < limit; i++) {
+            action.accept(objects.get(i));
+        }
     }
 
     WorldObject findObjectInSurrounding(WorldObject reference, int objectId, int range) {
@@ -247,24 +465,67 @@ public final class WorldRegion {
         return null;
     }
 
-    <T extends WorldObject> List<T> findAllObjectsInSurrounding(Class<T> clazz, Predicate<T> filter) {
-        return filteredSurroundingObjects(clazz, filter).collect(Collectors.toList());
-    }
-
-    <T extends WorldObject> T findAnyObjectInSurrounding(Class<T> clazz, Predicate<T> filter) {
-        return  filteredParallelSurroundingObjects(clazz, filter).findAny().orElse(null);
-    }
-
-    <T extends WorldObject> T findFirstObjectInSurrounding(Class<T> clazz, Predicate<T> filter, Comparator<T> comparator) {
-        return filteredSurroundingObjects(clazz, filter).min(comparator).orElse(null);
+    <T extends WorldObject> List<T> findAllVisibleObjectsInSurrounding(WorldObject reference, Class<T> clazz, int range, Predicate<? super T> filter) {
+        final var types = RegionBucket.forQuery(clazz);
+        final List<T> result = new ArrayList<>();
+        for (WorldRegion region : surroundingRegions) {
+            final int regionCells = region.cellsInRange(reference, range);
+            for (RegionBucket type : types) {
+                for (int cells = regionCells; cells != 0; cells &= cells - 1) {
+                    final var snapshot = region.snapshot(type, Integer.numberOfTrailingZeros(cells));
+                    for (int i = 0; i < snapshot.length; i++) {
+                        final T object = visibleObject(reference, snapshot[i], clazz, range, false, filter);
+                        if(nonNull(object)) {
+                            result.add(object);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    <T extends WorldObject> T findAnyVisibleObjectInSurrounding(WorldObject reference, Class<T> clazz, int range, boolean includeReference, Predicate<? super T> filter) {
+        final var types = RegionBucket.forQuery(clazz);
+        for (WorldRegion region : surroundingRegions) {
+            final int regionCells = region.cellsInRange(reference, range);
+            for (RegionBucket type : types) {
+                for (int cells = regionCells; cells != 0; cells &= cells - 1) {
+                    final var snapshot = region.snapshot(type, Integer.numberOfTrailingZeros(cells));
+                    for (int i = 0; i < snapshot.length; i++) {
+                        final T object = visibleObject(reference, snapshot[i], clazz, range, includeReference, filter);
+                        if(nonNull(object)) {
+                            return object;
+                        }
+                    }
+                }
+            }
+        }
+        return null;
     }
 
-    <T extends WorldObject> boolean hasObjectInSurrounding(Class<T> clazz, Predicate<T> filter) {
-        return Arrays.stream(surroundingRegions).flatMap(WorldRegion::regionToWorldObjectStream).anyMatch(applyInstanceFilter(clazz, filter));
+    <T extends WorldObject> T findFirstVisibleObjectInSurrounding(WorldObject reference, Class<T> clazz, int range, boolean includeReference, Predicate<? super T> filter, Comparator<T> comparator) {
+        final var types = RegionBucket.forQuery(clazz);
+        T first = null;
+        for (WorldRegion region : surroundingRegions) {
+            final int regionCells = region.cellsInRange(reference, range);
+            for (RegionBucket type : types) {
+                for (int cells = regionCells; cells != 0; cells &= cells - 1) {
+                    final var snapshot = region.snapshot(type, Integer.numberOfTrailingZeros(cells));
+                    for (int i = 0; i < snapshot.length; i++) {
+                        final T object = visibleObject(reference, snapshot[i], clazz, range, includeReference, filter);
+                        if(nonNull(object) && (isNull(first) || comparator.compare(object, first) < 0)) {
+                            first = object;
+                        }
+                    }
+                }
+            }
+        }
+        return first;
     }
 
-    <T extends WorldObject> long countObjectInSurrounding(Class<T> clazz, Predicate<T> filter) {
-        return filteredParallelSurroundingObjects(clazz, filter).count();
+    <T extends WorldObject> boolean hasVisibleObjectInSurrounding(WorldObject reference, Class<T> clazz, int range, Predicate<? super T> filter) {
+        return nonNull(findAnyVisibleObjectInSurrounding(reference, clazz, range, false, filter));
     }
 
     WorldObject getObject(int objectId) {
@@ -272,16 +533,15 @@ public final class WorldRegion {
     }
 
     void setSurroundingRegions(WorldRegion[] regions) {
-        surroundingRegions = regions;
-
         // Make sure that this region is always the first region to improve bulk operations when this region should be update first
-        for (int i = 0; i < surroundingRegions.length; i++) {
-            if(surroundingRegions[i] == this) {
-                var first = surroundingRegions[0];
-                surroundingRegions[0] = this;
-                surroundingRegions[i] = first;
+        for (int i = 0; i < regions.length; i++) {
+            if(regions[i] == this) {
+                var first = regions[0];
+                regions[0] = this;
+                regions[i] = first;
             }
         }
+        surroundingRegions = regions;
     }
 
     public boolean isInSurroundingRegion(WorldObject object) {
@@ -293,7 +553,15 @@ public final class WorldRegion {
     }
 
     boolean isSurroundingRegion(WorldRegion region) {
-        return nonNull(region) && abs(regionX - region.regionX) <= 1 && abs(regionY - region.regionY) <= 1;
+        return nonNull(region) && instanceId == region.instanceId && abs(regionX - region.regionX) <= 1 && abs(regionY - region.regionY) <= 1;
+    }
+
+    int getRegionX() {
+        return regionX;
+    }
+
+    int getRegionY() {
+        return regionY;
     }
 
     public boolean isActive() {
@@ -301,17 +569,32 @@ public final class WorldRegion {
     }
 
 
-    private static <T extends WorldObject> Predicate<? super WorldObject> applyInstanceFilter(Class<T> clazz, Predicate<T> filter) {
-        return object -> clazz.isInstance(object) && filter.test(clazz.cast(object));
-    }
+    /**
+     * Checks the visibility of the object to the reference without any allocation.
+     *
+     * @param range the max distance from reference, a negative value ignores the distance
+     * @return the object casted to clazz when it's visible and accepted by the filter, otherwise null
+     */
+    private static <T extends WorldObject> T visibleObject(WorldObject reference, WorldObject object, Class<T> clazz, int range, boolean includeReference, Predicate<? super T> filter) {
+        if(!clazz.isInstance(object)) {
+            return null;
+        }
+
+        if(object.getObjectId() == reference.getObjectId()) {
+            if(!includeReference) {
+                return null;
+            }
+        } else if(range >= 0 && !MathUtil.isInsideRadius3D(reference, object, range)) {
+            return null;
+        }
 
-    private static Stream<? extends WorldObject> regionToWorldObjectStream(WorldRegion region) {
-        return region.objects.values().parallelStream();
+        final T casted = clazz.cast(object);
+        return filter.test(casted) ? casted : null;
     }
 
     @Override
     public String toString() {
-        return "(" + regionX + ", " + regionY + ")";
+        return instanceId == 0 ? "(" + regionX + ", " + regionY + ")" : "(" + regionX + ", " + regionY + ", instance " + instanceId + ")";
     }
 
     /**
@@ -22,6 +22,7 @@ import org.l2j.gameserver.model.actor.Creature;
 import org.l2j.gameserver.model.events.EventDispatcher;
 import org.l2j.gameserver.model.events.impl.OnDayNightChange;
 import org.l2j.gameserver.model.skills.CommonSkill;
+import org.l2j.gameserver.network.GameClient;
 import org.l2j.gameserver.network.SystemMessageId;
 import org.l2j.gameserver.network.serverpackets.SystemMessage;
 import org.slf4j.Logger;
@@ -52,6 +53,7 @@ public final class WorldTimeController extends Thread {
 
     private final Set<Creature> movingObjects = ConcurrentHashMap.newKeySet();
     private final Set<Creature> shadowSenseCharacters = ConcurrentHashMap.newKeySet();
+    private final Set<GameClient> clientsToFlush = ConcurrentHashMap.newKeySet();
 
     private final long referenceTime;
     private volatile boolean shutdown = false;
@@ -121,6 +123,23 @@ public final class WorldTimeController extends Thread {
         movingObjects.removeIf(Creature::updatePosition);
     }
 
+    /**
+     * Schedules the write of the packets collected by the client to the end of the current tick.
+     *
+     * @param client the client with collected packets
+     */
+    public final void scheduleFlush(GameClient client) {
+        clientsToFlush.add(client);
+    }
+
+    private void flushClients() {
+        for (var iterator = clientsToFlush.iterator(); iterator.hasNext(); ) {
+            final var client = iterator.next();
+            iterator.remove();
+            client.flushPackets();
+        }
+    }
+
     public final void stopTimer() {
         shutdown = true;
     }
@@ -142,6 +161,12 @@ public final class WorldTimeController extends Thread {
                 LOGGER.warn(e.getLocalizedMessage(), e);
             }
 
+            try {
+                flushClients();
+            } catch (Throwable e) {
+                LOGGER.warn(e.getLocalizedMessage(), e);
+            }
+
             sleepTime = nextTickTime - currentTimeMillis();
             if (sleepTime > 0) {
                 try {
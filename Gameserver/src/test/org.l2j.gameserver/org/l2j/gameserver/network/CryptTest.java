@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2019-2020 L2JOrg
+ *
+ * This file is part of the L2JOrg project.
+ *
+ * L2JOrg is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * L2JOrg is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.l2j.gameserver.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Differential test of the word based {@link Crypt} against the byte by byte cipher.
+ *
+ * @author JoeAlisson
+ */
+class CryptTest {
+
+    private static final int MAX_SIZE = 300;
+    private static final int PACKETS = 5;
+    private static final int ROUNDS = 20;
+
+    private final Random random = new Random(0x4C324A);
+
+    @Test
+    void encryptMatchesByteCipher() {
+        for (int round = 0; round < ROUNDS; round++) {
+            final var key = randomKey();
+            final var crypt = enabled(key);
+            final var reference = new ByteCipher(key);
+
+            for (int size = 0; size <= MAX_SIZE; size++) {
+                // consecutive packets of the same size shift the key between them
+                for (int packet = 0; packet < PACKETS; packet++) {
+                    final int offset = random.nextInt(16);
+                    final var data = randomData(offset + size + random.nextInt(16));
+                    final var expected = data.clone();
+
+                    reference.encrypt(expected, offset, size);
+                    crypt.encrypt(data, offset, size);
+                    assertArrayEquals(expected, data, "encrypt size " + size + " offset " + offset);
+                }
+            }
+        }
+    }
+
+    @Test
+    void decryptMatchesByteCipher() {
+        for (int round = 0; round < ROUNDS; round++) {
+            final var key = randomKey();
+            final var crypt = enabled(key);
+            final var reference = new ByteCipher(key);
+
+            for (int size = 0; size <= MAX_SIZE; size++) {
+                for (int packet = 0; packet < PACKETS; packet++) {
+                    final int offset = random.nextInt(16);
+                    final var data = randomData(offset + size + random.nextInt(16));
+                    final var expected = data.clone();
+
+                    reference.decrypt(expected, offset, size);
+                    crypt.decrypt(data, offset, size);
+                    assertArrayEquals(expected, data, "decrypt size " + size + " offset " + offset);
+                }
+            }
+        }
+    }
+
+    @Test
+    void decryptRestoresEncryptedData() {
+        final var key = randomKey();
+        final var sender = enabled(key);
+        final var receiver = enabled(key);
+
+        for (int size = 0; size <= MAX_SIZE; size++) {
+            final int offset = random.nextInt(16);
+            final var data = randomData(offset + size);
+            final var original = data.clone();
+
+            sender.encrypt(data, offset, size);
+            receiver.decrypt(data, offset, size);
+            assertArrayEquals(original, data, "round trip size " + size + " offset " + offset);
+        }
+    }
+
+    /**
+     * The first packet sent, the key packet, is not ciphered and enables the cipher of both directions.
+     */
+    private Crypt enabled(byte[] key) {
+        final var crypt = new Crypt(null);
+        crypt.setKey(key);
+        crypt.encrypt(new byte[0], 0, 0);
+        return crypt;
+    }
+
+    private byte[] randomKey() {
+        return randomData(16);
+    }
+
+    private byte[] randomData(int size) {
+        final var data = new byte[size];
+        random.nextBytes(data);
+        return data;
+    }
+
+    /**
+     * The cipher processing a byte at a time, as it was before working on words.
+     */
+    private static final class ByteCipher {
+        private final byte[] inKey;
+        private final byte[] outKey;
+
+        private ByteCipher(byte[] key) {
+            inKey = Arrays.copyOf(key, 16);
+            outKey = Arrays.copyOf(key, 16);
+        }
+
+        private void encrypt(byte[] data, int offset, int size) {
+            int encrypted = 0;
+            for (int i = 0; i < size; i++) {
+                encrypted = Byte.toUnsignedInt(data[offset + i]) ^ outKey[i & 0x0F] ^ encrypted;
+                data[offset + i] = (byte) encrypted;
+            }
+            shiftKey(outKey, size);
+        }
+
+        private void decrypt(byte[] data, int offset, int size) {
+            int xOr = 0;
+            for (int i = 0; i < size; i++) {
+                final int encrypted = Byte.toUnsignedInt(data[offset + i]);
+                data[offset + i] = (byte) (encrypted ^ inKey[i & 15] ^ xOr);
+                xOr = encrypted;
+            }
+            shiftKey(inKey, size);
+        }
+
+        private static void shiftKey(byte[] key, int size) {
+            int old = key[8] & 0xff;
+            old |= (key[9] << 8) & 0xff00;
+            old |= (key[10] << 0x10) & 0xff0000;
+            old |= (key[11] << 0x18) & 0xff000000;
+
+            old += size;
+
+            key[8] = (byte) (old & 0xff);
+            key[9] = (byte) ((old >> 0x08) & 0xff);
+            key[10] = (byte) ((old >> 0x10) & 0xff);
+            key[11] = (byte) ((old >> 0x18) & 0xff);
+        }
+    }
+}